@@ -140,6 +140,122 @@ app.get('/api/anime/search', async (req, res) => {
   }
 });
 
+/**
+ * @swagger
+ * /api/search:
+ *   get:
+ *     summary: Search anime, characters and people in one call
+ *     description: Delegates to the Spring Boot cross-entity search using one Axios HTTP request
+ *     parameters:
+ *       - in: query
+ *         name: q
+ *         required: true
+ *         schema:
+ *           type: string
+ */
+app.get('/api/search', async (req, res) => {
+  try {
+    const { q, limit, fuzzy } = req.query;
+
+    if (!q) {
+      return res.status(400).json({ error: 'q parameter required' });
+    }
+
+    // Single Axios HTTP GET request, Spring Boot fans out to the three sources
+    const response = await axios.get(`${SPRING_BOOT_URL}/api/search`, {
+      params: { q, limit, fuzzy },
+      timeout: 10000,
+      headers: { 'Content-Type': 'application/json' }
+    });
+
+    res.json(response.data);
+  } catch (error) {
+    console.error('Axios error:', error.message);
+    res.status(error.response?.status || 500).json({
+      error: 'Search failed',
+      message: error.message
+    });
+  }
+});
+
+/**
+ * @swagger
+ * /api/search/text/{type}:
+ *   get:
+ *     summary: Full-text search of anime synopses or character/person descriptions
+ *     description: Delegates to the Spring Boot BM25 full-text search using one Axios HTTP request
+ *     parameters:
+ *       - in: path
+ *         name: type
+ *         required: true
+ *         schema:
+ *           type: string
+ *           enum: [anime, character, person]
+ *       - in: query
+ *         name: q
+ *         required: true
+ *         schema:
+ *           type: string
+ */
+app.get('/api/search/text/:type', async (req, res) => {
+  try {
+    const { type } = req.params;
+    const { q, limit, offset } = req.query;
+
+    if (!q) {
+      return res.status(400).json({ error: 'q parameter required' });
+    }
+
+    const response = await axios.get(`${SPRING_BOOT_URL}/api/search/text/${encodeURIComponent(type)}`, {
+      params: { q, limit, offset },
+      timeout: 10000,
+      headers: { 'Content-Type': 'application/json' }
+    });
+
+    res.json(response.data);
+  } catch (error) {
+    console.error('Axios error:', error.message);
+    res.status(error.response?.status || 500).json({
+      error: 'Full-text search failed',
+      message: error.message
+    });
+  }
+});
+
+/**
+ * @swagger
+ * /api/anime/{id}/similar:
+ *   get:
+ *     summary: Anime most similar to an anime (genres, studios, type, source, rating, score)
+ *     description: Delegates to the Spring Boot precomputed recommendations using one Axios HTTP request
+ *     parameters:
+ *       - in: query
+ *         name: limit
+ *         schema:
+ *           type: integer
+ *           default: 10
+ */
+app.get('/api/anime/:id/similar', async (req, res) => {
+  try {
+    const { id } = req.params;
+    const { limit } = req.query;
+
+    const response = await axios.get(`${SPRING_BOOT_URL}/api/anime/${encodeURIComponent(id)}/similar`, {
+      params: { limit },
+      timeout: 10000,
+      headers: { 'Content-Type': 'application/json' }
+    });
+
+    res.json(response.data);
+  } catch (error) {
+    console.error('Axios error:', error.message);
+    res.status(error.response?.status || 500).json({
+      error: 'Failed to fetch similar anime',
+      message: error.message
+    });
+  }
+});
+
 /**
  * @swagger
  * /api/anime/{id}:
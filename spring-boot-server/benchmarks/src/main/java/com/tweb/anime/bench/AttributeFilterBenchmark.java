@@ -0,0 +1,87 @@
+package com.tweb.anime.bench;
+
+import com.tweb.anime.dto.AnimeFacetRow;
+import com.tweb.anime.dto.IdName;
+import com.tweb.anime.index.AttributeBitmaps;
+import com.tweb.anime.index.FacetSnapshot;
+import com.tweb.anime.model.Anime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Attribute Filter Benchmark
+ *
+ * Genre/studio/type bitmap filters and faceted search over 30k synthetic anime.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AttributeFilterBenchmark {
+
+    private AttributeBitmaps bitmaps;
+    private FacetSnapshot facets;
+
+    @Setup
+    public void setUp() {
+        List<IdName> types = new ArrayList<>();
+        List<IdName> genres = new ArrayList<>();
+        List<IdName> studios = new ArrayList<>();
+        List<AnimeFacetRow> rows = new ArrayList<>();
+        for (long id = 1; id <= SyntheticCatalog.ANIME_ROWS; id++) {
+            Anime anime = SyntheticCatalog.anime(id);
+            rows.add(new AnimeFacetRow(id, anime.getType(), anime.getStatus(), anime.getSource(),
+                    anime.getRating(), anime.getPremiered(), anime.getScore()));
+            types.add(new IdName(id, anime.getType()));
+            for (String genre : SyntheticCatalog.genres(id)) {
+                genres.add(new IdName(id, genre));
+            }
+            for (String studio : SyntheticCatalog.studios(id)) {
+                studios.add(new IdName(id, studio));
+            }
+        }
+        bitmaps = AttributeBitmaps.build(types, genres, studios);
+        facets = FacetSnapshot.build(rows, genres, studios);
+    }
+
+    @Benchmark
+    public long[] allGenres() {
+        return bitmaps.filter(List.of("Action", "Drama"), true, null, null);
+    }
+
+    @Benchmark
+    public long[] anyGenreWithType() {
+        return bitmaps.filter(List.of("Action", "Comedy", "Sci-Fi"), false, null, "TV");
+    }
+
+    @Benchmark
+    public long[] genreAndStudio() {
+        return bitmaps.filter(List.of("Sci-Fi"), true, List.of("MAPPA"), null);
+    }
+
+    @Benchmark
+    public FacetSnapshot.Result facetCountsOnly() {
+        return facets.search(Map.of(), true, Double.NaN, Double.NaN, null, 20);
+    }
+
+    @Benchmark
+    public FacetSnapshot.Result facetSearch() {
+        return facets.search(Map.of(FacetSnapshot.GENRE, List.of("Action"), FacetSnapshot.TYPE, List.of("TV", "ONA")),
+                true, 6.0, Double.NaN, null, 20);
+    }
+}
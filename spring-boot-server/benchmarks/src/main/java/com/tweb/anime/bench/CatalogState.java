@@ -0,0 +1,88 @@
+package com.tweb.anime.bench;
+
+import com.tweb.anime.AnimeApplication;
+import com.tweb.anime.index.CatalogIndex;
+import com.tweb.anime.index.NameSearchIndex;
+import com.tweb.anime.repository.AnimeRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+
+/**
+ * Catalog State
+ *
+ * Starts the server's Spring context (no web server, no entity cache)
+ * against PostgreSQL once per fork.
+ *
+ * By default an embedded PostgreSQL is started and seeded with seed.sql.
+ * To use an existing database pass -Dbench.jdbc.url, -Dbench.jdbc.user and
+ * -Dbench.jdbc.password; it is only seeded when -Dbench.seed=true since
+ * seeding truncates the catalog tables.
+ */
+@State(Scope.Benchmark)
+public class CatalogState {
+
+    ConfigurableApplicationContext context;
+    AnimeRepository animeRepository;
+    NameSearchIndex nameSearchIndex;
+
+    private EmbeddedPostgres postgres;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        String url = System.getProperty("bench.jdbc.url");
+        String user = System.getProperty("bench.jdbc.user", "postgres");
+        String password = System.getProperty("bench.jdbc.password", "");
+        boolean seed = Boolean.getBoolean("bench.seed");
+        if (url == null) {
+            postgres = EmbeddedPostgres.builder().start();
+            url = postgres.getJdbcUrl("postgres", "postgres");
+            seed = true;
+        }
+
+        context = new SpringApplicationBuilder(AnimeApplication.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .run("--spring.datasource.url=" + url,
+                        "--spring.datasource.username=" + user,
+                        "--spring.datasource.password=" + password,
+                        "--spring.jpa.show-sql=false",
+                        "--spring.cache.type=none",
+                        "--catalog.warmup.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.tweb.anime=WARN");
+
+        DataSource dataSource = context.getBean(DataSource.class);
+        if (seed) {
+            new ResourceDatabasePopulator(new ClassPathResource("seed.sql")).execute(dataSource);
+            new JdbcTemplate(dataSource).execute("ANALYZE");
+        }
+        context.getBeansOfType(CatalogIndex.class).values().forEach(CatalogIndex::rebuild);
+
+        animeRepository = context.getBean(AnimeRepository.class);
+        nameSearchIndex = context.getBean(NameSearchIndex.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        if (context != null) {
+            context.close();
+        }
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+}
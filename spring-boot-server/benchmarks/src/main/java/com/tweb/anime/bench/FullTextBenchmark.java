@@ -0,0 +1,73 @@
+package com.tweb.anime.bench;
+
+import com.tweb.anime.dto.TextSnippet;
+import com.tweb.anime.index.InvertedIndex;
+import com.tweb.anime.index.Snippets;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full-Text Benchmark
+ *
+ * BM25 search over 30k synthetic synopses of 150 words each. Query terms
+ * are picked by frequency rank: "frequent" occurs in most documents,
+ * "medium" in a few thousand, "rare" in a few hundred.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FullTextBenchmark {
+
+    private static final int WORDS = 150;
+
+    @Param({"frequent", "medium", "rare", "frequent medium rare"})
+    String terms;
+
+    private long[] ids;
+    private String[] texts;
+    private InvertedIndex index;
+    private String query;
+
+    @Setup
+    public void setUp() {
+        ids = new long[SyntheticCatalog.ANIME_ROWS];
+        texts = new String[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i + 1;
+            texts[i] = SyntheticCatalog.prose(ids[i], WORDS);
+        }
+        index = InvertedIndex.build(ids, texts);
+        query = terms.replace("frequent", SyntheticCatalog.word(2))
+                .replace("medium", SyntheticCatalog.word(300))
+                .replace("rare", SyntheticCatalog.word(5000));
+    }
+
+    @Benchmark
+    public InvertedIndex.Hits search() {
+        return index.search(query, 20, id -> false);
+    }
+
+    @Benchmark
+    public TextSnippet snippet() {
+        return Snippets.of(texts[0], query);
+    }
+
+    @Benchmark
+    public InvertedIndex build() {
+        return InvertedIndex.build(ids, texts);
+    }
+}
@@ -0,0 +1,85 @@
+package com.tweb.anime.bench;
+
+import com.tweb.anime.dto.Suggestion;
+import com.tweb.anime.dto.WeightedName;
+import com.tweb.anime.index.FuzzyMatcher;
+import com.tweb.anime.index.PrefixSuggester;
+import com.tweb.anime.index.TrigramIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Index Benchmark
+ *
+ * Build and query cost of the in-memory indexes over 30k synthetic titles.
+ * Query parameters double as autocomplete prefixes and fuzzy queries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IndexBenchmark {
+
+    @Param({"naruto", "kyojin season", "steins;gate zero 1", "zzz"})
+    String query;
+
+    private long[] ids;
+    private String[] titles;
+    private TrigramIndex trigramIndex;
+    private PrefixSuggester prefixSuggester;
+    private FuzzyMatcher fuzzyMatcher;
+
+    @Setup
+    public void setUp() {
+        ids = new long[SyntheticCatalog.ANIME_ROWS];
+        titles = new String[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i + 1;
+            titles[i] = SyntheticCatalog.title(ids[i]);
+        }
+        trigramIndex = TrigramIndex.build(ids, titles);
+
+        List<WeightedName> names = new ArrayList<>(ids.length * 2);
+        for (long id : ids) {
+            names.add(new WeightedName(id, titles[(int) id - 1], -id));
+            names.add(new WeightedName(id, "アニメ" + id, -id));
+        }
+        prefixSuggester = PrefixSuggester.build(names);
+        fuzzyMatcher = FuzzyMatcher.build(names);
+    }
+
+    @Benchmark
+    public long[] trigramSearch() {
+        return trigramIndex.search(query);
+    }
+
+    @Benchmark
+    public TrigramIndex trigramBuild() {
+        return TrigramIndex.build(ids, titles);
+    }
+
+    @Benchmark
+    public List<Suggestion> prefixSuggest() {
+        return prefixSuggester.suggest(query, 10);
+    }
+
+    @Benchmark
+    public long[] fuzzySearch() {
+        return fuzzyMatcher.search(query);
+    }
+}
@@ -0,0 +1,123 @@
+package com.tweb.anime.bench;
+
+import com.tweb.anime.dto.PageCursor;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load Test
+ *
+ * Closed-loop HTTP load against a running server, used to compare the
+ * thread-per-request and virtual-thread modes under the same traffic.
+ * Each client sends the next request as soon as the previous one answers.
+ * The mix is database-bound: gallery and /all pages at random cursors,
+ * batch lookups and title searches.
+ *
+ * java -cp target/benchmarks.jar com.tweb.anime.bench.LoadTest [baseUrl] [clients] [seconds]
+ */
+public final class LoadTest {
+
+    private static final String[] SEARCH_TERMS = {"naruto", "kyojin", "bebop", "steins", "hunter", "bleach"};
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 400;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+
+        HttpClient http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(16))
+                .build();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        AtomicLong errors = new AtomicLong();
+        List<Latencies> perClient = new ArrayList<>(clients);
+
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        for (int c = 0; c < clients; c++) {
+            Latencies latencies = new Latencies();
+            perClient.add(latencies);
+            pool.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + nextPath()))
+                            .timeout(Duration.ofSeconds(30))
+                            .build();
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    latencies.add(System.nanoTime() - start);
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+
+        long[] all = perClient.stream()
+                .flatMapToLong(l -> Arrays.stream(l.values, 0, l.size))
+                .sorted()
+                .toArray();
+        System.out.printf("{\"clients\":%d,\"seconds\":%d,\"requests\":%d,\"errors\":%d,\"throughput\":%.1f,"
+                        + "\"p50_ms\":%.2f,\"p95_ms\":%.2f,\"p99_ms\":%.2f,\"max_ms\":%.2f}%n",
+                clients, seconds, all.length, errors.get(), all.length / (double) seconds,
+                percentile(all, 0.50), percentile(all, 0.95), percentile(all, 0.99), percentile(all, 1.0));
+        System.exit(0);
+    }
+
+    private static String nextPath() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (random.nextInt(4)) {
+            case 0 -> "/api/anime/gallery?limit=24&cursor=" + PageCursor.encode(random.nextLong(1, 29_000));
+            case 1 -> "/api/characters/all?limit=100&cursor=" + PageCursor.encode(random.nextLong(1, 59_000));
+            case 2 -> {
+                long first = random.nextLong(1, 19_900);
+                StringBuilder ids = new StringBuilder();
+                for (int i = 0; i < 50; i++) {
+                    ids.append(i == 0 ? "" : ",").append(first + i * 2);
+                }
+                yield "/api/people/batch?ids=" + ids;
+            }
+            default -> "/api/anime/search?title=" + SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)]
+                    + "&offset=" + random.nextInt(0, 500);
+        };
+    }
+
+    private static final class Latencies {
+        long[] values = new long[4096];
+        int size;
+
+        void add(long nanos) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+}
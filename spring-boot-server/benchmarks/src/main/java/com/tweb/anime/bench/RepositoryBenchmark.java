@@ -0,0 +1,70 @@
+package com.tweb.anime.bench;
+
+import com.tweb.anime.dto.AnimeCard;
+import com.tweb.anime.index.IdLists;
+import com.tweb.anime.model.Anime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository Benchmark
+ *
+ * The queries behind the anime endpoints, against the seeded 30k-row details table.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+    private static final String TITLE_QUERY = "kyojin";
+
+    @Benchmark
+    public List<Anime> titleSearchLike(CatalogState catalog) {
+        return catalog.animeRepository.findByTitleContainingIgnoreCase(TITLE_QUERY);
+    }
+
+    @Benchmark
+    public List<AnimeCard> titleSearchIndexed(CatalogState catalog) {
+        List<Long> ids = IdLists.slice(catalog.nameSearchIndex.searchAnime(TITLE_QUERY), 0, 50);
+        return IdLists.inOrder(ids, catalog.animeRepository.findCardsByIds(ids), AnimeCard::malId);
+    }
+
+    @Benchmark
+    public List<AnimeCard> topRated(CatalogState catalog) {
+        return catalog.animeRepository.findTopRated(PageRequest.of(0, 50));
+    }
+
+    @Benchmark
+    public List<AnimeCard> gallery(CatalogState catalog) {
+        long after = ThreadLocalRandom.current().nextLong(SyntheticCatalog.ANIME_ROWS - 100);
+        return catalog.animeRepository.findWithImagesAfter(after, PageRequest.of(0, 24));
+    }
+
+    @Benchmark
+    public Optional<Anime> byId(CatalogState catalog) {
+        return catalog.animeRepository.findById(1 + ThreadLocalRandom.current().nextLong(SyntheticCatalog.ANIME_ROWS));
+    }
+
+    @Benchmark
+    public List<Anime> batch100(CatalogState catalog) {
+        long first = 1 + ThreadLocalRandom.current().nextLong(SyntheticCatalog.ANIME_ROWS - 100);
+        Long[] ids = new Long[100];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = first + i;
+        }
+        return catalog.animeRepository.findAllByIdIn(ids);
+    }
+}
@@ -0,0 +1,77 @@
+package com.tweb.anime.bench;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.tweb.anime.model.Anime;
+import com.tweb.anime.model.Character;
+import com.tweb.anime.model.Person;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization Benchmark
+ *
+ * Jackson serialization of entity lists with the ObjectMapper settings Spring MVC uses,
+ * in each negotiable response format.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"50", "500"})
+    int size;
+
+    @Param({"json", "cbor", "smile"})
+    String format;
+
+    private ObjectMapper mapper;
+    private List<Anime> anime;
+    private List<Character> characters;
+    private List<Person> people;
+
+    @Setup
+    public void setUp() {
+        mapper = switch (format) {
+            case "cbor" -> Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+            case "smile" -> Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+        anime = SyntheticCatalog.animeList(size);
+        characters = SyntheticCatalog.characterList(size);
+        people = SyntheticCatalog.personList(size);
+    }
+
+    @Benchmark
+    public byte[] anime() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(anime);
+    }
+
+    @Benchmark
+    public byte[] characters() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(characters);
+    }
+
+    @Benchmark
+    public byte[] people() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(people);
+    }
+}
@@ -0,0 +1,90 @@
+package com.tweb.anime.bench;
+
+import com.tweb.anime.dto.AnimeFacetRow;
+import com.tweb.anime.dto.IdName;
+import com.tweb.anime.index.SimilarityTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Similarity Benchmark
+ *
+ * Build and lookup cost of the similar-anime table over 30k synthetic anime
+ * with MAL-like variety: 1-5 of 40 genres, 1-2 of 300 studios, and
+ * SyntheticCatalog's type, source, rating and score columns.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class SimilarityBenchmark {
+
+    private static final String[] SOURCES = {"Manga", "Original", "Light novel", "Game", "Visual novel", "Novel"};
+    private static final String[] RATINGS = {"G - All Ages", "PG - Children", "PG-13 - Teens 13 or older",
+            "R - 17+ (violence & profanity)", "R+ - Mild Nudity"};
+
+    @Param({"20"})
+    int k;
+
+    private List<AnimeFacetRow> rows;
+    private List<IdName> genres;
+    private List<IdName> studios;
+    private ForkJoinPool pool;
+    private SimilarityTable table;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        rows = new ArrayList<>();
+        genres = new ArrayList<>();
+        studios = new ArrayList<>();
+        for (long id = 1; id <= SyntheticCatalog.ANIME_ROWS; id++) {
+            Double score = id % 7 == 0 ? null : 5 + (id * 7919 % 500) / 100.0;
+            rows.add(new AnimeFacetRow(id, SyntheticCatalog.type(id), "Finished Airing",
+                    SOURCES[random.nextInt(SOURCES.length)], RATINGS[random.nextInt(RATINGS.length)], null, score));
+            for (int i = 1 + random.nextInt(5); i > 0; i--) {
+                genres.add(new IdName(id, "Genre " + random.nextInt(40)));
+            }
+            for (int i = 1 + random.nextInt(2); i > 0; i--) {
+                studios.add(new IdName(id, "Studio " + random.nextInt(300)));
+            }
+        }
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        table = SimilarityTable.build(rows, genres, studios, k, pool);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public SimilarityTable build() {
+        return SimilarityTable.build(rows, genres, studios, k, pool);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public SimilarityTable.Neighbours lookup() {
+        return table.neighbours(12_345, 10);
+    }
+}
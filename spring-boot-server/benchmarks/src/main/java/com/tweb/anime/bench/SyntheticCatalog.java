@@ -0,0 +1,168 @@
+package com.tweb.anime.bench;
+
+import com.tweb.anime.model.Anime;
+import com.tweb.anime.model.Character;
+import com.tweb.anime.model.Person;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic Catalog
+ *
+ * In-memory rows following the same patterns as seed.sql, for benchmarks
+ * that do not need a database.
+ */
+final class SyntheticCatalog {
+
+    static final int ANIME_ROWS = 30_000;
+
+    private static final String[] SERIES = {"Shingeki no Kyojin", "Naruto", "One Piece", "Bleach",
+            "Fullmetal Alchemist", "Cowboy Bebop", "Death Note", "Steins;Gate", "Hunter x Hunter", "Mushishi"};
+    private static final String[] SUFFIXES = {"Season", "Movie", "Special", "Shippuuden", "Brotherhood",
+            "Zero", "Kai", "Final"};
+    private static final String[] TYPES = {"TV", "Movie", "OVA", "ONA", "Special", "Music"};
+    private static final String[] GENRES = {"['Action', 'Adventure']", "['Drama', 'Romance']", "['Comedy']",
+            "['Action', 'Drama', 'Fantasy']", "['Sci-Fi', 'Mystery']", "['Slice of Life']"};
+    private static final String[] STUDIOS = {"['Madhouse']", "['Sunrise', 'Bones']", "['Toei Animation']",
+            "['Kyoto Animation']", "['MAPPA', 'Wit Studio']"};
+
+    private static final String[] SYLLABLES = {"ka", "ri", "to", "me", "sa", "no", "hi", "yu", "ra", "ko",
+            "shi", "ma", "ne", "zu", "ta", "ki", "mo", "ha", "ru", "se"};
+
+    private SyntheticCatalog() {
+    }
+
+    static String title(long id) {
+        return SERIES[(int) (id % 10)] + " " + SUFFIXES[(int) ((id / 10) % 8)] + " " + id;
+    }
+
+    static String type(long id) {
+        return TYPES[(int) (id % 6)];
+    }
+
+    /**
+     * Names in a genres/studios string such as "['Action', 'Adventure']"
+     */
+    static List<String> genres(long id) {
+        return names(GENRES[(int) (id % 6)]);
+    }
+
+    static List<String> studios(long id) {
+        return names(STUDIOS[(int) (id % 5)]);
+    }
+
+    private static List<String> names(String list) {
+        List<String> names = new ArrayList<>();
+        for (String name : list.substring(1, list.length() - 1).split(",")) {
+            names.add(name.trim().replace("'", ""));
+        }
+        return names;
+    }
+
+    static Anime anime(long id) {
+        Anime anime = new Anime();
+        anime.setMalId(id);
+        anime.setTitle(title(id));
+        anime.setTitleJapanese("アニメ" + id);
+        anime.setTitleEnglish(id % 3 == 0 ? "English Title " + id : null);
+        anime.setType(type(id));
+        anime.setSource("Manga");
+        anime.setEpisodes((int) (1 + id % 50));
+        anime.setStatus("Finished Airing");
+        anime.setRating("PG-13 - Teens 13 or older");
+        anime.setScore(id % 7 == 0 ? null : 5 + (id * 7919 % 500) / 100.0);
+        anime.setScoredBy((int) (id * 13 % 100_000));
+        anime.setRank((int) id);
+        anime.setPopularity((int) id);
+        anime.setMembers((int) (100_000 - id));
+        anime.setFavorites((int) (id % 1000));
+        anime.setSynopsis("A story about hero number " + id + " who fights titans and ninjas in a world of pirates. "
+                + "Friendship courage and destiny intertwine. ".repeat(5));
+        anime.setPremiered("Spring " + (1990 + id % 30));
+        anime.setStudios(STUDIOS[(int) (id % 5)]);
+        anime.setGenres(GENRES[(int) (id % 6)]);
+        anime.setImageUrl(id % 11 == 0 ? null : "https://cdn.example/anime/" + id + ".jpg");
+        anime.setUrl("https://myanimelist.net/anime/" + id);
+        return anime;
+    }
+
+    static Character character(long id) {
+        Character character = new Character();
+        character.setCharacterId(id);
+        character.setName("Eren Yeager " + id);
+        character.setNameKanji("キャラ" + id);
+        character.setUrl("https://myanimelist.net/character/" + id);
+        character.setImageUrl("https://cdn.example/char/" + id + ".jpg");
+        character.setAbout("Character " + id + " is a brave swordsman with a mysterious past.");
+        character.setFavorites((int) (id * 31 % 50_000));
+        return character;
+    }
+
+    static Person person(long id) {
+        Person person = new Person();
+        person.setPersonId(id);
+        person.setName("Hayao Miyazaki " + id);
+        person.setGivenName("Given" + id);
+        person.setFamilyName("Family" + id);
+        person.setBirthday("1970-01-01");
+        person.setUrl("https://myanimelist.net/people/" + id);
+        person.setImageUrl("https://cdn.example/people/" + id + ".jpg");
+        person.setFavorites((int) (id * 17 % 30_000));
+        person.setAbout("Voice actor and director number " + id + " known for animated films.");
+        return person;
+    }
+
+    static List<Anime> animeList(int size) {
+        List<Anime> rows = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            rows.add(anime(id));
+        }
+        return rows;
+    }
+
+    static List<Character> characterList(int size) {
+        List<Character> rows = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            rows.add(character(id));
+        }
+        return rows;
+    }
+
+    static List<Person> personList(int size) {
+        List<Person> rows = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            rows.add(person(id));
+        }
+        return rows;
+    }
+
+    /**
+     * Made-up word of the given frequency rank (0 is the most frequent), used by {@link #prose}
+     */
+    static String word(int rank) {
+        StringBuilder word = new StringBuilder();
+        int n = rank + SYLLABLES.length;
+        while (n > 0) {
+            word.append(SYLLABLES[n % SYLLABLES.length]);
+            n /= SYLLABLES.length;
+        }
+        return word.toString();
+    }
+
+    /**
+     * Free text with a Zipf-like word distribution over a 20k-word vocabulary,
+     * closer to real synopses than the repeated sentence of {@link #anime}
+     */
+    static String prose(long id, int words) {
+        Random random = new Random(id);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            // Inverse transform of a 1/rank distribution
+            int rank = (int) Math.floor(Math.exp(random.nextDouble() * Math.log(20_000))) - 1;
+            text.append(word(rank)).append(i % 12 == 11 ? ". " : " ");
+        }
+        return text.toString();
+    }
+}
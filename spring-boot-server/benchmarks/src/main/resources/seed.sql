@@ -0,0 +1,63 @@
+-- Synthetic catalog: 30k anime, 60k characters, 20k people (deterministic, generated server-side)
+TRUNCATE anime_genres, anime_studios, genres, studios, details, characters, person_details;
+INSERT INTO details (mal_id, title, title_english, title_japanese, type, source, episodes, status, rating, score, scored_by, rank, popularity, members, favorites, synopsis, background, premiered, studios, genres, image_url, url)
+SELECT g,
+  (ARRAY['Shingeki no Kyojin','Naruto','One Piece','Bleach','Fullmetal Alchemist','Cowboy Bebop','Death Note','Steins;Gate','Hunter x Hunter','Mushishi'])[1 + g % 10] || ' ' || (ARRAY['Season','Movie','Special','Shippuuden','Brotherhood','Zero','Kai','Final'])[1 + (g/10) % 8] || ' ' || g,
+  CASE WHEN g % 3 = 0 THEN 'English Title ' || g END,
+  'アニメ' || g,
+  (ARRAY['TV','Movie','OVA','ONA','Special','Music'])[1 + g % 6],
+  (ARRAY['Manga','Original','Light novel','Novel','Game'])[1 + g % 5],
+  1 + g % 50,
+  (ARRAY['Finished Airing','Currently Airing','Not yet aired'])[1 + g % 3],
+  (ARRAY['PG-13 - Teens 13 or older','R - 17+ (violence & profanity)','G - All Ages','PG - Children'])[1 + g % 4],
+  CASE WHEN g % 7 = 0 THEN NULL ELSE round((5 + (g * 7919 % 500) / 100.0)::numeric, 2) END,
+  g * 13 % 100000, g, g, 100000 - g, g % 1000,
+  'A story about hero number ' || g || ' who fights titans and ninjas in a world of pirates. ' || repeat('Friendship courage and destiny intertwine. ', 5),
+  CASE WHEN g % 4 = 0 THEN 'Produced in year ' || (1990 + g % 30) END,
+  (ARRAY['Spring','Summer','Fall','Winter'])[1 + g % 4] || ' ' || (1990 + g % 30),
+  (ARRAY['[''Madhouse'']','[''Sunrise'', ''Bones'']','[''Toei Animation'']','[''Kyoto Animation'']','[''MAPPA'', ''Wit Studio'']'])[1 + g % 5],
+  (ARRAY['[''Action'', ''Adventure'']','[''Drama'', ''Romance'']','[''Comedy'']','[''Action'', ''Drama'', ''Fantasy'']','[''Sci-Fi'', ''Mystery'']','[''Slice of Life'']'])[1 + g % 6],
+  CASE WHEN g % 11 = 0 THEN NULL ELSE 'https://cdn.example/anime/' || g || '.jpg' END,
+  'https://myanimelist.net/anime/' || g
+FROM generate_series(1, 30000) g;
+INSERT INTO characters (character_id, name, name_kanji, url, image_url, about, favorites)
+SELECT g, (ARRAY['Eren','Mikasa','Naruto','Sasuke','Luffy','Zoro','Ichigo','Edward','Spike','Light'])[1 + g % 10] || ' ' || (ARRAY['Yeager','Ackerman','Uzumaki','Uchiha','Monkey','Roronoa','Kurosaki','Elric'])[1 + (g/10) % 8] || ' ' || g,
+  'キャラ' || g, 'https://myanimelist.net/character/' || g,
+  CASE WHEN g % 9 = 0 THEN NULL ELSE 'https://cdn.example/char/' || g || '.jpg' END,
+  'Character ' || g || ' is a brave swordsman with a mysterious past.', CASE WHEN g % 5 = 0 THEN NULL ELSE g * 31 % 50000 END
+FROM generate_series(1, 60000) g;
+INSERT INTO person_details (person_id, name, given_name, family_name, birthday, url, image_url, website_url, favorites, about)
+SELECT g, (ARRAY['Hayao','Mamoru','Kana','Yuki','Hiroshi','Megumi'])[1 + g % 6] || ' ' || (ARRAY['Miyazaki','Hosoda','Hanazawa','Kaji','Kamiya','Ogata'])[1 + (g/6) % 6] || ' ' || g,
+  'Given' || g, 'Family' || g, '1970-01-01', 'https://myanimelist.net/people/' || g,
+  CASE WHEN g % 8 = 0 THEN NULL ELSE 'https://cdn.example/people/' || g || '.jpg' END, NULL,
+  CASE WHEN g % 4 = 0 THEN NULL ELSE g * 17 % 30000 END, 'Voice actor and director number ' || g || ' known for animated films.'
+FROM generate_series(1, 20000) g;
+
+-- Genre/studio links, as the V3 migration backfills them (the indexes do not sync on rebuild)
+INSERT INTO genres (name)
+SELECT DISTINCT trim(both ''' " ' from s.tag)
+FROM details d
+CROSS JOIN LATERAL regexp_split_to_table(trim(both '[] ' from d.genres), ',') AS s(tag)
+WHERE trim(both ''' " ' from s.tag) <> ''
+ON CONFLICT (name) DO NOTHING;
+
+INSERT INTO anime_genres (mal_id, genre_id)
+SELECT DISTINCT d.mal_id, g.genre_id
+FROM details d
+CROSS JOIN LATERAL regexp_split_to_table(trim(both '[] ' from d.genres), ',') AS s(tag)
+JOIN genres g ON g.name = trim(both ''' " ' from s.tag)
+ON CONFLICT DO NOTHING;
+
+INSERT INTO studios (name)
+SELECT DISTINCT trim(both ''' " ' from s.tag)
+FROM details d
+CROSS JOIN LATERAL regexp_split_to_table(trim(both '[] ' from d.studios), ',') AS s(tag)
+WHERE trim(both ''' " ' from s.tag) <> ''
+ON CONFLICT (name) DO NOTHING;
+
+INSERT INTO anime_studios (mal_id, studio_id)
+SELECT DISTINCT d.mal_id, st.studio_id
+FROM details d
+CROSS JOIN LATERAL regexp_split_to_table(trim(both '[] ' from d.studios), ',') AS s(tag)
+JOIN studios st ON st.name = trim(both ''' " ' from s.tag)
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,27 @@
+#!/usr/bin/env bash
+# Builds an AppCDS archive for the AOT-processed prod build and prints the
+# command that uses it. The fat jar is unpacked first: CDS needs a class
+# path of plain jars, no nested jars and no directories.
+#
+#   scripts/appcds.sh        (needs the database running, the training run starts the context)
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+mvn -B -q -Paot package -DskipTests
+
+rm -rf target/cds && mkdir -p target/cds
+(cd target/cds && jar -xf ../spring-boot-server-1.0.0.jar)
+cd target/cds
+jar -cf application.jar -C BOOT-INF/classes .
+CP="application.jar:$(ls BOOT-INF/lib/*.jar | tr '\n' ':')"
+CP="${CP%:}"
+echo "$CP" > classpath.txt
+
+# Training run: refresh the context, then exit and dump the loaded classes
+java -XX:ArchiveClassesAtExit=application.jsa -Dspring.context.exit=onRefresh \
+     -Dspring.aot.enabled=true -Dspring.profiles.active=prod \
+     -cp "$CP" com.tweb.anime.AnimeApplication > training.log 2>&1
+
+echo "Archive: target/cds/application.jsa. Start with:"
+echo "  cd target/cds && java -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true \\"
+echo "      -Dspring.profiles.active=prod -cp \"\$(cat classpath.txt)\" com.tweb.anime.AnimeApplication"
@@ -0,0 +1,24 @@
+#!/usr/bin/env bash
+# Time to first request: launches the given command and polls a catalog
+# endpoint until it answers 200, then prints the elapsed milliseconds and
+# stops the server.
+#
+#   scripts/startup-time.sh java -jar target/spring-boot-server-1.0.0.jar --spring.profiles.active=prod
+set -euo pipefail
+
+URL=${STARTUP_URL:-http://localhost:8080/api/anime/1}
+LOG=${STARTUP_LOG:-target/startup-time.log}
+
+start=$(date +%s%N)
+"$@" > "$LOG" 2>&1 &
+pid=$!
+trap 'kill $pid 2>/dev/null || true' EXIT
+
+until [ "$(curl -s -o /dev/null -w '%{http_code}' "$URL")" = "200" ]; do
+    if ! kill -0 $pid 2>/dev/null; then
+        echo "server exited, see $LOG" >&2
+        exit 1
+    fi
+    sleep 0.05
+done
+echo "first request after $(( ($(date +%s%N) - start) / 1000000 )) ms"
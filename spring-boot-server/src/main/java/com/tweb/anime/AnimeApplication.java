@@ -46,6 +46,7 @@ public class AnimeApplication {
                         .allowedOrigins("http://localhost:3001", "http://localhost:3000")
                         .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                         .allowedHeaders("*")
+                        .exposedHeaders("X-Total-Count")
                         .allowCredentials(true)
                         .maxAge(3600);
             }
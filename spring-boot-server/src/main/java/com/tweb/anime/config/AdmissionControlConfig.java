@@ -0,0 +1,52 @@
+package com.tweb.anime.config;
+
+import com.tweb.anime.web.AdmissionControlFilter;
+import com.tweb.anime.web.Bulkhead;
+import com.tweb.anime.web.EndpointGroup;
+import com.tweb.anime.warmup.WarmupRequests;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Admission Control Configuration
+ *
+ * One bulkhead per {@link EndpointGroup}, sized by
+ * catalog.admission.&lt;group&gt;.max-concurrent / max-queue / max-wait,
+ * with the Retry-After of rejected requests in .retry-after. The
+ * warm-up's own requests are not admitted through them.
+ * Disabled with catalog.admission.enabled=false.
+ */
+@Configuration
+@ConditionalOnProperty(name = "catalog.admission.enabled", matchIfMissing = true)
+public class AdmissionControlConfig {
+
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(Environment environment,
+                                                                                MeterRegistry meterRegistry,
+                                                                                WarmupRequests warmupRequests) {
+        Map<EndpointGroup, Bulkhead> bulkheads = new EnumMap<>(EndpointGroup.class);
+        Map<EndpointGroup, Duration> retryAfter = new EnumMap<>(EndpointGroup.class);
+        for (EndpointGroup group : EndpointGroup.values()) {
+            String prefix = "catalog.admission." + group.key() + ".";
+            bulkheads.put(group, new Bulkhead(
+                    environment.getProperty(prefix + "max-concurrent", Integer.class, 8),
+                    environment.getProperty(prefix + "max-queue", Integer.class, 50),
+                    environment.getProperty(prefix + "max-wait", Duration.class, Duration.ofSeconds(1))));
+            retryAfter.put(group, environment.getProperty(prefix + "retry-after", Duration.class, Duration.ofSeconds(1)));
+        }
+
+        FilterRegistrationBean<AdmissionControlFilter> registration =
+                new FilterRegistrationBean<>(new AdmissionControlFilter(bulkheads, retryAfter, meterRegistry,
+                        warmupRequests::matches));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
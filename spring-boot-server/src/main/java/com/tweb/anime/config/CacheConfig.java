@@ -0,0 +1,19 @@
+package com.tweb.anime.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Cache Configuration
+ *
+ * Caffeine caches in front of the repositories' findById. Size, TTL and
+ * stats are set through spring.cache.caffeine.spec in application.properties.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String ANIME = "anime";
+    public static final String CHARACTERS = "characters";
+    public static final String PEOPLE = "people";
+}
@@ -0,0 +1,49 @@
+package com.tweb.anime.config;
+
+import com.tweb.anime.event.CatalogChangeEvent;
+import com.tweb.anime.model.Anime;
+import com.tweb.anime.model.Character;
+import com.tweb.anime.model.Person;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts cached entities once a write to them has been committed
+ */
+@Component
+public class CacheInvalidator {
+
+    private final CacheManager cacheManager;
+
+    public CacheInvalidator(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        Cache cache = cacheFor(event);
+        if (cache == null) {
+            return;
+        }
+        if (event.isBulk()) {
+            cache.clear();
+        } else {
+            cache.evict(event.id());
+        }
+    }
+
+    private Cache cacheFor(CatalogChangeEvent event) {
+        if (event.concerns(Anime.class)) {
+            return cacheManager.getCache(CacheConfig.ANIME);
+        }
+        if (event.concerns(Character.class)) {
+            return cacheManager.getCache(CacheConfig.CHARACTERS);
+        }
+        if (event.concerns(Person.class)) {
+            return cacheManager.getCache(CacheConfig.PEOPLE);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,148 @@
+package com.tweb.anime.config;
+
+import com.tweb.anime.datasource.ReplicaRoutingDataSource;
+import com.tweb.anime.event.CatalogChangeEvent;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Replica Routing Configuration
+ *
+ * Active when catalog.datasource.replica-urls is set (the "replicas"
+ * profile). The primary DataSource is wrapped in a
+ * {@link ReplicaRoutingDataSource} with one Hikari pool per replica, so
+ * read-only transactions (every repository query, exports) run on the
+ * replicas and writes stay on the primary. Replica pools report the usual
+ * hikaricp.* metrics under their pool name, routing decisions are counted
+ * in catalog.datasource.routed.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty("catalog.datasource.replica-urls")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    static BeanPostProcessor replicaRoutingPostProcessor(Environment environment,
+                                                         ObjectProvider<MeterRegistry> registry) {
+        String[] urls = environment.getRequiredProperty("catalog.datasource.replica-urls", String[].class);
+        String username = environment.getProperty("catalog.datasource.replica-username",
+                environment.getProperty("spring.datasource.username"));
+        String password = environment.getProperty("catalog.datasource.replica-password",
+                environment.getProperty("spring.datasource.password"));
+        int poolSize = environment.getProperty("catalog.datasource.replica-pool-size", Integer.class,
+                environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+        Duration connectionTimeout = environment.getProperty("catalog.datasource.replica-connection-timeout",
+                Duration.class, Duration.ofSeconds(5));
+        Duration readYourWrites = environment.getProperty("catalog.datasource.read-your-writes", Duration.class,
+                Duration.ofSeconds(5));
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !isRouted(dataSource)) {
+                    Map<String, DataSource> replicas = new LinkedHashMap<>();
+                    for (int i = 0; i < urls.length; i++) {
+                        HikariDataSource replica = new HikariDataSource();
+                        replica.setPoolName("replica-" + (i + 1));
+                        replica.setJdbcUrl(urls[i].trim());
+                        replica.setUsername(username);
+                        replica.setPassword(password);
+                        replica.setMaximumPoolSize(poolSize);
+                        replica.setConnectionTimeout(connectionTimeout.toMillis());
+                        // Start even when the replica is down, the health check keeps it out of rotation
+                        replica.setInitializationFailTimeout(-1);
+                        replica.setReadOnly(true);
+                        registry.ifAvailable(meters -> replica.setMetricsTrackerFactory(
+                                new MicrometerMetricsTrackerFactory(meters)));
+                        replicas.put(replica.getPoolName(), replica);
+                    }
+                    ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(dataSource, replicas, readYourWrites);
+                    registry.ifAvailable(meters -> {
+                        FunctionCounter.builder("catalog.datasource.routed", routing,
+                                        r -> r.getRouted(ReplicaRoutingDataSource.PRIMARY))
+                                .description("Connections routed to each pool")
+                                .tag("pool", ReplicaRoutingDataSource.PRIMARY)
+                                .register(meters);
+                        for (String name : routing.getReplicaNames()) {
+                            FunctionCounter.builder("catalog.datasource.routed", routing, r -> r.getRouted(name))
+                                    .description("Connections routed to each pool")
+                                    .tag("pool", name)
+                                    .register(meters);
+                            Gauge.builder("catalog.datasource.replica.up", routing, r -> r.isUp(name) ? 1 : 0)
+                                    .description("1 while the replica passes its health check")
+                                    .tag("pool", name)
+                                    .register(meters);
+                        }
+                    });
+                    return new LazyConnectionDataSourceProxy(routing);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    ReplicaMonitor replicaMonitor(DataSource dataSource, Environment environment) throws SQLException {
+        return new ReplicaMonitor(dataSource.unwrap(ReplicaRoutingDataSource.class),
+                environment.getProperty("catalog.datasource.replica-health-timeout", Integer.class, 2));
+    }
+
+    private static boolean isRouted(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(ReplicaRoutingDataSource.class);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Health-checks the replicas and opens the read-your-writes window after catalog writes
+     */
+    public static class ReplicaMonitor implements DisposableBean {
+
+        private final ReplicaRoutingDataSource routing;
+        private final int timeoutSeconds;
+
+        ReplicaMonitor(ReplicaRoutingDataSource routing, int timeoutSeconds) {
+            this.routing = routing;
+            this.timeoutSeconds = timeoutSeconds;
+        }
+
+        @Scheduled(fixedDelayString = "${catalog.datasource.replica-health-interval:PT10S}")
+        public void checkReplicas() {
+            routing.checkReplicas(timeoutSeconds);
+        }
+
+        @TransactionalEventListener(fallbackExecution = true)
+        public void onCatalogChange(CatalogChangeEvent event) {
+            routing.markWritten();
+        }
+
+        @Override
+        public void destroy() {
+            routing.getReplicas().values().forEach(replica -> {
+                if (replica instanceof HikariDataSource hikari) {
+                    hikari.close();
+                }
+            });
+        }
+    }
+}
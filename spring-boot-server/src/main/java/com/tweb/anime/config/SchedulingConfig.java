@@ -0,0 +1,15 @@
+package com.tweb.anime.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Scheduling Configuration
+ *
+ * Enables @Scheduled background jobs (counter reconciliation, similar-anime
+ * rebuilds, full-text overlay folding)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
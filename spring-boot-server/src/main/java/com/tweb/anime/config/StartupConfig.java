@@ -0,0 +1,62 @@
+package com.tweb.anime.config;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Startup Configuration
+ *
+ * Startup-time tweaks for the prod profile: springdoc beans are made lazy
+ * so the OpenAPI model is only built when the docs are first requested,
+ * and runtime hints cover what an AOT/native build cannot infer (the DTO
+ * constructors called by JPQL constructor expressions).
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(StartupConfig.CatalogRuntimeHints.class)
+public class StartupConfig {
+
+    private static final String SPRINGDOC_PACKAGE = "org.springdoc.";
+
+    @Bean
+    @ConditionalOnProperty("catalog.startup.lazy-springdoc")
+    static BeanFactoryPostProcessor lazySpringdocPostProcessor() {
+        return beanFactory -> {
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                if (isSpringdoc(definition.getBeanClassName()) || (definition.getFactoryBeanName() != null
+                        && beanFactory.containsBeanDefinition(definition.getFactoryBeanName())
+                        && isSpringdoc(beanFactory.getBeanDefinition(definition.getFactoryBeanName()).getBeanClassName()))) {
+                    definition.setLazyInit(true);
+                }
+            }
+        };
+    }
+
+    private static boolean isSpringdoc(String className) {
+        return className != null && className.startsWith(SPRINGDOC_PACKAGE);
+    }
+
+    static class CatalogRuntimeHints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+            scanner.addIncludeFilter(new AssignableTypeFilter(Record.class));
+            for (BeanDefinition dto : scanner.findCandidateComponents("com.tweb.anime.dto")) {
+                hints.reflection().registerType(ClassUtils.resolveClassName(dto.getBeanClassName(), classLoader),
+                        MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+            hints.resources().registerPattern("db/migration/*.sql");
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.tweb.anime.config;
+
+import com.tweb.anime.datasource.ConnectionPermitDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * Virtual Thread Configuration
+ *
+ * Active with spring.threads.virtual.enabled=true (the "virtual" profile,
+ * Java 21). Tomcat, @Async and @Scheduled then run on virtual threads and
+ * the primary Hikari pool is wrapped in a {@link ConnectionPermitDataSource}
+ * sized to that pool (catalog.datasource.max-concurrent-connections to
+ * override). The wrapping happens before replica routing wraps the pool,
+ * so replica pools are not counted against the primary's permits; they
+ * are bounded by their own connection timeout.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    static ConnectionPermitPostProcessor connectionPermitPostProcessor(Environment environment,
+                                                                      ObjectProvider<MeterRegistry> registry) {
+        Integer maxConnections = environment.getProperty("catalog.datasource.max-concurrent-connections", Integer.class);
+        Duration acquireTimeout = environment.getProperty("catalog.datasource.acquire-timeout", Duration.class,
+                Duration.ofSeconds(30));
+        return new ConnectionPermitPostProcessor(maxConnections, acquireTimeout, registry);
+    }
+
+    /**
+     * Ordered first, so it sees the raw pool before unordered post-processors such as replica routing wrap it
+     */
+    static class ConnectionPermitPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final Integer maxConnections;
+        private final Duration acquireTimeout;
+        private final ObjectProvider<MeterRegistry> registry;
+
+        ConnectionPermitPostProcessor(Integer maxConnections, Duration acquireTimeout,
+                                      ObjectProvider<MeterRegistry> registry) {
+            this.maxConnections = maxConnections;
+            this.acquireTimeout = acquireTimeout;
+            this.registry = registry;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof HikariDataSource pool)) {
+                return bean;
+            }
+            ConnectionPermitDataSource limited = new ConnectionPermitDataSource(pool,
+                    maxConnections != null ? maxConnections : pool.getMaximumPoolSize(), acquireTimeout);
+            registry.ifAvailable(meters -> {
+                Gauge.builder("catalog.datasource.permits.waiting", limited, ConnectionPermitDataSource::getWaiting)
+                        .description("Threads waiting for a connection permit")
+                        .register(meters);
+                Gauge.builder("catalog.datasource.permits.available", limited,
+                                ConnectionPermitDataSource::getAvailablePermits)
+                        .description("Connection permits not in use")
+                        .register(meters);
+            });
+            return limited;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
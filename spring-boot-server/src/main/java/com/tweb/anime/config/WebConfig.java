@@ -0,0 +1,28 @@
+package com.tweb.anime.config;
+
+import com.tweb.anime.web.CatalogVersions;
+import com.tweb.anime.web.ConditionalGetInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Web MVC Configuration
+ *
+ * Registers the HTTP caching interceptor for the catalog endpoints
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final CatalogVersions catalogVersions;
+
+    public WebConfig(CatalogVersions catalogVersions) {
+        this.catalogVersions = catalogVersions;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ConditionalGetInterceptor(catalogVersions))
+                .addPathPatterns("/api/**");
+    }
+}
@@ -1,48 +1,262 @@
 package com.tweb.anime.controller;
 
+import com.tweb.anime.dto.AnimeCard;
+import com.tweb.anime.dto.BatchResult;
+import com.tweb.anime.dto.CursorPage;
+import com.tweb.anime.dto.FacetedPage;
+import com.tweb.anime.dto.PageCursor;
+import com.tweb.anime.dto.SimilarAnime;
+import com.tweb.anime.dto.Suggestion;
+import com.tweb.anime.export.CatalogExporter;
+import com.tweb.anime.export.ExportFormat;
+import com.tweb.anime.index.AnimeAttributeIndex;
+import com.tweb.anime.index.AutocompleteIndex;
+import com.tweb.anime.index.CatalogCounters;
+import com.tweb.anime.index.FuzzySearchIndex;
+import com.tweb.anime.index.FacetSnapshot;
+import com.tweb.anime.index.IdLists;
+import com.tweb.anime.index.NameSearchIndex;
+import com.tweb.anime.index.RankingIndex;
+import com.tweb.anime.index.SimilarAnimeIndex;
+import com.tweb.anime.index.SimilarityTable;
 import com.tweb.anime.model.Anime;
+import com.tweb.anime.model.Genre;
+import com.tweb.anime.model.Studio;
 import com.tweb.anime.repository.AnimeRepository;
+import com.tweb.anime.repository.GenreRepository;
+import com.tweb.anime.repository.StudioRepository;
+import com.tweb.anime.service.BatchLookupService;
+import com.tweb.anime.web.ConditionalGet;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 /**
  * Anime Controller
  * 
  * REST endpoints that receive HTTP requests via Axios from main server
  * Returns anime data with images for frontend display
+ * List endpoints return {@link AnimeCard}s, /{id} returns the full entity
  */
 @RestController
 @RequestMapping("/api/anime")
 @Tag(name = "Anime", description = "Anime endpoints - HTTP/Axios communication")
 public class AnimeController {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_SEARCH_RESULTS = 200;
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final int MAX_SUGGESTIONS = 50;
+    private static final int MAX_FACET_VALUES = 200;
+
     @Autowired
     private AnimeRepository animeRepository;
 
+    @Autowired
+    private GenreRepository genreRepository;
+
+    @Autowired
+    private StudioRepository studioRepository;
+
+    @Autowired
+    private RankingIndex rankingIndex;
+
+    @Autowired
+    private NameSearchIndex nameSearchIndex;
+
+    @Autowired
+    private FuzzySearchIndex fuzzySearchIndex;
+
+    @Autowired
+    private AutocompleteIndex autocompleteIndex;
+
+    @Autowired
+    private AnimeAttributeIndex animeAttributeIndex;
+
+    @Autowired
+    private CatalogCounters catalogCounters;
+
+    @Autowired
+    private CatalogExporter catalogExporter;
+
+    @Autowired
+    private BatchLookupService batchLookupService;
+
+    @Autowired
+    private SimilarAnimeIndex similarAnimeIndex;
+
+    /**
+     * Filter anime by genre, studio and type
+     * Resolved with bitmap AND/OR in the attribute index, ordered by MAL ID
+     * Total number of matches in X-Total-Count
+     */
+    @GetMapping
+    @Operation(summary = "Filter anime by genres, studios and type",
+               description = "mode=all requires every genre, mode=any at least one; studios match any")
+    @ConditionalGet(value = Anime.class, maxAge = 60)
+    public ResponseEntity<List<AnimeCard>> filterAnime(
+            @Parameter(description = "Comma-separated genres") @RequestParam(required = false) List<String> genres,
+            @Parameter(description = "all or any") @RequestParam(defaultValue = "all") String mode,
+            @Parameter(description = "Comma-separated studios") @RequestParam(required = false) List<String> studios,
+            @Parameter(description = "Type: TV, Movie, OVA, etc.") @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(defaultValue = "0") int offset) {
+        
+        boolean allGenres = mode.equalsIgnoreCase("all");
+        if (!allGenres && !mode.equalsIgnoreCase("any") || limit < 1 || offset < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        long[] hits = animeAttributeIndex.filter(genres, allGenres, studios, type);
+        List<Long> ids = IdLists.slice(hits, offset, Math.min(limit, MAX_PAGE_SIZE));
+        List<AnimeCard> results = IdLists.inOrder(ids, animeRepository.findCardsByIds(ids), AnimeCard::malId);
+        return ResponseEntity.ok()
+                .header(IdLists.TOTAL_COUNT_HEADER, String.valueOf(hits.length))
+                .body(results);
+    }
+
+    /**
+     * Faceted search over the catalog
+     * Every filter at once, plus per-facet counts, from the in-memory facet snapshot
+     * Values within a facet are OR'ed (genres follow mode), facets are AND'ed
+     */
+    @GetMapping("/facets")
+    @Operation(summary = "Faceted anime search",
+               description = "Filters by type, status, source, rating, genre, studio, premiered season and score range, "
+                       + "returns a page of hits and the facet counts in one response")
+    @ConditionalGet(value = Anime.class, maxAge = 60)
+    public ResponseEntity<FacetedPage> facetedSearch(
+            @RequestParam(required = false) List<String> type,
+            @RequestParam(required = false) List<String> status,
+            @RequestParam(required = false) List<String> source,
+            @RequestParam(required = false) List<String> rating,
+            @RequestParam(required = false) List<String> genres,
+            @RequestParam(required = false) List<String> studios,
+            @Parameter(description = "Season, e.g. Spring 1998") @RequestParam(required = false) List<String> premiered,
+            @Parameter(description = "all or any") @RequestParam(defaultValue = "all") String mode,
+            @RequestParam(required = false) Double minScore,
+            @RequestParam(required = false) Double maxScore,
+            @Parameter(description = "Optional title search") @RequestParam(required = false) String title,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(defaultValue = "0") int offset,
+            @Parameter(description = "Values returned per facet") @RequestParam(defaultValue = "20") int facetLimit) {
+        
+        boolean allGenres = mode.equalsIgnoreCase("all");
+        if (!allGenres && !mode.equalsIgnoreCase("any") || limit < 1 || offset < 0 || facetLimit < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Map<String, List<String>> selected = new HashMap<>();
+        selected.put(FacetSnapshot.TYPE, type);
+        selected.put(FacetSnapshot.STATUS, status);
+        selected.put(FacetSnapshot.SOURCE, source);
+        selected.put(FacetSnapshot.RATING, rating);
+        selected.put(FacetSnapshot.GENRE, genres);
+        selected.put(FacetSnapshot.STUDIO, studios);
+        selected.put(FacetSnapshot.PREMIERED, premiered);
+        long[] titleHits = title == null || title.isBlank() ? null : nameSearchIndex.searchAnime(title);
+
+        FacetSnapshot.Result result = animeAttributeIndex.facetSearch(selected, allGenres,
+                minScore == null ? Double.NaN : minScore, maxScore == null ? Double.NaN : maxScore,
+                titleHits, Math.min(facetLimit, MAX_FACET_VALUES));
+        List<Long> ids = IdLists.slice(result.ids(), offset, Math.min(limit, MAX_PAGE_SIZE));
+        List<AnimeCard> hits = IdLists.inOrder(ids, animeRepository.findCardsByIds(ids), AnimeCard::malId);
+        return ResponseEntity.ok(new FacetedPage(result.ids().length, hits, result.facets()));
+    }
+
+    /**
+     * Get all genres
+     */
+    @GetMapping("/genres")
+    @Operation(summary = "List genres")
+    @ConditionalGet(value = Anime.class, maxAge = 300)
+    public ResponseEntity<List<Genre>> getGenres() {
+        return ResponseEntity.ok(genreRepository.findAllByOrderByNameAsc());
+    }
+
+    /**
+     * Get all studios
+     */
+    @GetMapping("/studios")
+    @Operation(summary = "List studios")
+    @ConditionalGet(value = Anime.class, maxAge = 300)
+    public ResponseEntity<List<Studio>> getStudios() {
+        return ResponseEntity.ok(studioRepository.findAllByOrderByNameAsc());
+    }
+
+    /**
+     * Autocomplete anime titles
+     * Top suggestions by prefix from the in-memory autocomplete index, for search-as-you-type
+     */
+    @GetMapping("/autocomplete")
+    @Operation(summary = "Autocomplete anime titles")
+    @ConditionalGet(value = Anime.class, maxAge = 60)
+    public ResponseEntity<List<Suggestion>> autocomplete(
+            @Parameter(description = "Prefix typed so far") @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        
+        if (q.isBlank() || limit < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(autocompleteIndex.suggestAnime(q, Math.min(limit, MAX_SUGGESTIONS)));
+    }
+
     /**
      * Search anime by title
      * Receives HTTP GET request via Axios
+     * Matches come from the trigram index, total number of matches in X-Total-Count
+     * With fuzzy=true matches tolerate typos and are ranked by edit distance, then popularity
      */
     @GetMapping("/search")
     @Operation(summary = "Search anime via HTTP", 
                description = "Receives Axios request from main server, returns anime with images")
-    public ResponseEntity<List<Anime>> searchAnime(
-            @Parameter(description = "Title to search") @RequestParam String title) {
+    @ConditionalGet(value = Anime.class, maxAge = 30)
+    public ResponseEntity<List<AnimeCard>> searchAnime(
+            @Parameter(description = "Title to search") @RequestParam String title,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(defaultValue = "0") int offset,
+            @Parameter(description = "Tolerate typos, results ranked by closeness") @RequestParam(defaultValue = "false") boolean fuzzy) {
         
-        if (title == null || title.trim().isEmpty()) {
+        if (title == null || title.trim().isEmpty() || limit < 1 || offset < 0) {
             return ResponseEntity.badRequest().build();
         }
 
-        List<Anime> results = animeRepository.findByTitleContainingIgnoreCase(title);
-        return ResponseEntity.ok(results);
+        long[] hits = fuzzy ? fuzzySearchIndex.searchAnime(title) : nameSearchIndex.searchAnime(title);
+        List<Long> ids = IdLists.slice(hits, offset, Math.min(limit, MAX_SEARCH_RESULTS));
+        List<AnimeCard> results = IdLists.inOrder(ids, animeRepository.findCardsByIds(ids), AnimeCard::malId);
+        return ResponseEntity.ok()
+                .header(IdLists.TOTAL_COUNT_HEADER, String.valueOf(hits.length))
+                .body(results);
+    }
+
+    /**
+     * Get many anime by ID
+     * Cached entries are served from memory, the rest come from a single query
+     * Results follow the order of the requested IDs, unknown IDs are listed in "missing"
+     */
+    @GetMapping("/batch")
+    @Operation(summary = "Get anime by IDs via HTTP")
+    @ConditionalGet(value = Anime.class, maxAge = 300)
+    public ResponseEntity<BatchResult<Anime>> getAnimeBatch(
+            @Parameter(description = "Comma-separated IDs") @RequestParam List<Long> ids) {
+        
+        if (ids.isEmpty() || ids.size() > MAX_BATCH_SIZE || ids.contains(null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(batchLookupService.findAnime(ids));
     }
 
     /**
@@ -51,6 +265,7 @@ public class AnimeController {
      */
     @GetMapping("/{id}")
     @Operation(summary = "Get anime by ID via HTTP")
+    @ConditionalGet(value = Anime.class, maxAge = 300)
     public ResponseEntity<Anime> getAnimeById(
             @Parameter(description = "MAL ID") @PathVariable Long id) {
         
@@ -59,23 +274,56 @@ public class AnimeController {
                    .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Get the anime most similar to this one (genres, studios, type, source, rating, score)
+     * Served from the precomputed nearest-neighbour table, most similar first. The table is
+     * rebuilt in the background after writes, so the response is not tied to the catalog
+     * version and carries no validators; anime added since the last build have no neighbours yet
+     */
+    @GetMapping("/{id}/similar")
+    @Operation(summary = "Get similar anime")
+    public ResponseEntity<List<SimilarAnime>> getSimilarAnime(
+            @Parameter(description = "MAL ID") @PathVariable Long id,
+            @RequestParam(defaultValue = "10") int limit) {
+        
+        if (limit < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        SimilarityTable.Neighbours neighbours = similarAnimeIndex.similarTo(id, limit);
+        long[] neighbourIds = neighbours == null ? new long[0] : neighbours.ids();
+
+        // Loaded with the neighbours: the table may still hold a deleted anime or miss a new one
+        List<Long> ids = IdLists.slice(neighbourIds, 0, neighbourIds.length);
+        ids.add(id);
+        Map<Long, AnimeCard> cards = new HashMap<>();
+        animeRepository.findCardsByIds(ids).forEach(card -> cards.put(card.malId(), card));
+        if (!cards.containsKey(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        List<SimilarAnime> similar = new ArrayList<>(neighbourIds.length);
+        for (int i = 0; i < neighbourIds.length; i++) {
+            AnimeCard card = cards.get(neighbourIds[i]);
+            if (card != null) {
+                similar.add(new SimilarAnime(card, neighbours.similarities()[i]));
+            }
+        }
+        return ResponseEntity.ok(similar);
+    }
+
     /**
      * Get top rated anime with images
-     * For homepage display
+     * For homepage display, served from the in-memory ranking index
      */
     @GetMapping("/top-rated")
     @Operation(summary = "Get top rated anime with images")
-    public ResponseEntity<List<Anime>> getTopRated(
+    @ConditionalGet(value = Anime.class, maxAge = 60)
+    public ResponseEntity<List<AnimeCard>> getTopRated(
             @RequestParam(defaultValue = "12") int limit) {
         
-        List<Anime> topRated = animeRepository.findTopRated();
-        
-        // Limit results for frontend display
-        if (topRated.size() > limit) {
-            topRated = topRated.subList(0, limit);
+        if (limit < 1) {
+            return ResponseEntity.badRequest().build();
         }
-        
-        return ResponseEntity.ok(topRated);
+        return ResponseEntity.ok(rankingIndex.topRatedAnime(Math.min(limit, MAX_PAGE_SIZE)));
     }
 
     /**
@@ -83,16 +331,14 @@ public class AnimeController {
      */
     @GetMapping("/popular")
     @Operation(summary = "Get popular anime with images")
-    public ResponseEntity<List<Anime>> getMostPopular(
+    @ConditionalGet(value = Anime.class, maxAge = 60)
+    public ResponseEntity<List<AnimeCard>> getMostPopular(
             @RequestParam(defaultValue = "12") int limit) {
         
-        List<Anime> popular = animeRepository.findMostPopular();
-        
-        if (popular.size() > limit) {
-            popular = popular.subList(0, limit);
+        if (limit < 1) {
+            return ResponseEntity.badRequest().build();
         }
-        
-        return ResponseEntity.ok(popular);
+        return ResponseEntity.ok(rankingIndex.mostPopularAnime(Math.min(limit, MAX_PAGE_SIZE)));
     }
 
     /**
@@ -100,37 +346,79 @@ public class AnimeController {
      */
     @GetMapping("/type/{type}")
     @Operation(summary = "Filter anime by type")
-    public ResponseEntity<List<Anime>> getAnimeByType(
+    @ConditionalGet(value = Anime.class, maxAge = 60)
+    public ResponseEntity<List<AnimeCard>> getAnimeByType(
             @Parameter(description = "Type: TV, Movie, OVA, etc.") @PathVariable String type) {
         
-        List<Anime> results = animeRepository.findByType(type);
+        List<AnimeCard> results = animeRepository.findCardsByType(type);
         return ResponseEntity.ok(results);
     }
 
     /**
      * Get anime with images for gallery
+     * Keyset pagination on MAL ID, pass back nextCursor to get the following page
      */
     @GetMapping("/gallery")
-    @Operation(summary = "Get anime gallery with images")
-    public ResponseEntity<List<Anime>> getAnimeGallery(
-            @RequestParam(defaultValue = "24") int limit) {
-        
-        List<Anime> gallery = animeRepository.findAllWithImages();
+    @Operation(summary = "Get anime gallery with images",
+               description = "Paginated by an opaque cursor, the response carries nextCursor")
+    @ConditionalGet(value = Anime.class, maxAge = 60)
+    public ResponseEntity<CursorPage<AnimeCard>> getAnimeGallery(
+            @RequestParam(defaultValue = "24") int limit,
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor) {
         
-        if (gallery.size() > limit) {
-            gallery = gallery.subList(0, limit);
+        OptionalLong after = PageCursor.decode(cursor);
+        if (limit < 1 || after.isEmpty()) {
+            return ResponseEntity.badRequest().build();
         }
-        
-        return ResponseEntity.ok(gallery);
+        int size = Math.min(limit, MAX_PAGE_SIZE);
+
+        List<AnimeCard> rows = animeRepository.findWithImagesAfter(after.getAsLong(), PageRequest.of(0, size + 1));
+        return ResponseEntity.ok(CursorPage.of(rows, size, AnimeCard::malId));
     }
 
     /**
      * Get anime count
+     * Served from the in-memory counters, optionally only with images and/or of one type
      */
     @GetMapping("/count")
     @Operation(summary = "Get total anime count")
-    public ResponseEntity<Long> getAnimeCount() {
-        long count = animeRepository.count();
+    @ConditionalGet(value = Anime.class, maxAge = 60)
+    public ResponseEntity<Long> getAnimeCount(
+            @RequestParam(defaultValue = "false") boolean withImages,
+            @Parameter(description = "Type: TV, Movie, OVA, etc.") @RequestParam(required = false) String type) {
+        long count = catalogCounters.countAnime(withImages, type);
         return ResponseEntity.ok(count);
     }
+
+    /**
+     * Get anime count per type
+     */
+    @GetMapping("/count/types")
+    @Operation(summary = "Get anime count per type")
+    @ConditionalGet(value = Anime.class, maxAge = 60)
+    public ResponseEntity<Map<String, Long>> getAnimeCountByType() {
+        return ResponseEntity.ok(catalogCounters.countAnimeByType());
+    }
+
+    /**
+     * Export every anime row as NDJSON or CSV
+     * Streamed from a database cursor, the whole table is never held in memory
+     */
+    @GetMapping("/export")
+    @Operation(summary = "Export all anime",
+               description = "Streams full rows as NDJSON (default) or CSV")
+    @ConditionalGet(value = Anime.class, maxAge = 60)
+    public ResponseEntity<StreamingResponseBody> exportAnime(
+            @Parameter(description = "ndjson or csv") @RequestParam(defaultValue = "ndjson") String format) {
+
+        ExportFormat exportFormat = ExportFormat.parse(format).orElse(null);
+        if (exportFormat == null) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok()
+                .contentType(exportFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, exportFormat.attachment("anime"))
+                .body(catalogExporter.export(Anime.class, animeRepository::streamAll, exportFormat));
+    }
 }
\ No newline at end of file
@@ -1,46 +1,135 @@
 package com.tweb.anime.controller;
 
+import com.tweb.anime.dto.CharacterCard;
+import com.tweb.anime.dto.BatchResult;
+import com.tweb.anime.dto.CursorPage;
+import com.tweb.anime.dto.PageCursor;
+import com.tweb.anime.dto.Suggestion;
+import com.tweb.anime.export.CatalogExporter;
+import com.tweb.anime.export.ExportFormat;
+import com.tweb.anime.index.AutocompleteIndex;
+import com.tweb.anime.index.CatalogCounters;
+import com.tweb.anime.index.FuzzySearchIndex;
+import com.tweb.anime.index.IdLists;
+import com.tweb.anime.index.NameSearchIndex;
+import com.tweb.anime.index.RankingIndex;
 import com.tweb.anime.model.Character;
 import com.tweb.anime.repository.CharacterRepository;
+import com.tweb.anime.service.BatchLookupService;
+import com.tweb.anime.web.ConditionalGet;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 /**
  * Character Controller
  * 
  * Returns character data with images via HTTP/Axios
  * For displaying character photos in frontend
+ * List endpoints return {@link CharacterCard}s, /{id} returns the full entity
  */
 @RestController
 @RequestMapping("/api/characters")
 @Tag(name = "Characters", description = "Character endpoints with images")
 public class CharacterController {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_SEARCH_RESULTS = 200;
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final int MAX_SUGGESTIONS = 50;
+
     @Autowired
     private CharacterRepository characterRepository;
 
+    @Autowired
+    private RankingIndex rankingIndex;
+
+    @Autowired
+    private NameSearchIndex nameSearchIndex;
+
+    @Autowired
+    private FuzzySearchIndex fuzzySearchIndex;
+
+    @Autowired
+    private AutocompleteIndex autocompleteIndex;
+
+    @Autowired
+    private CatalogCounters catalogCounters;
+
+    @Autowired
+    private CatalogExporter catalogExporter;
+
+    @Autowired
+    private BatchLookupService batchLookupService;
+
+    /**
+     * Autocomplete character names
+     * Top suggestions by prefix from the in-memory autocomplete index, for search-as-you-type
+     */
+    @GetMapping("/autocomplete")
+    @Operation(summary = "Autocomplete character names")
+    @ConditionalGet(value = Character.class, maxAge = 60)
+    public ResponseEntity<List<Suggestion>> autocomplete(
+            @Parameter(description = "Prefix typed so far") @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        
+        if (q.isBlank() || limit < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(autocompleteIndex.suggestCharacters(q, Math.min(limit, MAX_SUGGESTIONS)));
+    }
+
     /**
      * Search characters by name
+     * With fuzzy=true matches tolerate typos and are ranked by edit distance, then favorites
      */
     @GetMapping("/search")
     @Operation(summary = "Search characters with images", 
                description = "Returns characters with image URLs for display")
-    public ResponseEntity<List<Character>> searchCharacters(
-            @Parameter(description = "Character name") @RequestParam String name) {
+    @ConditionalGet(value = Character.class, maxAge = 30)
+    public ResponseEntity<List<CharacterCard>> searchCharacters(
+            @Parameter(description = "Character name") @RequestParam String name,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(defaultValue = "0") int offset,
+            @Parameter(description = "Tolerate typos, results ranked by closeness") @RequestParam(defaultValue = "false") boolean fuzzy) {
         
-        if (name == null || name.trim().isEmpty()) {
+        if (name == null || name.trim().isEmpty() || limit < 1 || offset < 0) {
             return ResponseEntity.badRequest().build();
         }
 
-        List<Character> results = characterRepository.findByNameContainingIgnoreCase(name);
-        return ResponseEntity.ok(results);
+        long[] hits = fuzzy ? fuzzySearchIndex.searchCharacters(name) : nameSearchIndex.searchCharacters(name);
+        List<Long> ids = IdLists.slice(hits, offset, Math.min(limit, MAX_SEARCH_RESULTS));
+        List<CharacterCard> results = IdLists.inOrder(ids, characterRepository.findCardsByIds(ids), CharacterCard::characterId);
+        return ResponseEntity.ok()
+                .header(IdLists.TOTAL_COUNT_HEADER, String.valueOf(hits.length))
+                .body(results);
+    }
+
+    /**
+     * Get many characters by ID
+     * Cached entries are served from memory, the rest come from a single query
+     * Results follow the order of the requested IDs, unknown IDs are listed in "missing"
+     */
+    @GetMapping("/batch")
+    @Operation(summary = "Get characters by IDs via HTTP")
+    @ConditionalGet(value = Character.class, maxAge = 300)
+    public ResponseEntity<BatchResult<Character>> getCharacterBatch(
+            @Parameter(description = "Comma-separated IDs") @RequestParam List<Long> ids) {
+        
+        if (ids.isEmpty() || ids.size() > MAX_BATCH_SIZE || ids.contains(null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(batchLookupService.findCharacters(ids));
     }
 
     /**
@@ -48,6 +137,7 @@ public class CharacterController {
      */
     @GetMapping("/{id}")
     @Operation(summary = "Get character details with image")
+    @ConditionalGet(value = Character.class, maxAge = 300)
     public ResponseEntity<Character> getCharacterById(
             @Parameter(description = "Character ID") @PathVariable Long id) {
         
@@ -61,52 +151,91 @@ public class CharacterController {
      */
     @GetMapping("/popular")
     @Operation(summary = "Get popular characters with images")
-    public ResponseEntity<List<Character>> getPopularCharacters(
+    @ConditionalGet(value = Character.class, maxAge = 60)
+    public ResponseEntity<List<CharacterCard>> getPopularCharacters(
             @RequestParam(defaultValue = "12") int limit) {
         
-        List<Character> popular = characterRepository.findPopularCharacters();
-        
-        if (popular.size() > limit) {
-            popular = popular.subList(0, limit);
+        if (limit < 1) {
+            return ResponseEntity.badRequest().build();
         }
-        
-        return ResponseEntity.ok(popular);
+        return ResponseEntity.ok(rankingIndex.popularCharacters(Math.min(limit, MAX_PAGE_SIZE)));
     }
 
     /**
      * Get character gallery
+     * Keyset pagination on character ID
      */
     @GetMapping("/gallery")
-    @Operation(summary = "Get character image gallery")
-    public ResponseEntity<List<Character>> getCharacterGallery(
-            @RequestParam(defaultValue = "24") int limit) {
-        
-        List<Character> gallery = characterRepository.findAllWithImages();
+    @Operation(summary = "Get character image gallery",
+               description = "Paginated by an opaque cursor, the response carries nextCursor")
+    @ConditionalGet(value = Character.class, maxAge = 60)
+    public ResponseEntity<CursorPage<CharacterCard>> getCharacterGallery(
+            @RequestParam(defaultValue = "24") int limit,
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor) {
         
-        if (gallery.size() > limit) {
-            gallery = gallery.subList(0, limit);
+        OptionalLong after = PageCursor.decode(cursor);
+        if (limit < 1 || after.isEmpty()) {
+            return ResponseEntity.badRequest().build();
         }
-        
-        return ResponseEntity.ok(gallery);
+        int size = Math.min(limit, MAX_PAGE_SIZE);
+
+        List<CharacterCard> rows = characterRepository.findWithImagesAfter(after.getAsLong(), PageRequest.of(0, size + 1));
+        return ResponseEntity.ok(CursorPage.of(rows, size, CharacterCard::characterId));
     }
 
     /**
-     * Get all characters
+     * Get all characters, one keyset page at a time
      */
     @GetMapping("/all")
-    @Operation(summary = "Get all characters")
-    public ResponseEntity<List<Character>> getAllCharacters() {
-        List<Character> characters = characterRepository.findAll();
-        return ResponseEntity.ok(characters);
+    @Operation(summary = "Get all characters",
+               description = "Paginated by an opaque cursor, the response carries nextCursor")
+    @ConditionalGet(value = Character.class, maxAge = 60)
+    public ResponseEntity<CursorPage<CharacterCard>> getAllCharacters(
+            @RequestParam(defaultValue = "100") int limit,
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor) {
+
+        OptionalLong after = PageCursor.decode(cursor);
+        if (limit < 1 || after.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        int size = Math.min(limit, MAX_PAGE_SIZE);
+
+        List<CharacterCard> rows = characterRepository.findAfter(after.getAsLong(), PageRequest.of(0, size + 1));
+        return ResponseEntity.ok(CursorPage.of(rows, size, CharacterCard::characterId));
     }
 
     /**
      * Get character count
+     * Served from the in-memory counters, optionally only with images
      */
     @GetMapping("/count")
     @Operation(summary = "Get total character count")
-    public ResponseEntity<Long> getCharacterCount() {
-        long count = characterRepository.count();
+    @ConditionalGet(value = Character.class, maxAge = 60)
+    public ResponseEntity<Long> getCharacterCount(
+            @RequestParam(defaultValue = "false") boolean withImages) {
+        long count = catalogCounters.countCharacters(withImages);
         return ResponseEntity.ok(count);
     }
+
+    /**
+     * Export every character row as NDJSON or CSV
+     * Streamed from a database cursor, the whole table is never held in memory
+     */
+    @GetMapping("/export")
+    @Operation(summary = "Export all characters",
+               description = "Streams full rows as NDJSON (default) or CSV")
+    @ConditionalGet(value = Character.class, maxAge = 60)
+    public ResponseEntity<StreamingResponseBody> exportCharacters(
+            @Parameter(description = "ndjson or csv") @RequestParam(defaultValue = "ndjson") String format) {
+
+        ExportFormat exportFormat = ExportFormat.parse(format).orElse(null);
+        if (exportFormat == null) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok()
+                .contentType(exportFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, exportFormat.attachment("characters"))
+                .body(catalogExporter.export(Character.class, characterRepository::streamAll, exportFormat));
+    }
 }
\ No newline at end of file
@@ -1,46 +1,135 @@
 package com.tweb.anime.controller;
 
+import com.tweb.anime.dto.PersonCard;
+import com.tweb.anime.dto.BatchResult;
+import com.tweb.anime.dto.CursorPage;
+import com.tweb.anime.dto.PageCursor;
+import com.tweb.anime.dto.Suggestion;
+import com.tweb.anime.export.CatalogExporter;
+import com.tweb.anime.export.ExportFormat;
+import com.tweb.anime.index.AutocompleteIndex;
+import com.tweb.anime.index.CatalogCounters;
+import com.tweb.anime.index.FuzzySearchIndex;
+import com.tweb.anime.index.IdLists;
+import com.tweb.anime.index.NameSearchIndex;
+import com.tweb.anime.index.RankingIndex;
 import com.tweb.anime.model.Person;
 import com.tweb.anime.repository.PersonRepository;
+import com.tweb.anime.service.BatchLookupService;
+import com.tweb.anime.web.ConditionalGet;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 /**
  * Person Controller
  * 
  * Returns person/actor data with images via HTTP/Axios
  * For displaying actor/voice actor/staff photos in frontend
+ * List endpoints return {@link PersonCard}s, /{id} returns the full entity
  */
 @RestController
 @RequestMapping("/api/people")
 @Tag(name = "People", description = "People/Actors endpoints with images")
 public class PersonController {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_SEARCH_RESULTS = 200;
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final int MAX_SUGGESTIONS = 50;
+
     @Autowired
     private PersonRepository personRepository;
 
+    @Autowired
+    private RankingIndex rankingIndex;
+
+    @Autowired
+    private NameSearchIndex nameSearchIndex;
+
+    @Autowired
+    private FuzzySearchIndex fuzzySearchIndex;
+
+    @Autowired
+    private AutocompleteIndex autocompleteIndex;
+
+    @Autowired
+    private CatalogCounters catalogCounters;
+
+    @Autowired
+    private CatalogExporter catalogExporter;
+
+    @Autowired
+    private BatchLookupService batchLookupService;
+
+    /**
+     * Autocomplete person names
+     * Top suggestions by prefix from the in-memory autocomplete index, for search-as-you-type
+     */
+    @GetMapping("/autocomplete")
+    @Operation(summary = "Autocomplete person names")
+    @ConditionalGet(value = Person.class, maxAge = 60)
+    public ResponseEntity<List<Suggestion>> autocomplete(
+            @Parameter(description = "Prefix typed so far") @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        
+        if (q.isBlank() || limit < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(autocompleteIndex.suggestPeople(q, Math.min(limit, MAX_SUGGESTIONS)));
+    }
+
     /**
      * Search people by name
+     * With fuzzy=true matches tolerate typos and are ranked by edit distance, then favorites
      */
     @GetMapping("/search")
     @Operation(summary = "Search people/actors with images", 
                description = "Returns people with image URLs for actor display")
-    public ResponseEntity<List<Person>> searchPeople(
-            @Parameter(description = "Person name") @RequestParam String name) {
+    @ConditionalGet(value = Person.class, maxAge = 30)
+    public ResponseEntity<List<PersonCard>> searchPeople(
+            @Parameter(description = "Person name") @RequestParam String name,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(defaultValue = "0") int offset,
+            @Parameter(description = "Tolerate typos, results ranked by closeness") @RequestParam(defaultValue = "false") boolean fuzzy) {
         
-        if (name == null || name.trim().isEmpty()) {
+        if (name == null || name.trim().isEmpty() || limit < 1 || offset < 0) {
             return ResponseEntity.badRequest().build();
         }
 
-        List<Person> results = personRepository.findByNameContainingIgnoreCase(name);
-        return ResponseEntity.ok(results);
+        long[] hits = fuzzy ? fuzzySearchIndex.searchPeople(name) : nameSearchIndex.searchPeople(name);
+        List<Long> ids = IdLists.slice(hits, offset, Math.min(limit, MAX_SEARCH_RESULTS));
+        List<PersonCard> results = IdLists.inOrder(ids, personRepository.findCardsByIds(ids), PersonCard::personId);
+        return ResponseEntity.ok()
+                .header(IdLists.TOTAL_COUNT_HEADER, String.valueOf(hits.length))
+                .body(results);
+    }
+
+    /**
+     * Get many people by ID
+     * Cached entries are served from memory, the rest come from a single query
+     * Results follow the order of the requested IDs, unknown IDs are listed in "missing"
+     */
+    @GetMapping("/batch")
+    @Operation(summary = "Get people by IDs via HTTP")
+    @ConditionalGet(value = Person.class, maxAge = 300)
+    public ResponseEntity<BatchResult<Person>> getPersonBatch(
+            @Parameter(description = "Comma-separated IDs") @RequestParam List<Long> ids) {
+        
+        if (ids.isEmpty() || ids.size() > MAX_BATCH_SIZE || ids.contains(null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(batchLookupService.findPeople(ids));
     }
 
     /**
@@ -48,6 +137,7 @@ public class PersonController {
      */
     @GetMapping("/{id}")
     @Operation(summary = "Get person details with image")
+    @ConditionalGet(value = Person.class, maxAge = 300)
     public ResponseEntity<Person> getPersonById(
             @Parameter(description = "Person ID") @PathVariable Long id) {
         
@@ -61,43 +151,57 @@ public class PersonController {
      */
     @GetMapping("/popular")
     @Operation(summary = "Get popular voice actors/staff with images")
-    public ResponseEntity<List<Person>> getPopularPeople(
+    @ConditionalGet(value = Person.class, maxAge = 60)
+    public ResponseEntity<List<PersonCard>> getPopularPeople(
             @RequestParam(defaultValue = "12") int limit) {
         
-        List<Person> popular = personRepository.findPopularPeople();
-        
-        if (popular.size() > limit) {
-            popular = popular.subList(0, limit);
+        if (limit < 1) {
+            return ResponseEntity.badRequest().build();
         }
-        
-        return ResponseEntity.ok(popular);
+        return ResponseEntity.ok(rankingIndex.popularPeople(Math.min(limit, MAX_PAGE_SIZE)));
     }
 
     /**
      * Get people gallery for cast & crew display
+     * Keyset pagination on person ID
      */
     @GetMapping("/gallery")
-    @Operation(summary = "Get people image gallery (cast & crew)")
-    public ResponseEntity<List<Person>> getPeopleGallery(
-            @RequestParam(defaultValue = "24") int limit) {
-        
-        List<Person> gallery = personRepository.findAllWithImages();
+    @Operation(summary = "Get people image gallery (cast & crew)",
+               description = "Paginated by an opaque cursor, the response carries nextCursor")
+    @ConditionalGet(value = Person.class, maxAge = 60)
+    public ResponseEntity<CursorPage<PersonCard>> getPeopleGallery(
+            @RequestParam(defaultValue = "24") int limit,
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor) {
         
-        if (gallery.size() > limit) {
-            gallery = gallery.subList(0, limit);
+        OptionalLong after = PageCursor.decode(cursor);
+        if (limit < 1 || after.isEmpty()) {
+            return ResponseEntity.badRequest().build();
         }
-        
-        return ResponseEntity.ok(gallery);
+        int size = Math.min(limit, MAX_PAGE_SIZE);
+
+        List<PersonCard> rows = personRepository.findWithImagesAfter(after.getAsLong(), PageRequest.of(0, size + 1));
+        return ResponseEntity.ok(CursorPage.of(rows, size, PersonCard::personId));
     }
 
     /**
-     * Get all people
+     * Get all people, one keyset page at a time
      */
     @GetMapping("/all")
-    @Operation(summary = "Get all people")
-    public ResponseEntity<List<Person>> getAllPeople() {
-        List<Person> people = personRepository.findAll();
-        return ResponseEntity.ok(people);
+    @Operation(summary = "Get all people",
+               description = "Paginated by an opaque cursor, the response carries nextCursor")
+    @ConditionalGet(value = Person.class, maxAge = 60)
+    public ResponseEntity<CursorPage<PersonCard>> getAllPeople(
+            @RequestParam(defaultValue = "100") int limit,
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor) {
+
+        OptionalLong after = PageCursor.decode(cursor);
+        if (limit < 1 || after.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        int size = Math.min(limit, MAX_PAGE_SIZE);
+
+        List<PersonCard> rows = personRepository.findAfter(after.getAsLong(), PageRequest.of(0, size + 1));
+        return ResponseEntity.ok(CursorPage.of(rows, size, PersonCard::personId));
     }
 
     /**
@@ -105,8 +209,32 @@ public class PersonController {
      */
     @GetMapping("/count")
     @Operation(summary = "Get total people count")
-    public ResponseEntity<Long> getPersonCount() {
-        long count = personRepository.count();
+    @ConditionalGet(value = Person.class, maxAge = 60)
+    public ResponseEntity<Long> getPersonCount(
+            @RequestParam(defaultValue = "false") boolean withImages) {
+        long count = catalogCounters.countPeople(withImages);
         return ResponseEntity.ok(count);
     }
+
+    /**
+     * Export every person row as NDJSON or CSV
+     * Streamed from a database cursor, the whole table is never held in memory
+     */
+    @GetMapping("/export")
+    @Operation(summary = "Export all people",
+               description = "Streams full rows as NDJSON (default) or CSV")
+    @ConditionalGet(value = Person.class, maxAge = 60)
+    public ResponseEntity<StreamingResponseBody> exportPeople(
+            @Parameter(description = "ndjson or csv") @RequestParam(defaultValue = "ndjson") String format) {
+
+        ExportFormat exportFormat = ExportFormat.parse(format).orElse(null);
+        if (exportFormat == null) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok()
+                .contentType(exportFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, exportFormat.attachment("people"))
+                .body(catalogExporter.export(Person.class, personRepository::streamAll, exportFormat));
+    }
 }
\ No newline at end of file
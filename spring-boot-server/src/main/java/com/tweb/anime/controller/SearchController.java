@@ -0,0 +1,98 @@
+package com.tweb.anime.controller;
+
+import com.tweb.anime.dto.SearchResults;
+import com.tweb.anime.dto.TextSearchResults;
+import com.tweb.anime.model.Anime;
+import com.tweb.anime.model.Character;
+import com.tweb.anime.model.Person;
+import com.tweb.anime.service.CatalogSearchService;
+import com.tweb.anime.service.FullTextSearchService;
+import com.tweb.anime.web.ConditionalGet;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Search Controller
+ *
+ * One search across anime, characters and people, so the main server
+ * makes a single HTTP call instead of three and merging the results,
+ * plus full-text search of synopses and about texts
+ */
+@RestController
+@RequestMapping("/api/search")
+@Tag(name = "Search", description = "Cross-entity search")
+public class SearchController {
+
+    private static final int MAX_SEARCH_RESULTS = 100;
+    private static final int MAX_TEXT_OFFSET = 10_000;
+
+    @Autowired
+    private CatalogSearchService catalogSearchService;
+
+    @Autowired
+    private FullTextSearchService fullTextSearchService;
+
+    /**
+     * Search anime, characters and people by name
+     * Sources that miss the time budget are listed in "incomplete", such responses are not cached
+     */
+    @GetMapping
+    @Operation(summary = "Search anime, characters and people",
+               description = "Typed hits of all three, most relevant first")
+    @ConditionalGet(value = {Anime.class, Character.class, Person.class}, maxAge = 30)
+    public ResponseEntity<SearchResults> search(
+            @Parameter(description = "Title or name to search") @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit,
+            @Parameter(description = "Tolerate typos") @RequestParam(defaultValue = "false") boolean fuzzy,
+            HttpServletResponse response) {
+        
+        if (q.isBlank() || limit < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        SearchResults results = catalogSearchService.search(q, Math.min(limit, MAX_SEARCH_RESULTS), fuzzy);
+        if (!results.incomplete().isEmpty()) {
+            // Replaces the max-age set by ConditionalGetInterceptor
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
+        }
+        return ResponseEntity.ok(results);
+    }
+
+    /**
+     * Full-text search of anime synopses/backgrounds or character/person about texts
+     * Ranked by BM25, every hit carries the best matching passage with the offsets of the matched words
+     */
+    @GetMapping("/text/{type}")
+    @Operation(summary = "Full-text search of descriptions",
+               description = "type is anime, character or person; hits ranked by BM25 with highlighted snippets")
+    @ConditionalGet(value = {Anime.class, Character.class, Person.class}, maxAge = 30)
+    public ResponseEntity<TextSearchResults> searchText(
+            @PathVariable String type,
+            @Parameter(description = "Words to search") @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "0") int offset) {
+        
+        if (q.isBlank() || limit < 1 || offset < 0 || offset > MAX_TEXT_OFFSET) {
+            return ResponseEntity.badRequest().build();
+        }
+        int size = Math.min(limit, MAX_SEARCH_RESULTS);
+
+        return switch (type) {
+            case CatalogSearchService.ANIME -> ResponseEntity.ok(fullTextSearchService.searchAnime(q, size, offset));
+            case CatalogSearchService.CHARACTER -> ResponseEntity.ok(fullTextSearchService.searchCharacters(q, size, offset));
+            case CatalogSearchService.PERSON -> ResponseEntity.ok(fullTextSearchService.searchPeople(q, size, offset));
+            default -> ResponseEntity.notFound().build();
+        };
+    }
+}
@@ -0,0 +1,172 @@
+package com.tweb.anime.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Replica Routing DataSource
+ *
+ * Sends connections of read-only transactions to the read replicas,
+ * round-robin over the ones that passed the last health check, and
+ * everything else (writes, DDL, work outside a transaction) to the
+ * primary. For a short while after a write, reads stay on the primary
+ * too so they see it despite replication lag.
+ *
+ * The routing decision is taken, and counted, when a connection is
+ * requested, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * the transaction manager asks for the connection before the read-only
+ * flag of the transaction is published. unwrap() and isWrapperFor() see
+ * the primary and count nothing.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Map<String, LongAdder> routed = new LinkedHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final long readYourWritesNanos;
+
+    private volatile long primaryUntil = System.nanoTime();
+
+    /**
+     * @param primary        target of writes and of reads when no replica is up
+     * @param replicas       read replicas by pool name
+     * @param readYourWrites how long reads stay on the primary after {@link #markWritten()}
+     */
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration readYourWrites) {
+        this.readYourWritesNanos = readYourWrites.toNanos();
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        routed.put(PRIMARY, new LongAdder());
+        replicas.forEach((name, dataSource) -> {
+            this.replicas.add(new Replica(name, dataSource));
+            targets.put(name, dataSource);
+            routed.put(name, new LongAdder());
+        });
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route().getConnection(username, password);
+    }
+
+    /**
+     * Only reached through unwrap/isWrapperFor (metrics binders, health
+     * indicators); connections are routed in getConnection
+     */
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return PRIMARY;
+    }
+
+    private DataSource route() {
+        String target = select();
+        routed.get(target).increment();
+        return getResolvedDataSources().get(target);
+    }
+
+    private String select() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || System.nanoTime() - primaryUntil < 0) {
+            return PRIMARY;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.up) {
+                return replica.name;
+            }
+        }
+        return PRIMARY;
+    }
+
+    /**
+     * Keeps reads on the primary for the read-your-writes window
+     */
+    public void markWritten() {
+        primaryUntil = System.nanoTime() + readYourWritesNanos;
+    }
+
+    /**
+     * Validates one connection per replica and takes failing replicas out of rotation
+     */
+    public void checkReplicas(int timeoutSeconds) {
+        for (Replica replica : replicas) {
+            boolean up;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                up = connection.isValid(timeoutSeconds);
+            } catch (Exception e) {
+                up = false;
+            }
+            if (up && !replica.up) {
+                log.info("Read replica {} is up", replica.name);
+            } else if (!up && replica.up) {
+                log.warn("Read replica {} is down, its reads go to the other replicas or the primary", replica.name);
+            }
+            replica.up = up;
+        }
+    }
+
+    public List<String> getReplicaNames() {
+        return replicas.stream().map(replica -> replica.name).toList();
+    }
+
+    public boolean isUp(String replicaName) {
+        return replicas.stream().anyMatch(replica -> replica.name.equals(replicaName) && replica.up);
+    }
+
+    /**
+     * Connections handed out for {@code target} (primary or a replica pool name)
+     */
+    public long getRouted(String target) {
+        LongAdder count = routed.get(target);
+        return count == null ? 0 : count.sum();
+    }
+
+    public Map<String, DataSource> getReplicas() {
+        Map<String, DataSource> byName = new LinkedHashMap<>();
+        replicas.forEach(replica -> byName.put(replica.name, replica.dataSource));
+        return byName;
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        // Out of rotation until the first health check passes
+        private volatile boolean up;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.tweb.anime.dto;
+
+/**
+ * Anime Card - list view projection
+ *
+ * Only the columns the homepage/gallery cards display, no TEXT columns:
+ * the synopsis is shown on the detail view, from the full
+ * {@link com.tweb.anime.model.Anime} entity returned by /api/anime/{id}.
+ */
+public record AnimeCard(Long malId,
+                        String title,
+                        String titleEnglish,
+                        String titleJapanese,
+                        String type,
+                        Double score,
+                        Integer popularity,
+                        String imageUrl) {
+}
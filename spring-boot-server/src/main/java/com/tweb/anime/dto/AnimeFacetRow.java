@@ -0,0 +1,8 @@
+package com.tweb.anime.dto;
+
+/**
+ * Facet columns of one anime, used to build the in-memory facet snapshot
+ */
+public record AnimeFacetRow(Long malId, String type, String status, String source,
+                            String rating, String premiered, Double score) {
+}
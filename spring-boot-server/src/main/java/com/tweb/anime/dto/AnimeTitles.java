@@ -0,0 +1,7 @@
+package com.tweb.anime.dto;
+
+/**
+ * Every title of one anime and its popularity rank, used to build the autocomplete index
+ */
+public record AnimeTitles(Long malId, String title, String titleEnglish, String titleJapanese, Integer popularity) {
+}
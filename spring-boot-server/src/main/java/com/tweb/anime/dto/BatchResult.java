@@ -0,0 +1,12 @@
+package com.tweb.anime.dto;
+
+import java.util.List;
+
+/**
+ * Result of a multi-ID lookup
+ *
+ * @param items   found entities, in the order their IDs were requested
+ * @param missing requested IDs that do not exist
+ */
+public record BatchResult<T>(List<T> items, List<Long> missing) {
+}
@@ -0,0 +1,11 @@
+package com.tweb.anime.dto;
+
+/**
+ * Character Card - list view projection without the {@code about} text
+ */
+public record CharacterCard(Long characterId,
+                            String name,
+                            String nameKanji,
+                            String imageUrl,
+                            Integer favorites) {
+}
@@ -0,0 +1,25 @@
+package com.tweb.anime.dto;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * One page of a keyset-paginated listing
+ *
+ * @param items      rows of this page, ordered by primary key
+ * @param nextCursor cursor for the following page, null on the last page
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+    /**
+     * Build a page from a query that fetched {@code limit + 1} rows,
+     * the extra row only tells whether another page exists
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int limit, ToLongFunction<T> idOf) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new CursorPage<>(items, PageCursor.encode(idOf.applyAsLong(items.get(limit - 1))));
+    }
+}
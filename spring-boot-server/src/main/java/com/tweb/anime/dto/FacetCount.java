@@ -0,0 +1,7 @@
+package com.tweb.anime.dto;
+
+/**
+ * Number of matching anime for one facet value
+ */
+public record FacetCount(String value, int count) {
+}
@@ -0,0 +1,15 @@
+package com.tweb.anime.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of faceted search results
+ *
+ * @param total  number of matching anime
+ * @param hits   cards of this page, ordered by MAL ID
+ * @param facets counts per facet value; each facet is counted with every
+ *               filter applied except its own, so other values stay selectable
+ */
+public record FacetedPage(int total, List<AnimeCard> hits, Map<String, List<FacetCount>> facets) {
+}
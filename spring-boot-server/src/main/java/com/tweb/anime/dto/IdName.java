@@ -0,0 +1,7 @@
+package com.tweb.anime.dto;
+
+/**
+ * Primary key and display name of an entity, used to build in-memory indexes
+ */
+public record IdName(Long id, String name) {
+}
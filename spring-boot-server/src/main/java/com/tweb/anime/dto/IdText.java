@@ -0,0 +1,15 @@
+package com.tweb.anime.dto;
+
+/**
+ * Primary key and free text of an entity, used to build the full-text index
+ * and its snippets
+ */
+public record IdText(Long id, String text) {
+
+    /**
+     * Two text columns joined by a blank line (anime synopsis and background)
+     */
+    public IdText(Long id, String first, String second) {
+        this(id, first == null ? second : second == null ? first : first + "\n\n" + second);
+    }
+}
@@ -0,0 +1,42 @@
+package com.tweb.anime.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.OptionalLong;
+
+/**
+ * Opaque keyset cursor
+ *
+ * Wraps the last primary key of a page so clients can ask for the next one
+ * without relying on the id format. A missing cursor means "first page".
+ */
+public final class PageCursor {
+
+    private static final String PREFIX = "k1:";
+
+    private PageCursor() {
+    }
+
+    public static String encode(long lastId) {
+        byte[] raw = (PREFIX + lastId).getBytes(StandardCharsets.US_ASCII);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    /**
+     * @return the id to continue after (0 for the first page), or empty if the cursor is malformed
+     */
+    public static OptionalLong decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return OptionalLong.of(0L);
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            if (!raw.startsWith(PREFIX)) {
+                return OptionalLong.empty();
+            }
+            return OptionalLong.of(Long.parseLong(raw.substring(PREFIX.length())));
+        } catch (IllegalArgumentException e) {
+            return OptionalLong.empty();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.tweb.anime.dto;
+
+/**
+ * Person Card - list view projection without the {@code about} text
+ */
+public record PersonCard(Long personId,
+                         String name,
+                         String imageUrl,
+                         Integer favorites) {
+}
@@ -0,0 +1,14 @@
+package com.tweb.anime.dto;
+
+/**
+ * Search Hit - one entry of the cross-entity /api/search result
+ *
+ * @param type      anime, character or person
+ * @param relevance match quality plus a popularity boost, comparable across types
+ */
+public record SearchHit(String type,
+                        Long id,
+                        String name,
+                        String imageUrl,
+                        double relevance) {
+}
@@ -0,0 +1,16 @@
+package com.tweb.anime.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Search Results - merged answer of /api/search
+ *
+ * @param hits       best hits of every source, highest relevance first
+ * @param totals     number of matches per type
+ * @param incomplete types whose sub-query timed out or failed, missing from hits and totals
+ */
+public record SearchResults(List<SearchHit> hits,
+                            Map<String, Integer> totals,
+                            List<String> incomplete) {
+}
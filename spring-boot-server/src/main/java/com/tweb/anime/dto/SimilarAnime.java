@@ -0,0 +1,9 @@
+package com.tweb.anime.dto;
+
+/**
+ * Similar Anime - one entry of /api/anime/{id}/similar
+ *
+ * @param similarity 0..1, weighted overlap of genres, studios, type, source, rating and score
+ */
+public record SimilarAnime(AnimeCard anime, float similarity) {
+}
@@ -0,0 +1,7 @@
+package com.tweb.anime.dto;
+
+/**
+ * Autocomplete suggestion: entity ID and the name that matched the prefix
+ */
+public record Suggestion(Long id, String name) {
+}
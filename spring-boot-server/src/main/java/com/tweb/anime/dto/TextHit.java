@@ -0,0 +1,16 @@
+package com.tweb.anime.dto;
+
+/**
+ * Text Hit - one entry of the /api/search/text result
+ *
+ * @param type    anime, character or person
+ * @param score   BM25 score, comparable within one query and type
+ * @param snippet best matching passage of the synopsis/background or about text
+ */
+public record TextHit(String type,
+                      Long id,
+                      String name,
+                      String imageUrl,
+                      double score,
+                      TextSnippet snippet) {
+}
@@ -0,0 +1,12 @@
+package com.tweb.anime.dto;
+
+import java.util.List;
+
+/**
+ * Text Search Results - one page of /api/search/text
+ *
+ * @param hits  hits of the page, highest score first
+ * @param total number of documents matching at least one query term
+ */
+public record TextSearchResults(List<TextHit> hits, int total) {
+}
@@ -0,0 +1,12 @@
+package com.tweb.anime.dto;
+
+import java.util.List;
+
+/**
+ * Passage of a text around the best match of a full-text query
+ *
+ * @param text       the passage, with an ellipsis where it was cut
+ * @param highlights [start, end) character offsets of the matched words in text
+ */
+public record TextSnippet(String text, List<int[]> highlights) {
+}
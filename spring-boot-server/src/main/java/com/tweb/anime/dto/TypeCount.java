@@ -0,0 +1,7 @@
+package com.tweb.anime.dto;
+
+/**
+ * Row count of one type, and how many of those rows have an image
+ */
+public record TypeCount(String type, long total, long withImages) {
+}
@@ -0,0 +1,8 @@
+package com.tweb.anime.dto;
+
+/**
+ * Entity ID, one of its names and a ranking weight (higher ranks first),
+ * used to build the autocomplete index
+ */
+public record WeightedName(Long id, String name, Long weight) {
+}
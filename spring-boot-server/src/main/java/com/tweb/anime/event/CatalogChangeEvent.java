@@ -0,0 +1,37 @@
+package com.tweb.anime.event;
+
+/**
+ * Catalog Change Event
+ *
+ * Published whenever an Anime, Character or Person row is written.
+ * In-memory indexes and caches listen to it to stay in sync with PostgreSQL.
+ *
+ * @param entityType changed entity class
+ * @param id         primary key of the changed row, or null for bulk changes
+ * @param kind       kind of change
+ * @param entity     changed entity, or null for bulk changes
+ * @param previous   tracked attributes before an update or delete, null for creates,
+ *                   bulk changes and rows not loaded through JPA
+ */
+public record CatalogChangeEvent(Class<?> entityType, Object id, Kind kind, Object entity, TrackedState previous) {
+
+    public enum Kind {
+        CREATED,
+        UPDATED,
+        DELETED,
+        /** Many rows changed at once (e.g. CSV import), listeners should reload */
+        BULK
+    }
+
+    public static CatalogChangeEvent bulk(Class<?> entityType) {
+        return new CatalogChangeEvent(entityType, null, Kind.BULK, null, null);
+    }
+
+    public boolean isBulk() {
+        return kind == Kind.BULK;
+    }
+
+    public boolean concerns(Class<?> type) {
+        return type.isAssignableFrom(entityType);
+    }
+}
@@ -0,0 +1,77 @@
+package com.tweb.anime.event;
+
+import com.tweb.anime.model.Anime;
+import com.tweb.anime.model.Character;
+import com.tweb.anime.model.Person;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * JPA Entity Listener
+ *
+ * Turns Hibernate lifecycle callbacks into {@link CatalogChangeEvent}s.
+ * Instantiated by Hibernate through Spring's bean container, so the
+ * publisher is injected through the constructor. The {@link TrackedState}
+ * of an entity is remembered on the entity when it is loaded or written,
+ * so update and delete events carry the values they replace.
+ */
+public class CatalogEntityListener {
+
+    private final ApplicationEventPublisher publisher;
+
+    public CatalogEntityListener(ApplicationEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @PostLoad
+    public void afterLoad(Object entity) {
+        track(entity);
+    }
+
+    @PostPersist
+    public void afterCreate(Object entity) {
+        publish(entity, CatalogChangeEvent.Kind.CREATED, null);
+        track(entity);
+    }
+
+    @PostUpdate
+    public void afterUpdate(Object entity) {
+        publish(entity, CatalogChangeEvent.Kind.UPDATED, trackedOf(entity));
+        track(entity);
+    }
+
+    @PostRemove
+    public void afterDelete(Object entity) {
+        publish(entity, CatalogChangeEvent.Kind.DELETED, trackedOf(entity));
+    }
+
+    private void publish(Object entity, CatalogChangeEvent.Kind kind, TrackedState previous) {
+        publisher.publishEvent(new CatalogChangeEvent(entity.getClass(), idOf(entity), kind, entity, previous));
+    }
+
+    private static void track(Object entity) {
+        if (entity instanceof TrackedEntity tracked) {
+            tracked.setTrackedState(TrackedState.of(entity));
+        }
+    }
+
+    private static TrackedState trackedOf(Object entity) {
+        return entity instanceof TrackedEntity tracked ? tracked.getTrackedState() : null;
+    }
+
+    private static Object idOf(Object entity) {
+        if (entity instanceof Anime anime) {
+            return anime.getMalId();
+        }
+        if (entity instanceof Character character) {
+            return character.getCharacterId();
+        }
+        if (entity instanceof Person person) {
+            return person.getPersonId();
+        }
+        return null;
+    }
+}
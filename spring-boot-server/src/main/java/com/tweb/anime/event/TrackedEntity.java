@@ -0,0 +1,12 @@
+package com.tweb.anime.event;
+
+/**
+ * Catalog entity that remembers its {@link TrackedState}, set by
+ * {@link CatalogEntityListener} when it is loaded or written
+ */
+public interface TrackedEntity {
+
+    TrackedState getTrackedState();
+
+    void setTrackedState(TrackedState trackedState);
+}
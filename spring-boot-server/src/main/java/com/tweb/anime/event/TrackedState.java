@@ -0,0 +1,36 @@
+package com.tweb.anime.event;
+
+import com.tweb.anime.model.Anime;
+import com.tweb.anime.model.Character;
+import com.tweb.anime.model.Person;
+
+/**
+ * Attributes of a catalog row that derived data (genre/studio link tables,
+ * counters) is kept in sync with, as they were when the row was loaded or
+ * last written. Carried by update and delete events so listeners can tell
+ * what actually changed.
+ *
+ * @param genres   details.genres text, null for characters and people
+ * @param studios  details.studios text, null for characters and people
+ * @param type     anime type, null for characters and people
+ * @param hasImage whether the row has an image URL
+ */
+public record TrackedState(String genres, String studios, String type, boolean hasImage) {
+
+    /**
+     * @return the tracked attributes of an entity, null for untracked types
+     */
+    static TrackedState of(Object entity) {
+        if (entity instanceof Anime anime) {
+            return new TrackedState(anime.getGenres(), anime.getStudios(), anime.getType(),
+                    anime.getImageUrl() != null);
+        }
+        if (entity instanceof Character character) {
+            return new TrackedState(null, null, null, character.getImageUrl() != null);
+        }
+        if (entity instanceof Person person) {
+            return new TrackedState(null, null, null, person.getImageUrl() != null);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,100 @@
+package com.tweb.anime.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Catalog Exporter
+ *
+ * Streams a whole table to the client row by row. Rows come from a
+ * repository {@link Stream} backed by a server-side cursor (the stream
+ * query sets a JDBC fetch size and runs inside a read-only transaction),
+ * and each row is detached once written, so memory stays flat whatever
+ * the table size.
+ */
+@Component
+public class CatalogExporter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper = CsvMapper.builder()
+            .disable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .build();
+    private final TransactionTemplate readOnlyTransaction;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public CatalogExporter(ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * @param type   entity type, drives the CSV header
+     * @param rows   opens the repository stream, called inside the export transaction
+     * @param format output format
+     */
+    public <T> StreamingResponseBody export(Class<T> type, Supplier<Stream<T>> rows, ExportFormat format) {
+        return out -> readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<T> stream = rows.get()) {
+                write(stream.iterator(), writerFor(type, format), format, out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private ObjectWriter writerFor(Class<?> type, ExportFormat format) {
+        ObjectWriter writer = format == ExportFormat.CSV
+                ? csvMapper.writer(csvMapper.schemaFor(type).withHeader())
+                : objectMapper.writerFor(type).withRootValueSeparator("\n");
+        return writer
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    private <T> void write(Iterator<T> rows, ObjectWriter writer, ExportFormat format, OutputStream out)
+            throws IOException {
+        BufferedOutputStream buffered = new BufferedOutputStream(out, BUFFER_SIZE);
+        boolean empty = true;
+        try (SequenceWriter sequence = writer.writeValues(buffered)) {
+            while (rows.hasNext()) {
+                T row = rows.next();
+                sequence.write(row);
+                entityManager.detach(row);
+                if (empty) {
+                    // Get the first bytes to the client right away
+                    sequence.flush();
+                    empty = false;
+                }
+            }
+        }
+        if (format == ExportFormat.NDJSON && !empty) {
+            // The separator only goes between values, terminate the last line too
+            buffered.write('\n');
+        }
+        buffered.flush();
+    }
+}
@@ -0,0 +1,88 @@
+package com.tweb.anime.importer;
+
+import com.tweb.anime.event.CatalogChangeEvent;
+import com.tweb.anime.model.Anime;
+import com.tweb.anime.model.Character;
+import com.tweb.anime.model.Person;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the CSV import at startup when catalog.import.enabled=true
+ *
+ * Example:
+ * java -jar spring-boot-server.jar --catalog.import.enabled=true
+ *      --catalog.import.details=datasets/Details.csv
+ *      --catalog.import.characters=datasets/Characters.csv
+ *      --catalog.import.people=datasets/Person_details.csv
+ *
+ * Files that are not configured are left alone. Indexes and caches are
+ * told to reload through a bulk {@link CatalogChangeEvent} for every file
+ * that loaded completely. When a chunk of any file failed (and was rolled
+ * back), startup fails once all files were tried, so the process exits
+ * non-zero instead of serving a partial catalog as if it were complete.
+ */
+@Component
+@ConditionalOnProperty(name = "catalog.import.enabled", havingValue = "true")
+public class CatalogImportRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogImportRunner.class);
+
+    private final CatalogImporter importer;
+    private final ApplicationEventPublisher publisher;
+    private final String details;
+    private final String characters;
+    private final String people;
+
+    public CatalogImportRunner(CatalogImporter importer,
+                               ApplicationEventPublisher publisher,
+                               @Value("${catalog.import.details:}") String details,
+                               @Value("${catalog.import.characters:}") String characters,
+                               @Value("${catalog.import.people:}") String people) {
+        this.importer = importer;
+        this.publisher = publisher;
+        this.details = details;
+        this.characters = characters;
+        this.people = people;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        List<ImportReport> incomplete = new ArrayList<>();
+        importIfSet(details, ImportTable.DETAILS, Anime.class, incomplete);
+        importIfSet(characters, ImportTable.CHARACTERS, Character.class, incomplete);
+        importIfSet(people, ImportTable.PERSON_DETAILS, Person.class, incomplete);
+        if (!incomplete.isEmpty()) {
+            throw new IllegalStateException("CSV import incomplete: " + incomplete.stream()
+                    .map(report -> report.table() + " (" + report.failedChunks() + " failed chunks)")
+                    .collect(Collectors.joining(", ")));
+        }
+    }
+
+    private void importIfSet(String file, ImportTable table, Class<?> entityType, List<ImportReport> incomplete)
+            throws IOException {
+        if (file.isBlank()) {
+            return;
+        }
+        ImportReport report = importer.importFile(table, Path.of(file));
+        if (!report.complete()) {
+            log.error("Import of {} from {} is incomplete: {} chunks failed, {} of {} rows loaded",
+                    report.table(), file, report.failedChunks(), report.rowsLoaded(), report.rowsRead());
+            incomplete.add(report);
+            return;
+        }
+        publisher.publishEvent(CatalogChangeEvent.bulk(entityType));
+    }
+}
@@ -0,0 +1,226 @@
+package com.tweb.anime.importer;
+
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+
+/**
+ * Catalog Importer
+ *
+ * Bulk loads Details.csv, Characters.csv and Person_details.csv through
+ * the PostgreSQL COPY protocol. The file is parsed on the calling thread
+ * and cut into chunks of COPY text; chunks are loaded in parallel, each
+ * on its own connection, into a temporary staging table and upserted
+ * into the target table, so re-running an import is idempotent.
+ */
+@Component
+public class CatalogImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogImporter.class);
+
+    private final DataSource dataSource;
+    private final int chunkRows;
+    private final int parallelism;
+
+    public CatalogImporter(DataSource dataSource,
+                           @Value("${catalog.import.chunk-rows:10000}") int chunkRows,
+                           @Value("${catalog.import.parallelism:4}") int parallelism) {
+        this.dataSource = dataSource;
+        this.chunkRows = chunkRows;
+        this.parallelism = parallelism;
+    }
+
+    public ImportReport importFile(ImportTable table, Path csv) throws IOException {
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        // Bounds the chunks parsed ahead of the loaders, keeps memory flat
+        Semaphore inFlight = new Semaphore(parallelism * 2);
+        List<Chunk> loads = new ArrayList<>();
+        long read = 0;
+        long skipped = 0;
+
+        try (Reader in = Files.newBufferedReader(csv, StandardCharsets.UTF_8);
+             CsvReader row = new CsvReader(in)) {
+            if (!row.next()) {
+                throw new IOException(csv + " is empty");
+            }
+            List<ImportTable.Column> columns = new ArrayList<>();
+            int[] fields = mapHeader(table, row, columns);
+            String copyColumns = columns.stream()
+                    .map(c -> quote(c.name()))
+                    .collect(Collectors.joining(", "));
+            String upsert = upsertSql(table, columns, copyColumns);
+
+            StringBuilder chunk = new StringBuilder(1 << 20);
+            int rowsInChunk = 0;
+            long firstRecord = 1;
+            while (row.next()) {
+                read++;
+                int keyField = fields[0];
+                if (keyField >= row.size() || row.length(keyField) == 0) {
+                    skipped++;
+                    continue;
+                }
+                for (int i = 0; i < columns.size(); i++) {
+                    if (i > 0) {
+                        chunk.append('\t');
+                    }
+                    ImportTable.Column column = columns.get(i);
+                    if (fields[i] < row.size()) {
+                        column.type().appendCopyValue(row, fields[i], column.maxLength(), chunk);
+                    } else {
+                        chunk.append(ColumnType.NULL);
+                    }
+                }
+                chunk.append('\n');
+                if (++rowsInChunk == chunkRows) {
+                    loads.add(new Chunk(firstRecord, read, submit(executor, inFlight, table, copyColumns, upsert, chunk)));
+                    chunk.setLength(0);
+                    rowsInChunk = 0;
+                    firstRecord = read + 1;
+                }
+            }
+            if (rowsInChunk > 0) {
+                loads.add(new Chunk(firstRecord, read, submit(executor, inFlight, table, copyColumns, upsert, chunk)));
+            }
+
+            long loaded = 0;
+            int failed = 0;
+            for (Chunk load : loads) {
+                try {
+                    loaded += load.rows().get();
+                } catch (ExecutionException e) {
+                    failed++;
+                    log.error("Chunk of {} (records {}-{}) failed to load: {}", table.tableName(),
+                            load.firstRecord(), load.lastRecord(), e.getCause().getMessage());
+                }
+            }
+            syncIdentity(table);
+
+            ImportReport report = new ImportReport(table.tableName(), read, loaded, skipped, failed,
+                    (System.nanoTime() - start) / 1_000_000);
+            log.info("Imported {}: {} rows read, {} loaded, {} skipped, {} failed chunks in {} ms ({} rows/s)",
+                    report.table(), report.rowsRead(), report.rowsLoaded(), report.rowsSkipped(),
+                    report.failedChunks(), report.elapsedMillis(), Math.round(report.rowsPerSecond()));
+            return report;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import of " + csv + " interrupted", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Resolve which CSV field feeds each imported column
+     * The primary key always comes first in {@code columns}
+     */
+    private static int[] mapHeader(ImportTable table, CsvReader header, List<ImportTable.Column> columns) {
+        List<Integer> fields = new ArrayList<>();
+        for (int field = 0; field < header.size(); field++) {
+            ImportTable.Column column = table.columnFor(header.string(field));
+            if (column == null || columns.contains(column)) {
+                continue;
+            }
+            int position = column.name().equals(table.primaryKey()) ? 0 : columns.size();
+            columns.add(position, column);
+            fields.add(position, field);
+        }
+        if (columns.isEmpty() || !columns.get(0).name().equals(table.primaryKey())) {
+            throw new IllegalArgumentException("CSV header has no " + table.primaryKey() + " column");
+        }
+        return fields.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static String upsertSql(ImportTable table, List<ImportTable.Column> columns, String copyColumns) {
+        String key = quote(table.primaryKey());
+        String updates = columns.stream()
+                .skip(1)
+                .map(c -> quote(c.name()) + " = EXCLUDED." + quote(c.name()))
+                .collect(Collectors.joining(", "));
+        return "INSERT INTO " + quote(table.tableName()) + " (" + copyColumns + ") "
+                + "SELECT DISTINCT ON (" + key + ") " + copyColumns + " FROM import_stage ORDER BY " + key
+                + " ON CONFLICT (" + key + ") "
+                + (updates.isEmpty() ? "DO NOTHING" : "DO UPDATE SET " + updates);
+    }
+
+    private Future<Integer> submit(ExecutorService executor, Semaphore inFlight, ImportTable table,
+                                   String copyColumns, String upsert, StringBuilder chunk) throws InterruptedException {
+        byte[] data = chunk.toString().getBytes(StandardCharsets.UTF_8);
+        inFlight.acquire();
+        return executor.submit(() -> {
+            try {
+                return load(table, copyColumns, upsert, data);
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    private int load(ImportTable table, String copyColumns, String upsert, byte[] data)
+            throws SQLException, IOException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TEMP TABLE import_stage (LIKE " + quote(table.tableName())
+                        + " INCLUDING DEFAULTS) ON COMMIT DROP");
+                connection.unwrap(PGConnection.class).getCopyAPI().copyIn(
+                        "COPY import_stage (" + copyColumns + ") FROM STDIN", new ByteArrayInputStream(data));
+                int upserted = statement.executeUpdate(upsert);
+                connection.commit();
+                return upserted;
+            } catch (SQLException | IOException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Move the identity sequence past the imported keys so JPA inserts do not collide
+     */
+    private void syncIdentity(ImportTable table) {
+        String sql = "SELECT setval(pg_get_serial_sequence('" + table.tableName() + "', '" + table.primaryKey()
+                + "'), MAX(" + quote(table.primaryKey()) + ")) FROM " + quote(table.tableName())
+                + " HAVING MAX(" + quote(table.primaryKey()) + ") IS NOT NULL";
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        } catch (SQLException e) {
+            log.warn("Could not sync the {} key sequence: {}", table.tableName(), e.getMessage());
+        }
+    }
+
+    private static String quote(String identifier) {
+        return '"' + identifier + '"';
+    }
+
+    /**
+     * Load of one chunk, with the CSV record numbers it covers (header excluded, skipped records included)
+     */
+    private record Chunk(long firstRecord, long lastRecord, Future<Integer> rows) {
+    }
+}
@@ -0,0 +1,106 @@
+package com.tweb.anime.importer;
+
+/**
+ * PostgreSQL column types the importer converts CSV fields to
+ *
+ * Each type appends a field in COPY text format: values are escaped,
+ * and empty or unparseable fields ("nan", "Unknown", ...) become NULL.
+ */
+enum ColumnType {
+
+    TEXT {
+        @Override
+        void appendCopyValue(CsvReader row, int field, int maxLength, StringBuilder out) {
+            int length = row.length(field);
+            if (length == 0) {
+                out.append(NULL);
+                return;
+            }
+            int end = maxLength > 0 ? Math.min(length, maxLength) : length;
+            for (int i = 0; i < end; i++) {
+                char c = row.charAt(field, i);
+                switch (c) {
+                    case '\\' -> out.append("\\\\");
+                    case '\t' -> out.append("\\t");
+                    case '\n' -> out.append("\\n");
+                    case '\r' -> out.append("\\r");
+                    default -> out.append(c);
+                }
+            }
+        }
+    },
+
+    INTEGER {
+        @Override
+        void appendCopyValue(CsvReader row, int field, int maxLength, StringBuilder out) {
+            appendWholeNumber(row, field, 9, out);
+        }
+    },
+
+    BIGINT {
+        @Override
+        void appendCopyValue(CsvReader row, int field, int maxLength, StringBuilder out) {
+            appendWholeNumber(row, field, 18, out);
+        }
+    },
+
+    DOUBLE {
+        @Override
+        void appendCopyValue(CsvReader row, int field, int maxLength, StringBuilder out) {
+            if (row.length(field) == 0) {
+                out.append(NULL);
+                return;
+            }
+            try {
+                double value = Double.parseDouble(row.string(field).trim());
+                if (Double.isFinite(value)) {
+                    out.append(value);
+                    return;
+                }
+            } catch (NumberFormatException e) {
+                // Fall through to NULL
+            }
+            out.append(NULL);
+        }
+    };
+
+    static final String NULL = "\\N";
+
+    abstract void appendCopyValue(CsvReader row, int field, int maxLength, StringBuilder out);
+
+    /**
+     * Append digits of an integer field, accepting a zero fraction ("12.0")
+     * as written by pandas for nullable integer columns. Anything else,
+     * including values with more than {@code maxDigits} digits, is NULL.
+     */
+    private static void appendWholeNumber(CsvReader row, int field, int maxDigits, StringBuilder out) {
+        int length = row.length(field);
+        int start = 0;
+        while (start < length && row.charAt(field, start) == ' ') {
+            start++;
+        }
+        int end = length;
+        while (end > start && row.charAt(field, end - 1) == ' ') {
+            end--;
+        }
+        int digitsStart = start < end && row.charAt(field, start) == '-' ? start + 1 : start;
+        int digitsEnd = digitsStart;
+        while (digitsEnd < end && Character.isDigit(row.charAt(field, digitsEnd))) {
+            digitsEnd++;
+        }
+        boolean valid = digitsEnd > digitsStart && digitsEnd - digitsStart <= maxDigits;
+        if (valid && digitsEnd < end) {
+            valid = row.charAt(field, digitsEnd) == '.';
+            for (int i = digitsEnd + 1; valid && i < end; i++) {
+                valid = row.charAt(field, i) == '0';
+            }
+        }
+        if (!valid) {
+            out.append(NULL);
+            return;
+        }
+        for (int i = start; i < digitsEnd; i++) {
+            out.append(row.charAt(field, i));
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.tweb.anime.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Streaming RFC 4180 CSV reader
+ *
+ * Parses one record at a time into a reusable char buffer and exposes
+ * fields as offsets into it, so reading a row allocates nothing unless
+ * a field is explicitly turned into a String. Quoted fields may contain
+ * commas, doubled quotes and line breaks.
+ */
+final class CsvReader implements Closeable {
+
+    private static final int EOF = -1;
+
+    private final Reader in;
+    private final char[] input = new char[64 * 1024];
+    private int position;
+    private int limit;
+
+    private char[] record = new char[4 * 1024];
+    private int length;
+    private int[] starts = new int[64];
+    private int[] ends = new int[64];
+    private int fields;
+    private long records;
+
+    CsvReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * Read the next non-blank record
+     *
+     * @return false at end of input
+     */
+    boolean next() throws IOException {
+        do {
+            if (!readRecord()) {
+                return false;
+            }
+        } while (fields == 1 && length == 0);
+        records++;
+        return true;
+    }
+
+    int size() {
+        return fields;
+    }
+
+    int length(int field) {
+        return ends[field] - starts[field];
+    }
+
+    char charAt(int field, int index) {
+        return record[starts[field] + index];
+    }
+
+    String string(int field) {
+        return new String(record, starts[field], length(field));
+    }
+
+    /**
+     * Number of records returned so far, for error messages
+     */
+    long records() {
+        return records;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private boolean readRecord() throws IOException {
+        fields = 0;
+        length = 0;
+        int c = read();
+        if (c == EOF) {
+            return false;
+        }
+        while (true) {
+            int start = length;
+            if (c == '"') {
+                while (true) {
+                    c = read();
+                    if (c == EOF) {
+                        throw new IOException("Unterminated quoted field in record " + (records + 1));
+                    }
+                    if (c == '"') {
+                        c = read();
+                        if (c != '"') {
+                            break;
+                        }
+                    }
+                    append((char) c);
+                }
+            }
+            // Unquoted field, or stray characters after a closing quote
+            while (c != ',' && c != '\n' && c != '\r' && c != EOF) {
+                append((char) c);
+                c = read();
+            }
+            addField(start, length);
+            if (c == ',') {
+                c = read();
+                continue;
+            }
+            if (c == '\r') {
+                int next = read();
+                if (next != '\n' && next != EOF) {
+                    position--;
+                }
+            }
+            return true;
+        }
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = in.read(input, 0, input.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return EOF;
+            }
+        }
+        return input[position++];
+    }
+
+    private void append(char c) {
+        if (length == record.length) {
+            record = Arrays.copyOf(record, length * 2);
+        }
+        record[length++] = c;
+    }
+
+    private void addField(int start, int end) {
+        if (fields == starts.length) {
+            starts = Arrays.copyOf(starts, fields * 2);
+            ends = Arrays.copyOf(ends, fields * 2);
+        }
+        starts[fields] = start;
+        ends[fields] = end;
+        fields++;
+    }
+}
@@ -0,0 +1,28 @@
+package com.tweb.anime.importer;
+
+/**
+ * Outcome of importing one CSV file
+ *
+ * @param rowsRead     records read from the file, header excluded
+ * @param rowsLoaded   rows inserted or updated in the table
+ * @param rowsSkipped  records without a usable primary key
+ * @param failedChunks chunks rolled back because of a database error
+ */
+public record ImportReport(String table,
+                           long rowsRead,
+                           long rowsLoaded,
+                           long rowsSkipped,
+                           int failedChunks,
+                           long elapsedMillis) {
+
+    /**
+     * Whether every chunk was loaded
+     */
+    public boolean complete() {
+        return failedChunks == 0;
+    }
+
+    public double rowsPerSecond() {
+        return elapsedMillis == 0 ? rowsLoaded : rowsLoaded * 1000.0 / elapsedMillis;
+    }
+}
@@ -0,0 +1,124 @@
+package com.tweb.anime.importer;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Tables the CSV importer can load, with the columns of the matching entity
+ *
+ * CSV headers are matched to columns by name after normalization
+ * ("Image URL", "imageUrl" -> image_url), plus a few aliases used by the
+ * datasets, so files written by the /export endpoints can be re-imported.
+ * Unknown headers are ignored.
+ */
+enum ImportTable {
+
+    DETAILS("details", "mal_id",
+            List.of(
+                    new Column("mal_id", ColumnType.BIGINT, 0),
+                    new Column("title", ColumnType.TEXT, 500),
+                    new Column("title_japanese", ColumnType.TEXT, 500),
+                    new Column("title_english", ColumnType.TEXT, 500),
+                    new Column("type", ColumnType.TEXT, 50),
+                    new Column("source", ColumnType.TEXT, 100),
+                    new Column("episodes", ColumnType.INTEGER, 0),
+                    new Column("status", ColumnType.TEXT, 100),
+                    new Column("aired_from", ColumnType.TEXT, 255),
+                    new Column("aired_to", ColumnType.TEXT, 255),
+                    new Column("duration", ColumnType.TEXT, 100),
+                    new Column("rating", ColumnType.TEXT, 100),
+                    new Column("score", ColumnType.DOUBLE, 0),
+                    new Column("scored_by", ColumnType.INTEGER, 0),
+                    new Column("rank", ColumnType.INTEGER, 0),
+                    new Column("popularity", ColumnType.INTEGER, 0),
+                    new Column("members", ColumnType.INTEGER, 0),
+                    new Column("favorites", ColumnType.INTEGER, 0),
+                    new Column("synopsis", ColumnType.TEXT, 0),
+                    new Column("background", ColumnType.TEXT, 0),
+                    new Column("premiered", ColumnType.TEXT, 100),
+                    new Column("broadcast", ColumnType.TEXT, 100),
+                    new Column("studios", ColumnType.TEXT, 500),
+                    new Column("genres", ColumnType.TEXT, 500),
+                    new Column("url", ColumnType.TEXT, 500),
+                    new Column("image_url", ColumnType.TEXT, 500),
+                    new Column("trailer_url", ColumnType.TEXT, 500)),
+            Map.of("anime_id", "mal_id",
+                    "id", "mal_id",
+                    "start_date", "aired_from",
+                    "end_date", "aired_to")),
+
+    CHARACTERS("characters", "character_id",
+            List.of(
+                    new Column("character_id", ColumnType.BIGINT, 0),
+                    new Column("name", ColumnType.TEXT, 500),
+                    new Column("name_kanji", ColumnType.TEXT, 500),
+                    new Column("url", ColumnType.TEXT, 500),
+                    new Column("image_url", ColumnType.TEXT, 500),
+                    new Column("about", ColumnType.TEXT, 0),
+                    new Column("favorites", ColumnType.INTEGER, 0)),
+            Map.of("character_mal_id", "character_id",
+                    "mal_id", "character_id",
+                    "id", "character_id")),
+
+    PERSON_DETAILS("person_details", "person_id",
+            List.of(
+                    new Column("person_id", ColumnType.BIGINT, 0),
+                    new Column("name", ColumnType.TEXT, 500),
+                    new Column("given_name", ColumnType.TEXT, 500),
+                    new Column("family_name", ColumnType.TEXT, 500),
+                    new Column("birthday", ColumnType.TEXT, 255),
+                    new Column("url", ColumnType.TEXT, 500),
+                    new Column("image_url", ColumnType.TEXT, 500),
+                    new Column("website_url", ColumnType.TEXT, 500),
+                    new Column("favorites", ColumnType.INTEGER, 0),
+                    new Column("about", ColumnType.TEXT, 0)),
+            Map.of("person_mal_id", "person_id",
+                    "mal_id", "person_id",
+                    "id", "person_id"));
+
+    /**
+     * @param maxLength VARCHAR length, longer values are truncated; 0 for unbounded
+     */
+    record Column(String name, ColumnType type, int maxLength) {
+    }
+
+    private final String tableName;
+    private final String primaryKey;
+    private final List<Column> columns;
+    private final Map<String, String> aliases;
+
+    ImportTable(String tableName, String primaryKey, List<Column> columns, Map<String, String> aliases) {
+        this.tableName = tableName;
+        this.primaryKey = primaryKey;
+        this.columns = columns;
+        this.aliases = aliases;
+    }
+
+    String tableName() {
+        return tableName;
+    }
+
+    String primaryKey() {
+        return primaryKey;
+    }
+
+    /**
+     * Column a CSV header maps to, or null if the header is not imported
+     */
+    Column columnFor(String header) {
+        String normalized = header.replace("\uFEFF", "")
+                .trim()
+                .replaceAll("([a-z0-9])([A-Z])", "$1_$2")
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("[^a-z0-9]+", "_")
+                .replaceAll("^_|_$", "");
+        String name = aliases.getOrDefault(normalized, normalized);
+        for (Column column : columns) {
+            if (column.name().equals(name)) {
+                return column;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,165 @@
+package com.tweb.anime.index;
+
+import com.tweb.anime.dto.AnimeFacetRow;
+import com.tweb.anime.dto.IdName;
+import com.tweb.anime.event.CatalogChangeEvent;
+import com.tweb.anime.event.TrackedState;
+import com.tweb.anime.model.Anime;
+import com.tweb.anime.repository.AnimeRepository;
+import com.tweb.anime.repository.GenreRepository;
+import com.tweb.anime.repository.StudioRepository;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Anime Attribute Index
+ *
+ * Type, genre and studio filters served from {@link AttributeBitmaps},
+ * faceted search from a {@link FacetSnapshot} loaded at the same time.
+ * Also keeps the genres/studios lookup and join tables in sync with the
+ * details.genres and details.studios strings when they change: a single
+ * anime when its text differs from the {@link TrackedState} it replaces,
+ * the whole table after a bulk change (only differing links are written).
+ * The link tables are backfilled by the V3 migration with Flyway (prod
+ * profile), or by one full sync when the first load finds them empty
+ * (ddl-auto databases); after that rebuild() only reads.
+ * The bitmaps are reloaded on the next read after a change.
+ */
+@Component
+// Handles bulk events first: it syncs the genre/studio link tables that SimilarAnimeIndex reads
+@Order(0)
+public class AnimeAttributeIndex implements CatalogIndex {
+
+    private final AnimeRepository animeRepository;
+    private final GenreRepository genreRepository;
+    private final StudioRepository studioRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile Snapshot snapshot;
+    private volatile boolean stale = true;
+    /** Whether the first load checked the link tables, guarded by lock */
+    private boolean backfilled;
+
+    public AnimeAttributeIndex(AnimeRepository animeRepository,
+                               GenreRepository genreRepository,
+                               StudioRepository studioRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.animeRepository = animeRepository;
+        this.genreRepository = genreRepository;
+        this.studioRepository = studioRepository;
+        // Change events arrive after the writing transaction committed
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * @see AttributeBitmaps#filter(Collection, boolean, Collection, String)
+     */
+    public long[] filter(Collection<String> genres, boolean allGenres, Collection<String> studios, String type) {
+        return current().bitmaps().filter(genres, allGenres, studios, type);
+    }
+
+    /**
+     * @see FacetSnapshot#search(Map, boolean, double, double, long[], int)
+     */
+    public FacetSnapshot.Result facetSearch(Map<String, ? extends Collection<String>> selected, boolean allGenres,
+                                            double minScore, double maxScore, long[] restrictTo, int facetLimit) {
+        return current().facets().search(selected, allGenres, minScore, maxScore, restrictTo, facetLimit);
+    }
+
+    @Override
+    public String name() {
+        return "anime-attributes";
+    }
+
+    @Override
+    public void rebuild() {
+        lock.lock();
+        try {
+            load();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        if (!event.concerns(Anime.class)) {
+            return;
+        }
+        if (event.isBulk()) {
+            syncTags(Long.MIN_VALUE, Long.MAX_VALUE);
+        } else if (event.kind() != CatalogChangeEvent.Kind.DELETED && tagsChanged(event)) {
+            long id = (Long) event.id();
+            syncTags(id, id);
+        }
+        stale = true;
+    }
+
+    private static boolean tagsChanged(CatalogChangeEvent event) {
+        TrackedState previous = event.previous();
+        Anime anime = (Anime) event.entity();
+        return previous == null
+                || !Objects.equals(previous.genres(), anime.getGenres())
+                || !Objects.equals(previous.studios(), anime.getStudios());
+    }
+
+    private void syncTags(long first, long last) {
+        transactionTemplate.executeWithoutResult(status -> {
+            genreRepository.insertMissingNames(first, last);
+            genreRepository.unlinkStale(first, last);
+            genreRepository.linkMissing(first, last);
+            studioRepository.insertMissingNames(first, last);
+            studioRepository.unlinkStale(first, last);
+            studioRepository.linkMissing(first, last);
+        });
+    }
+
+    private void load() {
+        if (!backfilled) {
+            if (!genreRepository.hasLinks() || !studioRepository.hasLinks()) {
+                syncTags(Long.MIN_VALUE, Long.MAX_VALUE);
+            }
+            backfilled = true;
+        }
+        // Cleared before loading so a write during the load triggers another one
+        stale = false;
+        // Read-write transaction: one consistent read on the primary, which has the links of the latest sync
+        snapshot = transactionTemplate.execute(status -> {
+            List<AnimeFacetRow> rows = animeRepository.findFacetRows();
+            List<IdName> genres = genreRepository.findAnimeGenres();
+            List<IdName> studios = studioRepository.findAnimeStudios();
+            List<IdName> types = rows.stream().map(row -> new IdName(row.malId(), row.type())).toList();
+            return new Snapshot(AttributeBitmaps.build(types, genres, studios),
+                    FacetSnapshot.build(rows, genres, studios));
+        });
+    }
+
+    private Snapshot current() {
+        if (stale || snapshot == null) {
+            lock.lock();
+            try {
+                if (stale || snapshot == null) {
+                    load();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return snapshot;
+    }
+
+    private record Snapshot(AttributeBitmaps bitmaps, FacetSnapshot facets) {
+    }
+}
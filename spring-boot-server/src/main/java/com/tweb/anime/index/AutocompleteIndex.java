@@ -0,0 +1,90 @@
+package com.tweb.anime.index;
+
+import com.tweb.anime.dto.AnimeTitles;
+import com.tweb.anime.dto.Suggestion;
+import com.tweb.anime.dto.WeightedName;
+import com.tweb.anime.event.CatalogChangeEvent;
+import com.tweb.anime.model.Anime;
+import com.tweb.anime.model.Character;
+import com.tweb.anime.model.Person;
+import com.tweb.anime.repository.AnimeRepository;
+import com.tweb.anime.repository.CharacterRepository;
+import com.tweb.anime.repository.PersonRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Autocomplete Index
+ *
+ * Prefix suggestions for anime titles (romaji, English and Japanese),
+ * character names and person names, from one {@link PrefixSuggester} each.
+ * Anime rank by popularity, characters and people by favorites. A write
+ * marks the affected suggester stale, it is rebuilt on the next lookup.
+ */
+@Component
+public class AutocompleteIndex implements CatalogIndex {
+
+    private final LazySnapshot<PrefixSuggester> anime;
+    private final LazySnapshot<PrefixSuggester> characters;
+    private final LazySnapshot<PrefixSuggester> people;
+
+    public AutocompleteIndex(AnimeRepository animeRepository,
+                             CharacterRepository characterRepository,
+                             PersonRepository personRepository) {
+        this.anime = new LazySnapshot<>(() -> PrefixSuggester.build(animeNames(animeRepository.findAllTitleVariants())));
+        this.characters = new LazySnapshot<>(() -> PrefixSuggester.build(characterRepository.findAllWeightedNames()));
+        this.people = new LazySnapshot<>(() -> PrefixSuggester.build(personRepository.findAllWeightedNames()));
+    }
+
+    public List<Suggestion> suggestAnime(String prefix, int limit) {
+        return anime.current().suggest(prefix, limit);
+    }
+
+    public List<Suggestion> suggestCharacters(String prefix, int limit) {
+        return characters.current().suggest(prefix, limit);
+    }
+
+    public List<Suggestion> suggestPeople(String prefix, int limit) {
+        return people.current().suggest(prefix, limit);
+    }
+
+    @Override
+    public String name() {
+        return "autocomplete";
+    }
+
+    @Override
+    public void rebuild() {
+        anime.rebuild();
+        characters.rebuild();
+        people.rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        if (event.concerns(Anime.class)) {
+            anime.invalidate();
+        } else if (event.concerns(Character.class)) {
+            characters.invalidate();
+        } else if (event.concerns(Person.class)) {
+            people.invalidate();
+        }
+    }
+
+    /**
+     * One row per title, weighted so that popularity rank 1 comes first
+     */
+    static List<WeightedName> animeNames(List<AnimeTitles> rows) {
+        List<WeightedName> names = new ArrayList<>(rows.size() * 2);
+        for (AnimeTitles row : rows) {
+            Long weight = row.popularity() == null ? null : -row.popularity().longValue();
+            names.add(new WeightedName(row.malId(), row.title(), weight));
+            names.add(new WeightedName(row.malId(), row.titleEnglish(), weight));
+            names.add(new WeightedName(row.malId(), row.titleJapanese(), weight));
+        }
+        return names;
+    }
+}
@@ -0,0 +1,137 @@
+package com.tweb.anime.index;
+
+import com.tweb.anime.dto.TypeCount;
+import com.tweb.anime.event.CatalogChangeEvent;
+import com.tweb.anime.event.TrackedState;
+import com.tweb.anime.model.Anime;
+import com.tweb.anime.model.Character;
+import com.tweb.anime.model.Person;
+import com.tweb.anime.repository.AnimeRepository;
+import com.tweb.anime.repository.CharacterRepository;
+import com.tweb.anime.repository.PersonRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Catalog Counters
+ *
+ * Exact row counts for the /count endpoints without a COUNT(*) per request:
+ * totals, rows with images and anime per type. Seeded at startup, moved
+ * by catalog change events and reconciled against the database on a
+ * fixed delay (catalog.counters.reconcile-interval) to repair any drift.
+ */
+@Component
+public class CatalogCounters implements CatalogIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogCounters.class);
+
+    private final EntityCounts anime;
+    private final EntityCounts characters;
+    private final EntityCounts people;
+
+    public CatalogCounters(AnimeRepository animeRepository,
+                           CharacterRepository characterRepository,
+                           PersonRepository personRepository) {
+        this.anime = new EntityCounts(animeRepository::countByType);
+        this.characters = new EntityCounts(() -> List.of(
+                new TypeCount(null, characterRepository.count(), characterRepository.countByImageUrlIsNotNull())));
+        this.people = new EntityCounts(() -> List.of(
+                new TypeCount(null, personRepository.count(), personRepository.countByImageUrlIsNotNull())));
+    }
+
+    /**
+     * @param withImages only rows with an image
+     * @param type       only anime of this type, null for all
+     */
+    public long countAnime(boolean withImages, String type) {
+        if (type != null) {
+            return anime.ofType(type, withImages);
+        }
+        return withImages ? anime.withImages() : anime.total();
+    }
+
+    public Map<String, Long> countAnimeByType() {
+        return anime.totalsByType();
+    }
+
+    public long countCharacters(boolean withImages) {
+        return withImages ? characters.withImages() : characters.total();
+    }
+
+    public long countPeople(boolean withImages) {
+        return withImages ? people.withImages() : people.total();
+    }
+
+    @Override
+    public String name() {
+        return "counters";
+    }
+
+    @Override
+    public void rebuild() {
+        anime.reload();
+        characters.reload();
+        people.reload();
+    }
+
+    @Scheduled(initialDelayString = "${catalog.counters.reconcile-interval:PT10M}",
+               fixedDelayString = "${catalog.counters.reconcile-interval:PT10M}")
+    public void reconcile() {
+        reconcile("anime", anime);
+        reconcile("character", characters);
+        reconcile("person", people);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        if (event.concerns(Anime.class)) {
+            apply(anime, event, event.entity() instanceof Anime a ? a.getType() : null,
+                    event.entity() instanceof Anime a && a.getImageUrl() != null);
+        } else if (event.concerns(Character.class)) {
+            apply(characters, event, null, event.entity() instanceof Character c && c.getImageUrl() != null);
+        } else if (event.concerns(Person.class)) {
+            apply(people, event, null, event.entity() instanceof Person p && p.getImageUrl() != null);
+        }
+    }
+
+    private static void apply(EntityCounts counts, CatalogChangeEvent event, String type, boolean hasImage) {
+        if (event.isBulk()) {
+            counts.invalidate();
+            return;
+        }
+        TrackedState previous = event.previous();
+        switch (event.kind()) {
+            case CREATED -> counts.created(type, hasImage);
+            case DELETED -> {
+                if (previous != null) {
+                    counts.deleted(previous.type(), previous.hasImage());
+                } else {
+                    counts.deleted(type, hasImage);
+                }
+            }
+            default -> {
+                if (previous != null) {
+                    counts.updated(previous.type(), previous.hasImage(), type, hasImage);
+                } else {
+                    counts.updated();
+                }
+            }
+        }
+    }
+
+    private static void reconcile(String name, EntityCounts counts) {
+        try {
+            if (counts.reload()) {
+                log.info("Reconciled {} counts with the database", name);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not reconcile {} counts: {}", name, e.getMessage());
+        }
+    }
+}
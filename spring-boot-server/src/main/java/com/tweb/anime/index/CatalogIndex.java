@@ -0,0 +1,20 @@
+package com.tweb.anime.index;
+
+/**
+ * In-memory index over catalog data
+ *
+ * Implementations are rebuilt from PostgreSQL at startup by
+ * {@link CatalogIndexLoader} and kept in sync through catalog change events.
+ */
+public interface CatalogIndex {
+
+    /**
+     * Short name used in logs
+     */
+    String name();
+
+    /**
+     * Reload the whole index from the database
+     */
+    void rebuild();
+}
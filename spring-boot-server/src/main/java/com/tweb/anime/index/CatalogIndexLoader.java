@@ -0,0 +1,37 @@
+package com.tweb.anime.index;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Builds every {@link CatalogIndex}, as the first stage of the startup
+ * warm-up ({@link com.tweb.anime.warmup.CatalogWarmup})
+ *
+ * A failed build is only logged: indexes load themselves lazily on first use.
+ */
+@Component
+public class CatalogIndexLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogIndexLoader.class);
+
+    private final List<CatalogIndex> indexes;
+
+    public CatalogIndexLoader(List<CatalogIndex> indexes) {
+        this.indexes = indexes;
+    }
+
+    public void loadAll() {
+        for (CatalogIndex index : indexes) {
+            long start = System.nanoTime();
+            try {
+                index.rebuild();
+                log.info("Built {} index in {} ms", index.name(), (System.nanoTime() - start) / 1_000_000);
+            } catch (RuntimeException e) {
+                log.warn("Could not build {} index at startup: {}", index.name(), e.getMessage());
+            }
+        }
+    }
+}
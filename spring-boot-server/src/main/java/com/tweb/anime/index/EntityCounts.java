@@ -0,0 +1,218 @@
+package com.tweb.anime.index;
+
+import com.tweb.anime.dto.TypeCount;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Entity Counts
+ *
+ * In-memory row counts of one entity type: total, with images, and per
+ * type. Seeded from the loader, then moved by creates, deletes and
+ * updates (from the type and image they replaced). Deltas and reloads
+ * take the same lock. A write that arrives while a reload is reading may
+ * or may not be in what it reads, so instead of applying it the counts
+ * are marked stale, as they are for updates whose previous values are
+ * unknown and for bulk changes; stale counts are reloaded on the next read.
+ */
+class EntityCounts {
+
+    private final Supplier<List<TypeCount>> loader;
+
+    private final Tally all = new Tally();
+    private final Map<String, Tally> byType = new ConcurrentHashMap<>();
+
+    // Held across a whole reload (JDBC, so not a monitor: that would pin virtual threads),
+    // taken before this object's monitor, which only guards in-memory updates
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    private volatile boolean seeded;
+    private volatile boolean stale;
+    // Guarded by this
+    private boolean reloading;
+
+    /**
+     * @param loader exact counts from the database, one row per type (type may be null)
+     */
+    EntityCounts(Supplier<List<TypeCount>> loader) {
+        this.loader = loader;
+    }
+
+    long total() {
+        ensureFresh();
+        return all.total.get();
+    }
+
+    long withImages() {
+        ensureFresh();
+        return all.withImages.get();
+    }
+
+    long ofType(String type, boolean withImages) {
+        ensureFresh();
+        Tally tally = byType.get(type);
+        if (tally == null) {
+            return 0;
+        }
+        return withImages ? tally.withImages.get() : tally.total.get();
+    }
+
+    Map<String, Long> totalsByType() {
+        ensureFresh();
+        Map<String, Long> totals = new TreeMap<>();
+        byType.forEach((type, tally) -> {
+            if (tally.total.get() > 0) {
+                totals.put(type, tally.total.get());
+            }
+        });
+        return totals;
+    }
+
+    void created(String type, boolean hasImage) {
+        add(type, hasImage, 1);
+    }
+
+    void deleted(String type, boolean hasImage) {
+        add(type, hasImage, -1);
+    }
+
+    /**
+     * Move a row from its previous type/image to its current one
+     */
+    void updated(String previousType, boolean previousHasImage, String type, boolean hasImage) {
+        if (Objects.equals(previousType, type) && previousHasImage == hasImage) {
+            return;
+        }
+        synchronized (this) {
+            if (!apply(previousType, previousHasImage, -1)) {
+                return;
+            }
+            apply(type, hasImage, 1);
+        }
+    }
+
+    /**
+     * An update whose previous values are unknown
+     */
+    void updated() {
+        stale = true;
+    }
+
+    /**
+     * After a bulk change: reload on the next read, without reporting it as drift
+     */
+    synchronized void invalidate() {
+        seeded = false;
+        stale = true;
+    }
+
+    /**
+     * Replace every count with the database's
+     *
+     * @return whether the in-memory totals had drifted
+     */
+    boolean reload() {
+        reloadLock.lock();
+        try {
+            synchronized (this) {
+                // Cleared before loading so a write during the load triggers another one
+                stale = false;
+                reloading = true;
+            }
+            List<TypeCount> rows;
+            try {
+                rows = loader.get();
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    reloading = false;
+                    stale = true;
+                }
+                throw e;
+            }
+            return replace(rows);
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private synchronized boolean replace(List<TypeCount> rows) {
+        reloading = false;
+        long total = 0;
+        long withImages = 0;
+        Map<String, Tally> loaded = new ConcurrentHashMap<>();
+        for (TypeCount row : rows) {
+            total += row.total();
+            withImages += row.withImages();
+            if (row.type() != null) {
+                Tally tally = loaded.computeIfAbsent(row.type(), t -> new Tally());
+                tally.total.addAndGet(row.total());
+                tally.withImages.addAndGet(row.withImages());
+            }
+        }
+        boolean drifted = seeded && (all.total.get() != total || all.withImages.get() != withImages);
+        all.total.set(total);
+        all.withImages.set(withImages);
+        byType.keySet().retainAll(loaded.keySet());
+        loaded.forEach((type, tally) -> byType.merge(type, tally, (current, fresh) -> {
+            current.total.set(fresh.total.get());
+            current.withImages.set(fresh.withImages.get());
+            return current;
+        }));
+        seeded = true;
+        return drifted;
+    }
+
+    private synchronized void add(String type, boolean hasImage, long delta) {
+        apply(type, hasImage, delta);
+    }
+
+    /**
+     * @return false when the delta was not applied: not seeded yet, or left to the next reload
+     */
+    private boolean apply(String type, boolean hasImage, long delta) {
+        if (!seeded) {
+            return false;
+        }
+        if (reloading) {
+            stale = true;
+            return false;
+        }
+        all.total.addAndGet(delta);
+        if (hasImage) {
+            all.withImages.addAndGet(delta);
+        }
+        if (type != null) {
+            Tally tally = byType.computeIfAbsent(type, t -> new Tally());
+            tally.total.addAndGet(delta);
+            if (hasImage) {
+                tally.withImages.addAndGet(delta);
+            }
+        }
+        return true;
+    }
+
+    private void ensureFresh() {
+        if (!seeded || stale) {
+            reloadLock.lock();
+            try {
+                if (!seeded || stale) {
+                    reload();
+                }
+            } finally {
+                reloadLock.unlock();
+            }
+        }
+    }
+
+    private static final class Tally {
+        final AtomicLong total = new AtomicLong();
+        final AtomicLong withImages = new AtomicLong();
+    }
+}
@@ -0,0 +1,418 @@
+package com.tweb.anime.index;
+
+import com.tweb.anime.dto.AnimeFacetRow;
+import com.tweb.anime.dto.FacetCount;
+import com.tweb.anime.dto.IdName;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * Facet Snapshot
+ *
+ * Immutable columnar copy of the anime facet fields over ordinals (position
+ * of the MAL ID in ascending order). Single-valued fields are dictionary
+ * codes in an int[], genres and studios are offset/code arrays, score is a
+ * float[]. A search evaluates each active filter once into a bitmap; hits
+ * are the AND of all of them, and each facet is counted column by column
+ * over the AND of every filter except its own (disjunctive counts), so
+ * values outside the current selection keep their counts.
+ */
+public final class FacetSnapshot {
+
+    public static final String TYPE = "type";
+    public static final String STATUS = "status";
+    public static final String SOURCE = "source";
+    public static final String RATING = "rating";
+    public static final String GENRE = "genre";
+    public static final String STUDIO = "studio";
+    public static final String PREMIERED = "premiered";
+    public static final String SCORE = "score";
+
+    private static final int SCORE_BUCKETS = 11;
+
+    private final long[] ids;
+    private final float[] scores;
+    private final Facet[] facets;
+
+    private FacetSnapshot(long[] ids, float[] scores, Facet[] facets) {
+        this.ids = ids;
+        this.scores = scores;
+        this.facets = facets;
+    }
+
+    /**
+     * @param rows    facet columns of every anime
+     * @param genres  (MAL ID, genre name) pairs
+     * @param studios (MAL ID, studio name) pairs
+     */
+    public static FacetSnapshot build(List<AnimeFacetRow> rows, List<IdName> genres, List<IdName> studios) {
+        List<AnimeFacetRow> sorted = new ArrayList<>(rows);
+        sorted.sort(Comparator.comparing(AnimeFacetRow::malId));
+        int n = sorted.size();
+        long[] ids = new long[n];
+        float[] scores = new float[n];
+        Dictionary types = new Dictionary();
+        Dictionary statuses = new Dictionary();
+        Dictionary sources = new Dictionary();
+        Dictionary ratings = new Dictionary();
+        Dictionary premiered = new Dictionary();
+        int[] typeCodes = new int[n];
+        int[] statusCodes = new int[n];
+        int[] sourceCodes = new int[n];
+        int[] ratingCodes = new int[n];
+        int[] premieredCodes = new int[n];
+
+        for (int i = 0; i < n; i++) {
+            AnimeFacetRow row = sorted.get(i);
+            ids[i] = row.malId();
+            scores[i] = row.score() == null ? Float.NaN : row.score().floatValue();
+            typeCodes[i] = types.code(row.type());
+            statusCodes[i] = statuses.code(row.status());
+            sourceCodes[i] = sources.code(row.source());
+            ratingCodes[i] = ratings.code(row.rating());
+            premieredCodes[i] = premiered.code(row.premiered());
+        }
+
+        Facet[] facets = {
+                new SingleFacet(TYPE, types.values(), typeCodes),
+                new SingleFacet(STATUS, statuses.values(), statusCodes),
+                new SingleFacet(SOURCE, sources.values(), sourceCodes),
+                new SingleFacet(RATING, ratings.values(), ratingCodes),
+                MultiFacet.of(GENRE, ids, genres),
+                MultiFacet.of(STUDIO, ids, studios),
+                new SingleFacet(PREMIERED, premiered.values(), premieredCodes),
+                new ScoreFacet(scores)
+        };
+        return new FacetSnapshot(ids, scores, facets);
+    }
+
+    /**
+     * Run a faceted search
+     *
+     * @param selected   selected values per facet name, values within a facet are OR'ed
+     *                   (score values are the bucket names)
+     * @param allGenres  genres are AND'ed instead
+     * @param minScore   lower score bound, NaN for none
+     * @param maxScore   upper score bound, NaN for none
+     * @param restrictTo only consider these MAL IDs (e.g. title search hits), null for all
+     * @param facetLimit values returned per facet, highest counts first
+     */
+    public Result search(Map<String, ? extends Collection<String>> selected, boolean allGenres,
+                         double minScore, double maxScore, long[] restrictTo, int facetLimit) {
+        IntPredicate[] filters = new IntPredicate[facets.length];
+        int[][] counts = new int[facets.length][];
+        for (int f = 0; f < facets.length; f++) {
+            Collection<String> values = selected.get(facets[f].name());
+            if (values != null && !values.isEmpty()) {
+                filters[f] = facets[f].filter(values, allGenres);
+            }
+            counts[f] = new int[facets[f].size()];
+        }
+        int scoreFacet = facets.length - 1;
+        if (!Double.isNaN(minScore) || !Double.isNaN(maxScore)) {
+            float min = Double.isNaN(minScore) ? Float.NEGATIVE_INFINITY : (float) minScore;
+            float max = Double.isNaN(maxScore) ? Float.POSITIVE_INFINITY : (float) maxScore;
+            IntPredicate range = doc -> scores[doc] >= min && scores[doc] <= max;
+            filters[scoreFacet] = filters[scoreFacet] == null ? range : filters[scoreFacet].and(range);
+        }
+
+        BitSet candidates = new BitSet(ids.length);
+        if (restrictTo == null) {
+            candidates.set(0, ids.length);
+        } else {
+            for (long id : restrictTo) {
+                int doc = Arrays.binarySearch(ids, id);
+                if (doc >= 0) {
+                    candidates.set(doc);
+                }
+            }
+        }
+        BitSet[] passing = new BitSet[facets.length];
+        BitSet hits = (BitSet) candidates.clone();
+        for (int f = 0; f < facets.length; f++) {
+            if (filters[f] != null) {
+                passing[f] = matching(candidates, filters[f]);
+                hits.and(passing[f]);
+            }
+        }
+        for (int f = 0; f < facets.length; f++) {
+            BitSet counted = hits;
+            if (passing[f] != null) {
+                counted = (BitSet) candidates.clone();
+                for (int g = 0; g < facets.length; g++) {
+                    if (g != f && passing[g] != null) {
+                        counted.and(passing[g]);
+                    }
+                }
+            }
+            facets[f].count(counted, counts[f]);
+        }
+
+        long[] matches = new long[hits.cardinality()];
+        int n = 0;
+        for (int doc = hits.nextSetBit(0); doc >= 0; doc = hits.nextSetBit(doc + 1)) {
+            matches[n++] = ids[doc];
+        }
+        Map<String, List<FacetCount>> facetCounts = new LinkedHashMap<>();
+        for (int f = 0; f < facets.length; f++) {
+            facetCounts.put(facets[f].name(), facets[f].top(counts[f], facetLimit));
+        }
+        return new Result(matches, facetCounts);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    private static BitSet matching(BitSet candidates, IntPredicate filter) {
+        BitSet passing = new BitSet(candidates.length());
+        for (int doc = candidates.nextSetBit(0); doc >= 0; doc = candidates.nextSetBit(doc + 1)) {
+            if (filter.test(doc)) {
+                passing.set(doc);
+            }
+        }
+        return passing;
+    }
+
+    /**
+     * @param ids    matching MAL IDs, ascending
+     * @param facets counts per facet, in facet order
+     */
+    public record Result(long[] ids, Map<String, List<FacetCount>> facets) {
+    }
+
+    private static String key(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private abstract static class Facet {
+
+        private final String name;
+        final String[] values;
+        private final Map<String, Integer> codes = new HashMap<>();
+
+        Facet(String name, String[] values) {
+            this.name = name;
+            this.values = values;
+            for (int code = 0; code < values.length; code++) {
+                codes.put(key(values[code]), code);
+            }
+        }
+
+        String name() {
+            return name;
+        }
+
+        int size() {
+            return values.length;
+        }
+
+        abstract void count(BitSet docs, int[] counts);
+
+        abstract IntPredicate filter(boolean[] selected, int selectedCount, boolean all);
+
+        IntPredicate filter(Collection<String> names, boolean allGenres) {
+            boolean[] selected = new boolean[values.length];
+            int selectedCount = 0;
+            boolean unknown = false;
+            for (String name : names) {
+                Integer code = codes.get(key(name));
+                if (code == null) {
+                    unknown = true;
+                } else if (!selected[code]) {
+                    selected[code] = true;
+                    selectedCount++;
+                }
+            }
+            boolean all = allGenres && GENRE.equals(this.name);
+            if (all && unknown || selectedCount == 0) {
+                return doc -> false;
+            }
+            return filter(selected, selectedCount, all);
+        }
+
+        List<FacetCount> top(int[] counts, int limit) {
+            List<FacetCount> top = new ArrayList<>();
+            for (int code = 0; code < counts.length; code++) {
+                if (counts[code] > 0) {
+                    top.add(new FacetCount(values[code], counts[code]));
+                }
+            }
+            top.sort(Comparator.comparingInt(FacetCount::count).reversed().thenComparing(FacetCount::value));
+            return top.size() > limit ? List.copyOf(top.subList(0, limit)) : top;
+        }
+    }
+
+    private static final class SingleFacet extends Facet {
+
+        private final int[] codes;
+
+        SingleFacet(String name, String[] values, int[] codes) {
+            super(name, values);
+            this.codes = codes;
+        }
+
+        @Override
+        void count(BitSet docs, int[] counts) {
+            for (int doc = docs.nextSetBit(0); doc >= 0; doc = docs.nextSetBit(doc + 1)) {
+                int code = codes[doc];
+                if (code >= 0) {
+                    counts[code]++;
+                }
+            }
+        }
+
+        @Override
+        IntPredicate filter(boolean[] selected, int selectedCount, boolean all) {
+            return doc -> codes[doc] >= 0 && selected[codes[doc]];
+        }
+    }
+
+    private static final class MultiFacet extends Facet {
+
+        private final int[] offsets;
+        private final int[] codes;
+
+        private MultiFacet(String name, String[] values, int[] offsets, int[] codes) {
+            super(name, values);
+            this.offsets = offsets;
+            this.codes = codes;
+        }
+
+        static MultiFacet of(String name, long[] ids, List<IdName> pairs) {
+            Dictionary dictionary = new Dictionary();
+            int[] perDoc = new int[ids.length];
+            int[] docs = new int[pairs.size()];
+            int[] pairCodes = new int[pairs.size()];
+            int kept = 0;
+            for (IdName pair : pairs) {
+                int doc = Arrays.binarySearch(ids, pair.id());
+                int code = dictionary.code(pair.name());
+                if (doc >= 0 && code >= 0) {
+                    docs[kept] = doc;
+                    pairCodes[kept++] = code;
+                    perDoc[doc]++;
+                }
+            }
+            int[] offsets = new int[ids.length + 1];
+            for (int doc = 0; doc < ids.length; doc++) {
+                offsets[doc + 1] = offsets[doc] + perDoc[doc];
+            }
+            int[] codes = new int[kept];
+            int[] next = Arrays.copyOf(offsets, ids.length);
+            for (int i = 0; i < kept; i++) {
+                codes[next[docs[i]]++] = pairCodes[i];
+            }
+            return new MultiFacet(name, dictionary.values(), offsets, codes);
+        }
+
+        @Override
+        void count(BitSet docs, int[] counts) {
+            for (int doc = docs.nextSetBit(0); doc >= 0; doc = docs.nextSetBit(doc + 1)) {
+                for (int i = offsets[doc]; i < offsets[doc + 1]; i++) {
+                    counts[codes[i]]++;
+                }
+            }
+        }
+
+        @Override
+        IntPredicate filter(boolean[] selected, int selectedCount, boolean all) {
+            return doc -> {
+                int found = 0;
+                for (int i = offsets[doc]; i < offsets[doc + 1]; i++) {
+                    if (selected[codes[i]]) {
+                        if (!all) {
+                            return true;
+                        }
+                        found++;
+                    }
+                }
+                return all && found == selectedCount;
+            };
+        }
+    }
+
+    /**
+     * Score counted in whole-point buckets "0" to "10", filtered by range instead of values.
+     * Buckets are listed from the highest score down, not by count
+     */
+    private static final class ScoreFacet extends Facet {
+
+        private final float[] scores;
+
+        ScoreFacet(float[] scores) {
+            super(SCORE, bucketNames());
+            this.scores = scores;
+        }
+
+        private static String[] bucketNames() {
+            String[] names = new String[SCORE_BUCKETS];
+            for (int i = 0; i < SCORE_BUCKETS; i++) {
+                names[i] = String.valueOf(i);
+            }
+            return names;
+        }
+
+        @Override
+        void count(BitSet docs, int[] counts) {
+            for (int doc = docs.nextSetBit(0); doc >= 0; doc = docs.nextSetBit(doc + 1)) {
+                float score = scores[doc];
+                if (!Float.isNaN(score)) {
+                    counts[Math.max(0, Math.min(SCORE_BUCKETS - 1, (int) score))]++;
+                }
+            }
+        }
+
+        @Override
+        IntPredicate filter(boolean[] selected, int selectedCount, boolean all) {
+            return doc -> {
+                float score = scores[doc];
+                return !Float.isNaN(score) && selected[Math.max(0, Math.min(SCORE_BUCKETS - 1, (int) score))];
+            };
+        }
+
+        @Override
+        List<FacetCount> top(int[] counts, int limit) {
+            List<FacetCount> buckets = new ArrayList<>();
+            for (int bucket = SCORE_BUCKETS - 1; bucket >= 0; bucket--) {
+                if (counts[bucket] > 0 && buckets.size() < limit) {
+                    buckets.add(new FacetCount(values[bucket], counts[bucket]));
+                }
+            }
+            return buckets;
+        }
+    }
+
+    /**
+     * Case-insensitive string dictionary, keeps the first spelling seen
+     */
+    private static final class Dictionary {
+
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int code(String value) {
+            if (value == null || value.isBlank()) {
+                return -1;
+            }
+            return codes.computeIfAbsent(key(value), k -> {
+                values.add(value.trim());
+                return values.size() - 1;
+            });
+        }
+
+        String[] values() {
+            return values.toArray(String[]::new);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.tweb.anime.index;
+
+import com.tweb.anime.dto.IdText;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Full-Text Corpus
+ *
+ * An {@link InvertedIndex} over the texts of one entity type plus a small
+ * overlay of documents written since the last build, analyzed into term
+ * frequencies. Overlay documents are scored with the collection
+ * statistics of the base index and merged into its ranking, so writes are
+ * searchable immediately. Past {@link #MAX_PENDING} entries the overlay
+ * is folded into a fresh index by {@link #foldIfLarge()}, which a
+ * background job calls, so writers never wait for a build.
+ */
+public class FullTextCorpus {
+
+    private static final int MAX_PENDING = 1_000;
+
+    private final Supplier<List<IdText>> loader;
+    private final Map<Long, Optional<Document>> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile InvertedIndex base;
+
+    /**
+     * @param loader returns every (id, text) pair
+     */
+    public FullTextCorpus(Supplier<List<IdText>> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * @return the best {@code limit} documents for {@code query}, highest BM25 score first
+     */
+    public InvertedIndex.Hits search(String query, int limit) {
+        InvertedIndex index = current();
+        if (pending.isEmpty()) {
+            return index.search(query, limit, id -> false);
+        }
+
+        Map<Long, Optional<Document>> overlay = new HashMap<>(pending);
+        InvertedIndex.Hits fromBase = index.search(query, limit, overlay::containsKey);
+        Set<String> terms = InvertedIndex.terms(query);
+        List<Scored> merged = new ArrayList<>(fromBase.ids().length + overlay.size());
+        for (int i = 0; i < fromBase.ids().length; i++) {
+            merged.add(new Scored(fromBase.ids()[i], fromBase.scores()[i]));
+        }
+        int total = fromBase.total();
+        for (Map.Entry<Long, Optional<Document>> entry : overlay.entrySet()) {
+            double score = entry.getValue().map(document -> document.score(terms, index)).orElse(0.0);
+            if (score > 0) {
+                merged.add(new Scored(entry.getKey(), score));
+                total++;
+            }
+        }
+        merged.sort((a, b) -> a.score() != b.score() ? Double.compare(b.score(), a.score()) : Long.compare(a.id(), b.id()));
+
+        int size = Math.min(limit, merged.size());
+        long[] ids = new long[size];
+        double[] scores = new double[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = merged.get(i).id();
+            scores[i] = merged.get(i).score();
+        }
+        return new InvertedIndex.Hits(ids, scores, total);
+    }
+
+    public void put(long id, String text) {
+        pending.put(id, Optional.of(Document.of(text)));
+    }
+
+    public void remove(long id) {
+        pending.put(id, Optional.empty());
+    }
+
+    public void rebuild() {
+        lock.lock();
+        try {
+            Map<Long, Optional<Document>> folded = new HashMap<>(pending);
+            List<IdText> rows = loader.get();
+            long[] ids = new long[rows.size()];
+            String[] texts = new String[rows.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = rows.get(i).id();
+                texts[i] = rows.get(i).text();
+            }
+            base = InvertedIndex.build(ids, texts);
+            // Entries rewritten while loading stay in the overlay
+            folded.forEach(pending::remove);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        InvertedIndex current = base;
+        return current == null ? 0 : current.size();
+    }
+
+    private InvertedIndex current() {
+        InvertedIndex current = base;
+        if (current == null) {
+            lock.lock();
+            try {
+                if (base == null) {
+                    rebuild();
+                }
+                current = base;
+            } finally {
+                lock.unlock();
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Rebuilds when the overlay grew past {@link #MAX_PENDING} entries; searches keep
+     * using the previous index and the overlay meanwhile
+     *
+     * @return whether it rebuilt
+     */
+    public boolean foldIfLarge() {
+        if (pending.size() <= MAX_PENDING) {
+            return false;
+        }
+        rebuild();
+        return true;
+    }
+
+    private record Scored(long id, double score) {
+    }
+
+    private record Document(Map<String, Integer> frequencies, int length) {
+
+        static Document of(String text) {
+            Map<String, Integer> frequencies = new HashMap<>();
+            int[] length = new int[1];
+            InvertedIndex.tokenize(text, (term, start, end) -> {
+                frequencies.merge(term, 1, Integer::sum);
+                length[0]++;
+            });
+            return new Document(frequencies, length[0]);
+        }
+
+        double score(Set<String> terms, InvertedIndex index) {
+            double score = 0;
+            for (String term : terms) {
+                Integer tf = frequencies.get(term);
+                if (tf != null) {
+                    // Counted as one more document of the base collection
+                    score += InvertedIndex.idf(index.documentFrequency(term) + 1, index.size() + 1)
+                            * InvertedIndex.termScore(tf, length, index.averageLength());
+                }
+            }
+            return score;
+        }
+    }
+}
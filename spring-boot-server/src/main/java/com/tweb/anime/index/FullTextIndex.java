@@ -0,0 +1,103 @@
+package com.tweb.anime.index;
+
+import com.tweb.anime.dto.IdText;
+import com.tweb.anime.event.CatalogChangeEvent;
+import com.tweb.anime.model.Anime;
+import com.tweb.anime.model.Character;
+import com.tweb.anime.model.Person;
+import com.tweb.anime.repository.AnimeRepository;
+import com.tweb.anime.repository.CharacterRepository;
+import com.tweb.anime.repository.PersonRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Full-Text Index
+ *
+ * BM25-ranked word search over anime synopses and backgrounds and the
+ * about texts of characters and people, served from {@link FullTextCorpus}es.
+ * PostgreSQL has no index on these TEXT columns. Single writes go to the
+ * corpus overlays from the writer's thread; overlays that grew too large
+ * are folded by a background job (catalog.fulltext.fold-interval).
+ */
+@Component
+public class FullTextIndex implements CatalogIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(FullTextIndex.class);
+
+    private final FullTextCorpus animeTexts;
+    private final FullTextCorpus characterTexts;
+    private final FullTextCorpus personTexts;
+
+    public FullTextIndex(AnimeRepository animeRepository,
+                         CharacterRepository characterRepository,
+                         PersonRepository personRepository) {
+        this.animeTexts = new FullTextCorpus(animeRepository::findAllTexts);
+        this.characterTexts = new FullTextCorpus(characterRepository::findAllTexts);
+        this.personTexts = new FullTextCorpus(personRepository::findAllTexts);
+    }
+
+    public InvertedIndex.Hits searchAnime(String query, int limit) {
+        return animeTexts.search(query, limit);
+    }
+
+    public InvertedIndex.Hits searchCharacters(String query, int limit) {
+        return characterTexts.search(query, limit);
+    }
+
+    public InvertedIndex.Hits searchPeople(String query, int limit) {
+        return personTexts.search(query, limit);
+    }
+
+    @Override
+    public String name() {
+        return "full-text";
+    }
+
+    @Override
+    public void rebuild() {
+        animeTexts.rebuild();
+        characterTexts.rebuild();
+        personTexts.rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${catalog.fulltext.fold-interval:PT10S}",
+               fixedDelayString = "${catalog.fulltext.fold-interval:PT10S}")
+    public void fold() {
+        for (FullTextCorpus corpus : List.of(animeTexts, characterTexts, personTexts)) {
+            try {
+                corpus.foldIfLarge();
+            } catch (RuntimeException e) {
+                // The overlay is kept, the next run tries again
+                log.warn("Could not fold full-text writes: {}", e.getMessage());
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        if (event.concerns(Anime.class)) {
+            apply(animeTexts, event, event.entity() instanceof Anime a
+                    ? new IdText(a.getMalId(), a.getSynopsis(), a.getBackground()).text() : null);
+        } else if (event.concerns(Character.class)) {
+            apply(characterTexts, event, event.entity() instanceof Character c ? c.getAbout() : null);
+        } else if (event.concerns(Person.class)) {
+            apply(personTexts, event, event.entity() instanceof Person p ? p.getAbout() : null);
+        }
+    }
+
+    private static void apply(FullTextCorpus corpus, CatalogChangeEvent event, String text) {
+        if (event.isBulk()) {
+            corpus.rebuild();
+        } else if (event.kind() == CatalogChangeEvent.Kind.DELETED) {
+            corpus.remove((Long) event.id());
+        } else {
+            corpus.put((Long) event.id(), text);
+        }
+    }
+}
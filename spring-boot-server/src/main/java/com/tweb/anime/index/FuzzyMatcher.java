@@ -0,0 +1,221 @@
+package com.tweb.anime.index;
+
+import com.tweb.anime.dto.WeightedName;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Fuzzy Matcher
+ *
+ * Immutable typo-tolerant matcher over names. Names are split into
+ * lower-cased word tokens; the distinct tokens form a BK-tree keyed by
+ * Levenshtein distance, so a query token only visits the branches whose
+ * edge distance lies within its edit budget instead of the whole
+ * dictionary. A name matches when every query token is within budget of
+ * one of its tokens. Entities are ranked by the summed edit distance of
+ * their best name, then by weight.
+ */
+public final class FuzzyMatcher {
+
+    private final String[] terms;
+    private final int[][] postings;
+    private final int[] firstChild;
+    private final int[] nextSibling;
+    private final int[] edge;
+    private final long[] nameIds;
+    private final long[] nameWeights;
+
+    private FuzzyMatcher(String[] terms, int[][] postings, long[] nameIds, long[] nameWeights) {
+        this.terms = terms;
+        this.postings = postings;
+        this.nameIds = nameIds;
+        this.nameWeights = nameWeights;
+        this.firstChild = new int[terms.length];
+        this.nextSibling = new int[terms.length];
+        this.edge = new int[terms.length];
+        Arrays.fill(firstChild, -1);
+        Arrays.fill(nextSibling, -1);
+        int[] row = new int[maxLength(terms) + 1];
+        for (int term = 1; term < terms.length; term++) {
+            insert(term, row);
+        }
+    }
+
+    /**
+     * @param names one row per (entity, name); null or blank names are skipped, null weights rank last
+     */
+    public static FuzzyMatcher build(List<WeightedName> names) {
+        Map<String, List<Integer>> builder = new HashMap<>();
+        List<Long> ids = new ArrayList<>(names.size());
+        List<Long> weights = new ArrayList<>(names.size());
+        for (WeightedName name : names) {
+            String[] tokens = name.id() == null ? new String[0] : tokens(name.name());
+            if (tokens.length == 0) {
+                continue;
+            }
+            int index = ids.size();
+            ids.add(name.id());
+            weights.add(name.weight() == null ? Long.MIN_VALUE : name.weight());
+            for (String token : new TreeSet<>(Arrays.asList(tokens))) {
+                builder.computeIfAbsent(token, t -> new ArrayList<>()).add(index);
+            }
+        }
+
+        // Sorted so the tree root, and therefore its shape, does not depend on load order
+        String[] terms = builder.keySet().toArray(new String[0]);
+        Arrays.sort(terms);
+        int[][] postings = new int[terms.length][];
+        for (int i = 0; i < terms.length; i++) {
+            postings[i] = builder.get(terms[i]).stream().mapToInt(Integer::intValue).toArray();
+        }
+        return new FuzzyMatcher(terms, postings,
+                ids.stream().mapToLong(Long::longValue).toArray(),
+                weights.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    /**
+     * Edits allowed for a query token: none up to 2 characters, one up to 5, two beyond
+     */
+    static int budget(String token) {
+        int length = token.codePointCount(0, token.length());
+        return length <= 2 ? 0 : length <= 5 ? 1 : 2;
+    }
+
+    /**
+     * @return ids of the matching entities, closest first, then by descending weight
+     */
+    public long[] search(String query) {
+        String[] tokens = tokens(query);
+        if (tokens.length == 0 || terms.length == 0) {
+            return new long[0];
+        }
+
+        // Per query token, the best distance reached by each name
+        List<Map<Integer, Integer>> perToken = new ArrayList<>(tokens.length);
+        int[] row = new int[Math.max(maxLength(terms), maxLength(tokens)) + 1];
+        for (String token : new TreeSet<>(Arrays.asList(tokens))) {
+            Map<Integer, Integer> reached = new HashMap<>();
+            for (int[] match : within(token, budget(token), row)) {
+                for (int name : postings[match[0]]) {
+                    reached.merge(name, match[1], Math::min);
+                }
+            }
+            if (reached.isEmpty()) {
+                return new long[0];
+            }
+            perToken.add(reached);
+        }
+        perToken.sort(Comparator.comparingInt(Map::size));
+
+        // Best name cost per entity, intersecting from the most selective token
+        Map<Long, int[]> best = new HashMap<>();
+        for (Map.Entry<Integer, Integer> candidate : perToken.get(0).entrySet()) {
+            int name = candidate.getKey();
+            int cost = candidate.getValue();
+            for (int i = 1; i < perToken.size() && cost >= 0; i++) {
+                Integer distance = perToken.get(i).get(name);
+                cost = distance == null ? -1 : cost + distance;
+            }
+            if (cost >= 0) {
+                best.merge(nameIds[name], new int[]{cost, name},
+                        (a, b) -> a[0] < b[0] || (a[0] == b[0] && nameWeights[a[1]] >= nameWeights[b[1]]) ? a : b);
+            }
+        }
+
+        List<int[]> ranked = new ArrayList<>(best.values());
+        ranked.sort(Comparator.<int[]>comparingInt(hit -> hit[0])
+                .thenComparing(hit -> nameWeights[hit[1]], Comparator.reverseOrder())
+                .thenComparingLong(hit -> nameIds[hit[1]]));
+        return ranked.stream().mapToLong(hit -> nameIds[hit[1]]).toArray();
+    }
+
+    public int size() {
+        return terms.length;
+    }
+
+    /**
+     * (term, distance) pairs of every dictionary term within {@code max} edits of {@code token}
+     */
+    private List<int[]> within(String token, int max, int[] row) {
+        List<int[]> matches = new ArrayList<>();
+        int[] stack = new int[terms.length];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            int distance = distance(token, terms[node], row);
+            if (distance <= max) {
+                matches.add(new int[]{node, distance});
+            }
+            for (int child = firstChild[node]; child >= 0; child = nextSibling[child]) {
+                if (Math.abs(edge[child] - distance) <= max) {
+                    stack[top++] = child;
+                }
+            }
+        }
+        return matches;
+    }
+
+    private void insert(int term, int[] row) {
+        int node = 0;
+        while (true) {
+            int distance = distance(terms[term], terms[node], row);
+            int child = firstChild[node];
+            while (child >= 0 && edge[child] != distance) {
+                child = nextSibling[child];
+            }
+            if (child < 0) {
+                edge[term] = distance;
+                nextSibling[term] = firstChild[node];
+                firstChild[node] = term;
+                return;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Levenshtein distance over UTF-16 units, using {@code row} as scratch space
+     */
+    private static int distance(String a, String b, int[] row) {
+        for (int j = 0; j <= b.length(); j++) {
+            row[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            int diagonal = row[0];
+            row[0] = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int above = row[j];
+                int substitute = diagonal + (ca == b.charAt(j - 1) ? 0 : 1);
+                row[j] = Math.min(substitute, Math.min(above, row[j - 1]) + 1);
+                diagonal = above;
+            }
+        }
+        return row[b.length()];
+    }
+
+    private static String[] tokens(String name) {
+        String key = TrigramIndex.normalize(name);
+        if (key == null) {
+            return new String[0];
+        }
+        return Arrays.stream(key.split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    private static int maxLength(String[] strings) {
+        int max = 0;
+        for (String s : strings) {
+            max = Math.max(max, s.length());
+        }
+        return max;
+    }
+}
@@ -0,0 +1,72 @@
+package com.tweb.anime.index;
+
+import com.tweb.anime.event.CatalogChangeEvent;
+import com.tweb.anime.model.Anime;
+import com.tweb.anime.model.Character;
+import com.tweb.anime.model.Person;
+import com.tweb.anime.repository.AnimeRepository;
+import com.tweb.anime.repository.CharacterRepository;
+import com.tweb.anime.repository.PersonRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Fuzzy Search Index
+ *
+ * Typo-tolerant search over anime titles (romaji, English and Japanese),
+ * character names and person names, from one {@link FuzzyMatcher} each.
+ * Hits are ranked by edit distance, then by popularity for anime and by
+ * favorites for characters and people. A write marks the affected
+ * matcher stale, it is rebuilt on the next search.
+ */
+@Component
+public class FuzzySearchIndex implements CatalogIndex {
+
+    private final LazySnapshot<FuzzyMatcher> anime;
+    private final LazySnapshot<FuzzyMatcher> characters;
+    private final LazySnapshot<FuzzyMatcher> people;
+
+    public FuzzySearchIndex(AnimeRepository animeRepository,
+                            CharacterRepository characterRepository,
+                            PersonRepository personRepository) {
+        this.anime = new LazySnapshot<>(() -> FuzzyMatcher.build(
+                AutocompleteIndex.animeNames(animeRepository.findAllTitleVariants())));
+        this.characters = new LazySnapshot<>(() -> FuzzyMatcher.build(characterRepository.findAllWeightedNames()));
+        this.people = new LazySnapshot<>(() -> FuzzyMatcher.build(personRepository.findAllWeightedNames()));
+    }
+
+    public long[] searchAnime(String title) {
+        return anime.current().search(title);
+    }
+
+    public long[] searchCharacters(String name) {
+        return characters.current().search(name);
+    }
+
+    public long[] searchPeople(String name) {
+        return people.current().search(name);
+    }
+
+    @Override
+    public String name() {
+        return "fuzzy-search";
+    }
+
+    @Override
+    public void rebuild() {
+        anime.rebuild();
+        characters.rebuild();
+        people.rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        if (event.concerns(Anime.class)) {
+            anime.invalidate();
+        } else if (event.concerns(Character.class)) {
+            characters.invalidate();
+        } else if (event.concerns(Person.class)) {
+            people.invalidate();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.tweb.anime.index;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Helpers for turning index hits (arrays of ids) into pages of entities
+ */
+public final class IdLists {
+
+    /** Response header carrying the number of hits before pagination */
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
+    private IdLists() {
+    }
+
+    /**
+     * @return ids[offset, offset + limit) as a list, empty when offset is past the end
+     */
+    public static List<Long> slice(long[] ids, int offset, int limit) {
+        int from = Math.min(offset, ids.length);
+        int to = (int) Math.min((long) from + limit, ids.length);
+        List<Long> page = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            page.add(ids[i]);
+        }
+        return page;
+    }
+
+    /**
+     * Reorder rows loaded with an IN query to follow {@code ids}, dropping ids that were not found
+     */
+    public static <T> List<T> inOrder(List<Long> ids, List<T> rows, ToLongFunction<T> idOf) {
+        Map<Long, T> byId = new HashMap<>(rows.size() * 4 / 3 + 1);
+        for (T row : rows) {
+            byId.put(idOf.applyAsLong(row), row);
+        }
+        List<T> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            T row = byId.get(id);
+            if (row != null) {
+                ordered.add(row);
+            }
+        }
+        return ordered;
+    }
+}
@@ -0,0 +1,328 @@
+package com.tweb.anime.index;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongPredicate;
+
+/**
+ * Inverted Index
+ *
+ * Immutable full-text index with BM25 ranking. Texts are split into
+ * lower-cased letter/digit tokens and stop-words are dropped. Every term
+ * keeps a posting list of (document gap, term frequency) pairs encoded as
+ * variable-length bytes (7 bits per byte, high bit set on the last one),
+ * so most postings take two bytes. A query scores the union of its terms'
+ * postings term at a time into a dense accumulator and keeps the best
+ * {@code limit} documents in a primitive heap.
+ */
+public final class InvertedIndex {
+
+    static final double K1 = 1.2;
+    static final double B = 0.75;
+
+    /**
+     * English function words plus MyAnimeList boilerplate ("(Source: ANN)", "[Written by MAL Rewrite]")
+     */
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "about", "after", "all", "also", "an", "and", "any", "are", "as", "at", "be", "been", "but",
+            "by", "can", "could", "do", "does", "for", "from", "had", "has", "have", "he", "her", "hers",
+            "him", "his", "how", "i", "if", "in", "into", "is", "it", "its", "may", "me", "more", "most",
+            "my", "no", "not", "of", "on", "one", "only", "or", "other", "our", "out", "over", "own",
+            "she", "so", "some", "such", "than", "that", "the", "their", "them", "then", "there", "these",
+            "they", "this", "those", "through", "to", "too", "up", "very", "was", "we", "were", "what",
+            "when", "where", "which", "while", "who", "whom", "why", "will", "with", "would", "you", "your",
+            "source", "written", "mal", "rewrite", "ann");
+
+    /**
+     * Receives the terms of a text with their UTF-16 offsets
+     */
+    @FunctionalInterface
+    interface TermSink {
+        void accept(String term, int start, int end);
+    }
+
+    /**
+     * Ranked documents of one query
+     *
+     * @param ids    best documents, highest score first
+     * @param scores BM25 score of each id
+     * @param total  number of documents matching at least one query term
+     */
+    public record Hits(long[] ids, double[] scores, int total) {
+    }
+
+    private final Map<String, Integer> termIds;
+    private final byte[][] postings;
+    private final int[] documentFrequency;
+    private final long[] ids;
+    private final int[] lengths;
+    private final double averageLength;
+
+    private InvertedIndex(Map<String, Integer> termIds, byte[][] postings, int[] documentFrequency,
+                          long[] ids, int[] lengths) {
+        this.termIds = termIds;
+        this.postings = postings;
+        this.documentFrequency = documentFrequency;
+        this.ids = ids;
+        this.lengths = lengths;
+        long total = 0;
+        for (int length : lengths) {
+            total += length;
+        }
+        this.averageLength = ids.length == 0 ? 0 : (double) total / ids.length;
+    }
+
+    /**
+     * @param ids   document ids
+     * @param texts text of each document, null for none
+     */
+    public static InvertedIndex build(long[] ids, String[] texts) {
+        Map<String, PostingsBuilder> builders = new HashMap<>();
+        int[] lengths = new int[ids.length];
+        Map<String, int[]> frequencies = new HashMap<>();
+        for (int doc = 0; doc < ids.length; doc++) {
+            frequencies.clear();
+            int[] length = new int[1];
+            tokenize(texts[doc], (term, start, end) -> {
+                frequencies.computeIfAbsent(term, t -> new int[1])[0]++;
+                length[0]++;
+            });
+            lengths[doc] = length[0];
+            for (Map.Entry<String, int[]> entry : frequencies.entrySet()) {
+                builders.computeIfAbsent(entry.getKey(), t -> new PostingsBuilder()).add(doc, entry.getValue()[0]);
+            }
+        }
+
+        Map<String, Integer> termIds = new HashMap<>(builders.size() * 2);
+        byte[][] postings = new byte[builders.size()][];
+        int[] documentFrequency = new int[builders.size()];
+        for (Map.Entry<String, PostingsBuilder> entry : builders.entrySet()) {
+            int term = termIds.size();
+            termIds.put(entry.getKey(), term);
+            postings[term] = entry.getValue().toArray();
+            documentFrequency[term] = entry.getValue().count;
+        }
+        return new InvertedIndex(termIds, postings, documentFrequency, ids.clone(), lengths);
+    }
+
+    /**
+     * @return the best {@code limit} documents for {@code query}, skipping ids rejected by {@code exclude}
+     */
+    public Hits search(String query, int limit, LongPredicate exclude) {
+        Set<String> terms = terms(query);
+        float[] scores = new float[ids.length];
+        int[] matched = new int[ids.length];
+        int count = 0;
+        for (String term : terms) {
+            Integer termId = termIds.get(term);
+            if (termId == null) {
+                continue;
+            }
+            double idf = idf(documentFrequency[termId], ids.length);
+            byte[] list = postings[termId];
+            int doc = -1;
+            for (int i = 0; i < list.length; ) {
+                int gap = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = list[i++];
+                    gap |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b >= 0);
+                int tf = 0;
+                shift = 0;
+                do {
+                    b = list[i++];
+                    tf |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b >= 0);
+                doc += gap;
+                if (scores[doc] == 0) {
+                    matched[count++] = doc;
+                }
+                scores[doc] += (float) (idf * termScore(tf, lengths[doc], averageLength));
+            }
+        }
+
+        // Min-heap of the best documents so far, weakest at the root
+        int[] heap = new int[Math.max(1, Math.min(limit, count))];
+        int size = 0;
+        int total = 0;
+        for (int i = 0; i < count; i++) {
+            int doc = matched[i];
+            if (exclude.test(ids[doc])) {
+                continue;
+            }
+            total++;
+            if (size < limit) {
+                heap[size] = doc;
+                siftUp(heap, size++, scores);
+            } else if (limit > 0 && weaker(heap[0], doc, scores)) {
+                heap[0] = doc;
+                siftDown(heap, size, scores);
+            }
+        }
+        long[] topIds = new long[size];
+        double[] topScores = new double[size];
+        for (int i = size - 1; i >= 0; i--) {
+            int doc = heap[0];
+            topIds[i] = ids[doc];
+            topScores[i] = scores[doc];
+            heap[0] = heap[i];
+            siftDown(heap, i, scores);
+        }
+        return new Hits(topIds, topScores, total);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Lower score, or equal score and higher id (smaller ids win ties)
+     */
+    private boolean weaker(int a, int b, float[] scores) {
+        return scores[a] < scores[b] || (scores[a] == scores[b] && ids[a] > ids[b]);
+    }
+
+    private void siftUp(int[] heap, int i, float[] scores) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!weaker(heap[i], heap[parent], scores)) {
+                return;
+            }
+            int swap = heap[i];
+            heap[i] = heap[parent];
+            heap[parent] = swap;
+            i = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int size, float[] scores) {
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                return;
+            }
+            if (child + 1 < size && weaker(heap[child + 1], heap[child], scores)) {
+                child++;
+            }
+            if (!weaker(heap[child], heap[i], scores)) {
+                return;
+            }
+            int swap = heap[i];
+            heap[i] = heap[child];
+            heap[child] = swap;
+            i = child;
+        }
+    }
+
+    public int terms() {
+        return termIds.size();
+    }
+
+    /**
+     * Bytes held by the compressed posting lists
+     */
+    public long postingBytes() {
+        long bytes = 0;
+        for (byte[] list : postings) {
+            bytes += list.length;
+        }
+        return bytes;
+    }
+
+    int documentFrequency(String term) {
+        Integer termId = termIds.get(term);
+        return termId == null ? 0 : documentFrequency[termId];
+    }
+
+    double averageLength() {
+        return averageLength;
+    }
+
+    static double idf(int documentFrequency, int documents) {
+        return Math.log(1 + (documents - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    /**
+     * BM25 term weight without the idf factor
+     */
+    static double termScore(int tf, int length, double averageLength) {
+        double norm = averageLength == 0 ? 1 : 1 - B + B * length / averageLength;
+        return tf * (K1 + 1) / (tf + K1 * norm);
+    }
+
+    /**
+     * Distinct query terms, in query order
+     */
+    static Set<String> terms(String query) {
+        Set<String> terms = new LinkedHashSet<>();
+        tokenize(query, (term, start, end) -> terms.add(term));
+        return terms;
+    }
+
+    /**
+     * Splits {@code text} on anything but letters and digits and reports every
+     * lower-cased token that is not a stop-word or a single character
+     */
+    static void tokenize(String text, TermSink sink) {
+        if (text == null) {
+            return;
+        }
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && !Character.isLetterOrDigit(text.codePointAt(i))) {
+                i += Character.charCount(text.codePointAt(i));
+            }
+            int start = i;
+            while (i < length && Character.isLetterOrDigit(text.codePointAt(i))) {
+                i += Character.charCount(text.codePointAt(i));
+            }
+            if (i - start > 1) {
+                String term = text.substring(start, i).toLowerCase(Locale.ROOT);
+                if (!STOP_WORDS.contains(term)) {
+                    sink.accept(term, start, i);
+                }
+            }
+        }
+    }
+
+    private static final class PostingsBuilder {
+
+        private byte[] bytes = new byte[8];
+        private int size;
+        private int last = -1;
+        private int count;
+
+        void add(int doc, int tf) {
+            write(doc - last);
+            write(tf);
+            last = doc;
+            count++;
+        }
+
+        private void write(int value) {
+            if (size + 5 > bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            while (value >= 0x80) {
+                bytes[size++] = (byte) (value & 0x7F);
+                value >>>= 7;
+            }
+            // High bit marks the last byte of a value
+            bytes[size++] = (byte) (value | 0x80);
+        }
+
+        byte[] toArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.tweb.anime.index;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Lazy Snapshot
+ *
+ * Holder for an immutable structure built from the database. After
+ * {@link #invalidate()} the structure is rebuilt on the next read. The
+ * loader runs under a {@link ReentrantLock}: a monitor held across JDBC
+ * would pin the carrier of a virtual thread (virtual profile).
+ */
+final class LazySnapshot<T> {
+
+    private final Supplier<T> loader;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile T snapshot;
+    private volatile boolean stale = true;
+
+    LazySnapshot(Supplier<T> loader) {
+        this.loader = loader;
+    }
+
+    void invalidate() {
+        stale = true;
+    }
+
+    void rebuild() {
+        lock.lock();
+        try {
+            // Cleared before loading so a write during the load triggers another one
+            stale = false;
+            snapshot = loader.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    T current() {
+        if (stale || snapshot == null) {
+            lock.lock();
+            try {
+                if (stale || snapshot == null) {
+                    rebuild();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return snapshot;
+    }
+}
@@ -0,0 +1,79 @@
+package com.tweb.anime.index;
+
+import com.tweb.anime.event.CatalogChangeEvent;
+import com.tweb.anime.model.Anime;
+import com.tweb.anime.model.Character;
+import com.tweb.anime.model.Person;
+import com.tweb.anime.repository.AnimeRepository;
+import com.tweb.anime.repository.CharacterRepository;
+import com.tweb.anime.repository.PersonRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Name Search Index
+ *
+ * Case-insensitive substring search over anime titles, character names
+ * and person names, served from {@link SubstringIndex}es instead of
+ * {@code LIKE '%..%'} sequential scans.
+ */
+@Component
+public class NameSearchIndex implements CatalogIndex {
+
+    private final SubstringIndex animeTitles;
+    private final SubstringIndex characterNames;
+    private final SubstringIndex personNames;
+
+    public NameSearchIndex(AnimeRepository animeRepository,
+                           CharacterRepository characterRepository,
+                           PersonRepository personRepository) {
+        this.animeTitles = new SubstringIndex(animeRepository::findAllTitles);
+        this.characterNames = new SubstringIndex(characterRepository::findAllNames);
+        this.personNames = new SubstringIndex(personRepository::findAllNames);
+    }
+
+    public long[] searchAnime(String title) {
+        return animeTitles.search(title);
+    }
+
+    public long[] searchCharacters(String name) {
+        return characterNames.search(name);
+    }
+
+    public long[] searchPeople(String name) {
+        return personNames.search(name);
+    }
+
+    @Override
+    public String name() {
+        return "name-search";
+    }
+
+    @Override
+    public void rebuild() {
+        animeTitles.rebuild();
+        characterNames.rebuild();
+        personNames.rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        if (event.concerns(Anime.class)) {
+            apply(animeTitles, event, event.entity() instanceof Anime a ? a.getTitle() : null);
+        } else if (event.concerns(Character.class)) {
+            apply(characterNames, event, event.entity() instanceof Character c ? c.getName() : null);
+        } else if (event.concerns(Person.class)) {
+            apply(personNames, event, event.entity() instanceof Person p ? p.getName() : null);
+        }
+    }
+
+    private static void apply(SubstringIndex index, CatalogChangeEvent event, String name) {
+        if (event.isBulk()) {
+            index.rebuild();
+        } else if (event.kind() == CatalogChangeEvent.Kind.DELETED) {
+            index.remove((Long) event.id());
+        } else {
+            index.put((Long) event.id(), name);
+        }
+    }
+}
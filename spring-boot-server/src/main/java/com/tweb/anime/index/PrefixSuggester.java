@@ -0,0 +1,263 @@
+package com.tweb.anime.index;
+
+import com.tweb.anime.dto.Suggestion;
+import com.tweb.anime.dto.WeightedName;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Prefix Suggester
+ *
+ * Immutable top-k prefix index over names. Names are sorted by their
+ * normalized form and stored front-coded: in blocks of {@value #BLOCK}
+ * entries every name keeps only the UTF-8 bytes it does not share with
+ * the previous one. A prefix maps to a contiguous entry range (two binary
+ * searches over block heads plus one block scan each); the best entries
+ * of that range are taken from a max segment tree over the weights, so a
+ * lookup costs O(log n + k log k) regardless of how many names match.
+ * An entity with several matching names is suggested once.
+ */
+public final class PrefixSuggester {
+
+    private static final int BLOCK = 16;
+
+    private final byte[] data;
+    private final int[] blockOffsets;
+    private final String[] blockHeads;
+    private final int[] entities;
+    private final long[] entityIds;
+    private final long[] weights;
+    private final int[] tree;
+    private final int leaves;
+
+    private PrefixSuggester(byte[] data, int[] blockOffsets, String[] blockHeads,
+                            int[] entities, long[] entityIds, long[] weights) {
+        this.data = data;
+        this.blockOffsets = blockOffsets;
+        this.blockHeads = blockHeads;
+        this.entities = entities;
+        this.entityIds = entityIds;
+        this.weights = weights;
+        int n = 1;
+        while (n < Math.max(1, weights.length)) {
+            n <<= 1;
+        }
+        this.leaves = n;
+        this.tree = new int[2 * n];
+        Arrays.fill(tree, -1);
+        for (int i = 0; i < weights.length; i++) {
+            tree[n + i] = i;
+        }
+        for (int node = n - 1; node > 0; node--) {
+            tree[node] = better(tree[2 * node], tree[2 * node + 1]);
+        }
+    }
+
+    /**
+     * @param names one row per (entity, name); null or blank names are skipped, null weights rank last
+     */
+    public static PrefixSuggester build(List<WeightedName> names) {
+        List<Entry> entries = new ArrayList<>(names.size());
+        for (WeightedName name : names) {
+            if (name.id() != null && name.name() != null && !name.name().isBlank()) {
+                String display = name.name().trim();
+                entries.add(new Entry(TrigramIndex.normalize(display), display, name.id(),
+                        name.weight() == null ? Long.MIN_VALUE : name.weight()));
+            }
+        }
+        entries.sort(Comparator.comparing(Entry::key).thenComparing(Entry::display));
+
+        long[] entityIds = entries.stream().mapToLong(Entry::id).sorted().distinct().toArray();
+        int n = entries.size();
+        int[] entities = new int[n];
+        long[] weights = new long[n];
+        int[] blockOffsets = new int[(n + BLOCK - 1) / BLOCK];
+        String[] blockHeads = new String[blockOffsets.length];
+        ByteArrayOutputStream out = new ByteArrayOutputStream(n * 16);
+        byte[] previous = new byte[0];
+        for (int i = 0; i < n; i++) {
+            Entry entry = entries.get(i);
+            entities[i] = Arrays.binarySearch(entityIds, entry.id());
+            weights[i] = entry.weight();
+            byte[] bytes = entry.display().getBytes(StandardCharsets.UTF_8);
+            int shared = 0;
+            if (i % BLOCK == 0) {
+                blockOffsets[i / BLOCK] = out.size();
+                blockHeads[i / BLOCK] = entry.key();
+            } else {
+                int max = Math.min(previous.length, bytes.length);
+                while (shared < max && previous[shared] == bytes[shared]) {
+                    shared++;
+                }
+                // Never split a multi-byte character
+                while (shared > 0 && shared < bytes.length && (bytes[shared] & 0xC0) == 0x80) {
+                    shared--;
+                }
+            }
+            writeVarInt(out, shared);
+            writeVarInt(out, bytes.length - shared);
+            out.write(bytes, shared, bytes.length - shared);
+            previous = bytes;
+        }
+        return new PrefixSuggester(out.toByteArray(), blockOffsets, blockHeads, entities, entityIds, weights);
+    }
+
+    /**
+     * Best-weighted names starting with {@code prefix} (case-insensitive), one per entity
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String key = TrigramIndex.normalize(prefix == null ? "" : prefix.trim());
+        if (key.isEmpty() || limit <= 0 || weights.length == 0) {
+            return List.of();
+        }
+        int from = lowerBound(key);
+        int to = lowerBound(key + Character.MAX_VALUE);
+        if (from >= to) {
+            return List.of();
+        }
+
+        List<Suggestion> suggestions = new ArrayList<>(Math.min(limit, to - from));
+        Set<Integer> seen = new HashSet<>();
+        PriorityQueue<int[]> ranges = new PriorityQueue<>(
+                (a, b) -> Long.compare(weights[b[0]], weights[a[0]]) != 0
+                        ? Long.compare(weights[b[0]], weights[a[0]]) : Integer.compare(a[0], b[0]));
+        ranges.add(new int[]{best(from, to), from, to});
+        while (!ranges.isEmpty() && suggestions.size() < limit) {
+            int[] range = ranges.poll();
+            int entry = range[0];
+            if (seen.add(entities[entry])) {
+                suggestions.add(new Suggestion(entityIds[entities[entry]], name(entry)));
+            }
+            if (range[1] < entry) {
+                ranges.add(new int[]{best(range[1], entry), range[1], entry});
+            }
+            if (entry + 1 < range[2]) {
+                ranges.add(new int[]{best(entry + 1, range[2]), entry + 1, range[2]});
+            }
+        }
+        return suggestions;
+    }
+
+    public int size() {
+        return weights.length;
+    }
+
+    /**
+     * Bytes held by the index arrays, excluding object headers
+     */
+    public long footprint() {
+        long heads = 0;
+        for (String head : blockHeads) {
+            heads += head.length();
+        }
+        return data.length + 4L * blockOffsets.length + heads + 4L * entities.length
+                + 8L * entityIds.length + 8L * weights.length + 4L * tree.length;
+    }
+
+    /**
+     * First entry whose normalized name is >= key
+     */
+    private int lowerBound(String key) {
+        int lo = 0;
+        int hi = blockHeads.length - 1;
+        int block = 0;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (blockHeads[mid].compareTo(key) < 0) {
+                block = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        int first = block * BLOCK;
+        int last = Math.min(first + BLOCK, weights.length);
+        int offset = blockOffsets[block];
+        byte[] current = new byte[0];
+        for (int i = first; i < last; i++) {
+            int[] cursor = {offset};
+            current = decodeNext(current, cursor);
+            offset = cursor[0];
+            if (TrigramIndex.normalize(new String(current, StandardCharsets.UTF_8)).compareTo(key) >= 0) {
+                return i;
+            }
+        }
+        return last;
+    }
+
+    private String name(int entry) {
+        int block = entry / BLOCK;
+        int[] cursor = {blockOffsets[block]};
+        byte[] current = new byte[0];
+        for (int i = block * BLOCK; i <= entry; i++) {
+            current = decodeNext(current, cursor);
+        }
+        return new String(current, StandardCharsets.UTF_8);
+    }
+
+    private byte[] decodeNext(byte[] previous, int[] cursor) {
+        int shared = readVarInt(cursor);
+        int suffix = readVarInt(cursor);
+        byte[] bytes = Arrays.copyOf(previous, shared + suffix);
+        System.arraycopy(data, cursor[0], bytes, shared, suffix);
+        cursor[0] += suffix;
+        return bytes;
+    }
+
+    private int best(int from, int to) {
+        int result = -1;
+        for (int lo = from + leaves, hi = to + leaves; lo < hi; lo >>= 1, hi >>= 1) {
+            if ((lo & 1) == 1) {
+                result = better(result, tree[lo++]);
+            }
+            if ((hi & 1) == 1) {
+                result = better(result, tree[--hi]);
+            }
+        }
+        return result;
+    }
+
+    private int better(int a, int b) {
+        if (a < 0) {
+            return b;
+        }
+        if (b < 0) {
+            return a;
+        }
+        if (weights[a] != weights[b]) {
+            return weights[a] > weights[b] ? a : b;
+        }
+        return Math.min(a, b);
+    }
+
+    private int readVarInt(int[] cursor) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[cursor[0]++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private record Entry(String key, String display, long id, long weight) {
+    }
+}
@@ -0,0 +1,79 @@
+package com.tweb.anime.index;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntFunction;
+
+/**
+ * Ranked List
+ *
+ * Keeps the first {@code capacity} rows of a ranking query in memory so
+ * any {@code limit <= capacity} is answered with an O(1) sublist view.
+ * Larger limits fall through to the loader. After {@link #invalidate()}
+ * the snapshot is reloaded on the next read. Loads are serialized by a
+ * lock rather than a monitor, so a virtual thread waiting for a
+ * connection inside one does not pin its carrier.
+ */
+public class RankedList<T> {
+
+    private final int capacity;
+    private final IntFunction<List<T>> loader;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile List<T> snapshot;
+    private volatile boolean stale = true;
+
+    /**
+     * @param capacity number of rows kept in memory
+     * @param loader   runs the ranking query for the given number of rows
+     */
+    public RankedList(int capacity, IntFunction<List<T>> loader) {
+        this.capacity = capacity;
+        this.loader = loader;
+    }
+
+    public List<T> top(int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        if (limit > capacity) {
+            return loader.apply(limit);
+        }
+        List<T> current = current();
+        return current.subList(0, Math.min(limit, current.size()));
+    }
+
+    public void invalidate() {
+        stale = true;
+    }
+
+    public void rebuild() {
+        lock.lock();
+        try {
+            // Cleared before loading so a write during the load triggers another one
+            stale = false;
+            snapshot = List.copyOf(loader.apply(capacity));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        List<T> current = snapshot;
+        return current == null ? 0 : current.size();
+    }
+
+    private List<T> current() {
+        if (stale || snapshot == null) {
+            lock.lock();
+            try {
+                if (stale || snapshot == null) {
+                    rebuild();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return snapshot;
+    }
+}
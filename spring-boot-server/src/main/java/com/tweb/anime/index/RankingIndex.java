@@ -0,0 +1,91 @@
+package com.tweb.anime.index;
+
+import com.tweb.anime.dto.AnimeCard;
+import com.tweb.anime.dto.CharacterCard;
+import com.tweb.anime.dto.PersonCard;
+import com.tweb.anime.event.CatalogChangeEvent;
+import com.tweb.anime.model.Anime;
+import com.tweb.anime.model.Character;
+import com.tweb.anime.model.Person;
+import com.tweb.anime.repository.AnimeRepository;
+import com.tweb.anime.repository.CharacterRepository;
+import com.tweb.anime.repository.PersonRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Ranking Index
+ *
+ * In-memory top-N lists for the homepage endpoints (top rated and most
+ * popular anime, popular characters and people), holding card projections.
+ * Ordering is the same as
+ * the repository ranking queries; a write to an entity type invalidates
+ * its lists, which are reloaded on the next read.
+ */
+@Component
+public class RankingIndex implements CatalogIndex {
+
+    private final RankedList<AnimeCard> topRatedAnime;
+    private final RankedList<AnimeCard> mostPopularAnime;
+    private final RankedList<CharacterCard> popularCharacters;
+    private final RankedList<PersonCard> popularPeople;
+
+    public RankingIndex(AnimeRepository animeRepository,
+                        CharacterRepository characterRepository,
+                        PersonRepository personRepository,
+                        @Value("${catalog.ranking.capacity:500}") int capacity) {
+        this.topRatedAnime = new RankedList<>(capacity,
+                n -> animeRepository.findTopRated(PageRequest.of(0, n)));
+        this.mostPopularAnime = new RankedList<>(capacity,
+                n -> animeRepository.findMostPopular(PageRequest.of(0, n)));
+        this.popularCharacters = new RankedList<>(capacity,
+                n -> characterRepository.findPopularCharacters(PageRequest.of(0, n)));
+        this.popularPeople = new RankedList<>(capacity,
+                n -> personRepository.findPopularPeople(PageRequest.of(0, n)));
+    }
+
+    public List<AnimeCard> topRatedAnime(int limit) {
+        return topRatedAnime.top(limit);
+    }
+
+    public List<AnimeCard> mostPopularAnime(int limit) {
+        return mostPopularAnime.top(limit);
+    }
+
+    public List<CharacterCard> popularCharacters(int limit) {
+        return popularCharacters.top(limit);
+    }
+
+    public List<PersonCard> popularPeople(int limit) {
+        return popularPeople.top(limit);
+    }
+
+    @Override
+    public String name() {
+        return "ranking";
+    }
+
+    @Override
+    public void rebuild() {
+        topRatedAnime.rebuild();
+        mostPopularAnime.rebuild();
+        popularCharacters.rebuild();
+        popularPeople.rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        if (event.concerns(Anime.class)) {
+            topRatedAnime.invalidate();
+            mostPopularAnime.invalidate();
+        } else if (event.concerns(Character.class)) {
+            popularCharacters.invalidate();
+        } else if (event.concerns(Person.class)) {
+            popularPeople.invalidate();
+        }
+    }
+}
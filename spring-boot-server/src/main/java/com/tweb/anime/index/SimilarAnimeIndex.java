@@ -0,0 +1,114 @@
+package com.tweb.anime.index;
+
+import com.tweb.anime.event.CatalogChangeEvent;
+import com.tweb.anime.model.Anime;
+import com.tweb.anime.repository.AnimeRepository;
+import com.tweb.anime.repository.GenreRepository;
+import com.tweb.anime.repository.StudioRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Similar Anime Index
+ *
+ * Precomputed "similar anime" table ({@link SimilarityTable}). Building it
+ * compares every pair of anime, so it is not rebuilt on the read path:
+ * anime writes only mark it outdated and a background job rebuilds it on
+ * a fixed delay (catalog.similar.refresh-interval) while reads keep using
+ * the previous table.
+ */
+@Component
+public class SimilarAnimeIndex implements CatalogIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SimilarAnimeIndex.class);
+
+    private final AnimeRepository animeRepository;
+    private final GenreRepository genreRepository;
+    private final StudioRepository studioRepository;
+    private final int neighbours;
+    private final int parallelism;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile SimilarityTable table;
+    private volatile boolean outdated;
+
+    public SimilarAnimeIndex(AnimeRepository animeRepository,
+                             GenreRepository genreRepository,
+                             StudioRepository studioRepository,
+                             @Value("${catalog.similar.neighbours:20}") int neighbours,
+                             @Value("${catalog.similar.parallelism:0}") int parallelism) {
+        this.animeRepository = animeRepository;
+        this.genreRepository = genreRepository;
+        this.studioRepository = studioRepository;
+        this.neighbours = Math.max(1, neighbours);
+        // 0 = one worker per core
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * @return up to {@code limit} most similar anime, null when {@code malId} is not in the table (unknown, or added since the last build)
+     */
+    public SimilarityTable.Neighbours similarTo(long malId, int limit) {
+        SimilarityTable current = table;
+        if (current == null) {
+            lock.lock();
+            try {
+                if (table == null) {
+                    rebuild();
+                }
+                current = table;
+            } finally {
+                lock.unlock();
+            }
+        }
+        return current.neighbours(malId, limit);
+    }
+
+    @Override
+    public String name() {
+        return "similar-anime";
+    }
+
+    @Override
+    public void rebuild() {
+        lock.lock();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            // Cleared before loading so a write during the build triggers another one
+            outdated = false;
+            table = SimilarityTable.build(animeRepository.findFacetRows(), genreRepository.findAnimeGenres(),
+                    studioRepository.findAnimeStudios(), neighbours, pool);
+        } finally {
+            pool.shutdown();
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${catalog.similar.refresh-interval:PT5M}",
+               fixedDelayString = "${catalog.similar.refresh-interval:PT5M}")
+    public void refresh() {
+        if (!outdated) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            outdated = true;
+            log.warn("Could not rebuild similar anime: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        if (event.concerns(Anime.class)) {
+            outdated = true;
+        }
+    }
+}
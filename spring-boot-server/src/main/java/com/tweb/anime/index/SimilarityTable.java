@@ -0,0 +1,421 @@
+package com.tweb.anime.index;
+
+import com.tweb.anime.dto.AnimeFacetRow;
+import com.tweb.anime.dto.IdName;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Similarity Table
+ *
+ * Immutable k-nearest-neighbour table over anime ordinals (position of the
+ * MAL ID in ascending order). Every anime is described by its genres and
+ * studios (sets), type, source and rating (categories) and score; the
+ * similarity of two anime is a weighted sum of
+ * <ul>
+ *   <li>genre Jaccard overlap, on bitsets ({@value #GENRES}),</li>
+ *   <li>shared studios over the smaller studio set ({@value #STUDIOS}),</li>
+ *   <li>same type ({@value #TYPE}), same source ({@value #SOURCE}), same rating ({@value #RATING}),</li>
+ *   <li>score closeness, 0 at {@value #SCORE_RANGE} points apart or when unscored ({@value #SCORE}).</li>
+ * </ul>
+ * The build compares every pair, one row per anime, split across a
+ * fork/join pool. The studio overlap, the only part needing a merge of
+ * two arrays, is skipped when adding its full weight could not beat the
+ * row's current k-th neighbour; divisions are replaced by a reciprocal
+ * table and a constant slope.
+ * Neighbours and similarities are kept in flat int/float arrays, {@code k}
+ * slots per anime, so a lookup is a binary search for the ordinal plus a
+ * copy of at most {@code k} entries.
+ */
+public final class SimilarityTable {
+
+    static final float GENRES = 0.45f;
+    static final float STUDIOS = 0.15f;
+    static final float TYPE = 0.10f;
+    static final float SOURCE = 0.10f;
+    static final float RATING = 0.05f;
+    static final float SCORE = 0.15f;
+    static final float SCORE_RANGE = 3f;
+    private static final float SCORE_SLOPE = SCORE / SCORE_RANGE;
+    /** Score of unscored anime, out of SCORE_RANGE of every real score */
+    private static final float UNSCORED = -100f;
+
+    /** Weight of every combination of same type (4), same source (2) and same rating (1) */
+    private static final float[] CATEGORY_WEIGHTS = new float[8];
+
+    static {
+        for (int same = 0; same < 8; same++) {
+            CATEGORY_WEIGHTS[same] = ((same & 4) != 0 ? TYPE : 0) + ((same & 2) != 0 ? SOURCE : 0)
+                    + ((same & 1) != 0 ? RATING : 0);
+        }
+    }
+
+    /** Rows per fork/join leaf task */
+    private static final int ROWS_PER_TASK = 64;
+
+    /**
+     * Neighbours of one anime, most similar first
+     */
+    public record Neighbours(long[] ids, float[] similarities) {
+    }
+
+    private final long[] ids;
+    private final int k;
+    private final int[] neighbours;
+    private final float[] similarities;
+
+    private SimilarityTable(long[] ids, int k, int[] neighbours, float[] similarities) {
+        this.ids = ids;
+        this.k = k;
+        this.neighbours = neighbours;
+        this.similarities = similarities;
+    }
+
+    /**
+     * @param rows    facet columns of every anime, defines the ordinals
+     * @param genres  (MAL ID, genre name) pairs
+     * @param studios (MAL ID, studio name) pairs
+     * @param k       neighbours kept per anime
+     * @param pool    pool the rows are compared on
+     */
+    public static SimilarityTable build(List<AnimeFacetRow> rows, List<IdName> genres, List<IdName> studios,
+                                        int k, ForkJoinPool pool) {
+        Features features = Features.of(rows, genres, studios);
+        int n = features.ids.length;
+        int[] neighbours = new int[n * k];
+        float[] similarities = new float[n * k];
+        Arrays.fill(neighbours, -1);
+        pool.invoke(new RowTask(features, k, neighbours, similarities, 0, n));
+        return new SimilarityTable(features.ids, k, neighbours, similarities);
+    }
+
+    /**
+     * @return up to {@code limit} neighbours of {@code id}, null when the anime is not in the table
+     */
+    public Neighbours neighbours(long id, int limit) {
+        int ordinal = Arrays.binarySearch(ids, id);
+        if (ordinal < 0) {
+            return null;
+        }
+        int base = ordinal * k;
+        int count = 0;
+        while (count < Math.min(limit, k) && neighbours[base + count] >= 0) {
+            count++;
+        }
+        long[] found = new long[count];
+        for (int i = 0; i < count; i++) {
+            found[i] = ids[neighbours[base + i]];
+        }
+        return new Neighbours(found, Arrays.copyOfRange(similarities, base, base + count));
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public int k() {
+        return k;
+    }
+
+    /**
+     * Feature columns by ordinal; categories and set members are interned to small ints
+     */
+    private static final class Features {
+
+        final long[] ids;
+        final int words;
+        final long[] genreBits;
+        final int[] genreCounts;
+        /** GENRES / union size, by union size */
+        final float[] genreWeights;
+        final int[][] studios;
+        final int[] studioCounts;
+        /** Type, source and rating codes, one byte each, 0 when missing */
+        final int[] categories;
+        final float[] scores;
+
+        private Features(int n, int genres) {
+            this.ids = new long[n];
+            this.words = Math.max(1, (genres + 63) / 64);
+            this.genreBits = new long[n * this.words];
+            this.genreCounts = new int[n];
+            this.genreWeights = new float[genres + 1];
+            for (int union = 1; union < genreWeights.length; union++) {
+                genreWeights[union] = GENRES / union;
+            }
+            this.studios = new int[n][];
+            this.studioCounts = new int[n];
+            this.categories = new int[n];
+            this.scores = new float[n];
+        }
+
+        static Features of(List<AnimeFacetRow> rows, List<IdName> genres, List<IdName> studios) {
+            List<AnimeFacetRow> sorted = rows.stream()
+                    .sorted((a, b) -> Long.compare(a.malId(), b.malId())).toList();
+            Map<String, Integer> genreCodes = codes(genres);
+            Features features = new Features(sorted.size(), genreCodes.size());
+            Map<String, Integer> types = new HashMap<>();
+            Map<String, Integer> sources = new HashMap<>();
+            Map<String, Integer> ratings = new HashMap<>();
+            for (int i = 0; i < sorted.size(); i++) {
+                AnimeFacetRow row = sorted.get(i);
+                features.ids[i] = row.malId();
+                features.categories[i] = code(types, row.type()) << 16
+                        | code(sources, row.source()) << 8 | code(ratings, row.rating());
+                features.scores[i] = row.score() == null ? UNSCORED : row.score().floatValue();
+            }
+
+            for (IdName genre : genres) {
+                int ordinal = Arrays.binarySearch(features.ids, genre.id());
+                int bit = genre.name() == null ? -1 : genreCodes.get(key(genre.name()));
+                if (ordinal >= 0 && bit >= 0) {
+                    features.genreBits[ordinal * features.words + bit / 64] |= 1L << (bit % 64);
+                }
+            }
+            for (int i = 0; i < features.ids.length; i++) {
+                for (int w = 0; w < features.words; w++) {
+                    features.genreCounts[i] += Long.bitCount(features.genreBits[i * features.words + w]);
+                }
+            }
+
+            Map<String, Integer> studioCodes = codes(studios);
+            int[][] members = new int[features.ids.length][];
+            for (IdName studio : studios) {
+                int ordinal = Arrays.binarySearch(features.ids, studio.id());
+                if (ordinal >= 0 && studio.name() != null) {
+                    int[] current = members[ordinal] == null ? new int[0] : members[ordinal];
+                    int[] grown = Arrays.copyOf(current, current.length + 1);
+                    grown[current.length] = studioCodes.get(key(studio.name()));
+                    members[ordinal] = grown;
+                }
+            }
+            for (int i = 0; i < members.length; i++) {
+                features.studios[i] = members[i] == null
+                        ? new int[0] : Arrays.stream(members[i]).sorted().distinct().toArray();
+                features.studioCounts[i] = features.studios[i].length;
+            }
+            return features;
+        }
+
+        /**
+         * Fills {@code heap} with the {@code k} anime most similar to {@code row} as a min-heap
+         * (weakest at the root); the columns are read into locals so the scan keeps them in registers
+         *
+         * @return number of neighbours found
+         */
+        int nearest(int row, int k, int[] heap, float[] heapScores) {
+            long[] genreBits = this.genreBits;
+            int[] genreCounts = this.genreCounts;
+            float[] genreWeights = this.genreWeights;
+            int[] studioCounts = this.studioCounts;
+            int[] categories = this.categories;
+            float[] scores = this.scores;
+            int words = this.words;
+            int rowCategories = categories[row];
+            int present = present(rowCategories);
+            float rowScore = scores[row];
+            // Unscored anime score 0 against everyone, including each other
+            float scoreWeight = rowScore == UNSCORED ? 0 : SCORE;
+            int rowGenres = genreCounts[row];
+            boolean rowStudios = studioCounts[row] > 0;
+
+            int size = 0;
+            float threshold = -1;
+            for (int other = 0; other < scores.length; other++) {
+                if (other == row) {
+                    continue;
+                }
+                // Branch-free on purpose: these comparisons are close to random
+                float similarity = CATEGORY_WEIGHTS[same(rowCategories, categories[other]) & present]
+                        + Math.max(0, scoreWeight - SCORE_SLOPE * Math.abs(rowScore - scores[other]));
+                int shared = 0;
+                for (int w = 0; w < words; w++) {
+                    shared += Long.bitCount(genreBits[row * words + w] & genreBits[other * words + w]);
+                }
+                similarity += shared * genreWeights[rowGenres + genreCounts[other] - shared];
+
+                boolean bothStudios = rowStudios && studioCounts[other] > 0;
+                if (similarity + (bothStudios ? STUDIOS : 0) <= threshold) {
+                    continue;
+                }
+                if (bothStudios) {
+                    similarity += STUDIOS * shared(studios[row], studios[other])
+                            / Math.min(studioCounts[row], studioCounts[other]);
+                }
+                similarity = Math.min(1f, similarity);
+
+                if (size < k) {
+                    heap[size] = other;
+                    heapScores[size] = similarity;
+                    RowTask.siftUp(heap, heapScores, size++);
+                } else if (similarity > heapScores[0]) {
+                    // Equal similarity keeps the earlier (lower MAL ID) neighbour
+                    heap[0] = other;
+                    heapScores[0] = similarity;
+                    RowTask.siftDown(heap, heapScores, size);
+                }
+                if (size == k) {
+                    threshold = heapScores[0];
+                }
+            }
+            return size;
+        }
+
+        /**
+         * @return bit 2, 1, 0 set when the type, source, rating bytes are equal
+         */
+        private static int same(int a, int b) {
+            int different = a ^ b;
+            // (x - 1) >>> 31 is 1 only for a zero byte x
+            return ((((different >>> 16) & 0xFF) - 1) >>> 31) << 2
+                    | ((((different >>> 8) & 0xFF) - 1) >>> 31) << 1
+                    | (((different & 0xFF) - 1) >>> 31);
+        }
+
+        /**
+         * @return bit 2, 1, 0 set when the type, source, rating are known
+         */
+        private static int present(int categories) {
+            return (((categories >>> 16) & 0xFF) != 0 ? 4 : 0) | (((categories >>> 8) & 0xFF) != 0 ? 2 : 0)
+                    | ((categories & 0xFF) != 0 ? 1 : 0);
+        }
+
+        private static int shared(int[] a, int[] b) {
+            int shared = 0;
+            for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+                if (a[i] == b[j]) {
+                    shared++;
+                    i++;
+                    j++;
+                } else if (a[i] < b[j]) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            return shared;
+        }
+
+        private static Map<String, Integer> codes(List<IdName> pairs) {
+            Map<String, Integer> codes = new HashMap<>();
+            for (IdName pair : pairs) {
+                if (pair.name() != null) {
+                    codes.putIfAbsent(key(pair.name()), codes.size());
+                }
+            }
+            return codes;
+        }
+
+        /**
+         * @return 1-255 per distinct value, 0 for missing values and past 255 distinct ones
+         */
+        private static int code(Map<String, Integer> codes, String value) {
+            if (value == null || value.isBlank()) {
+                return 0;
+            }
+            int code = codes.computeIfAbsent(key(value), v -> codes.size() + 1);
+            return code <= 0xFF ? code : 0;
+        }
+
+        private static String key(String name) {
+            return name.trim().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Computes the neighbours of rows [from, to), splitting in halves down to {@link #ROWS_PER_TASK}
+     */
+    static final class RowTask extends RecursiveAction {
+
+        private final Features features;
+        private final int k;
+        private final int[] neighbours;
+        private final float[] similarities;
+        private final int from;
+        private final int to;
+
+        RowTask(Features features, int k, int[] neighbours, float[] similarities, int from, int to) {
+            this.features = features;
+            this.k = k;
+            this.neighbours = neighbours;
+            this.similarities = similarities;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > ROWS_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RowTask(features, k, neighbours, similarities, from, middle),
+                        new RowTask(features, k, neighbours, similarities, middle, to));
+                return;
+            }
+            int[] heap = new int[k];
+            float[] heapScores = new float[k];
+            for (int row = from; row < to; row++) {
+                int size = features.nearest(row, k, heap, heapScores);
+                // Drain the min-heap into the row's slots, most similar first
+                int base = row * k;
+                for (int i = size - 1; i >= 0; i--) {
+                    neighbours[base + i] = heap[0];
+                    similarities[base + i] = heapScores[0];
+                    heap[0] = heap[i];
+                    heapScores[0] = heapScores[i];
+                    siftDown(heap, heapScores, i);
+                }
+            }
+        }
+
+        /**
+         * Lower similarity, or equal similarity and later ordinal
+         */
+        private static boolean weaker(int[] heap, float[] scores, int a, int b) {
+            return scores[a] < scores[b] || (scores[a] == scores[b] && heap[a] > heap[b]);
+        }
+
+        static void siftUp(int[] heap, float[] scores, int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!weaker(heap, scores, i, parent)) {
+                    return;
+                }
+                swap(heap, scores, i, parent);
+                i = parent;
+            }
+        }
+
+        static void siftDown(int[] heap, float[] scores, int size) {
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    return;
+                }
+                if (child + 1 < size && weaker(heap, scores, child + 1, child)) {
+                    child++;
+                }
+                if (!weaker(heap, scores, child, i)) {
+                    return;
+                }
+                swap(heap, scores, i, child);
+                i = child;
+            }
+        }
+
+        private static void swap(int[] heap, float[] scores, int a, int b) {
+            int id = heap[a];
+            heap[a] = heap[b];
+            heap[b] = id;
+            float score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+        }
+    }
+}
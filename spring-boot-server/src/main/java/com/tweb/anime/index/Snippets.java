@@ -0,0 +1,90 @@
+package com.tweb.anime.index;
+
+import com.tweb.anime.dto.TextSnippet;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Snippets
+ *
+ * Cuts the passage of a text that best matches a full-text query: the
+ * window of at most {@link #LENGTH} characters holding the most distinct
+ * query terms (then the most occurrences), widened to word boundaries.
+ * Matches are returned as offsets into the snippet rather than markup, so
+ * clients escape and highlight the text themselves.
+ */
+public final class Snippets {
+
+    static final int LENGTH = 200;
+
+    private static final String ELLIPSIS = "…";
+
+    private Snippets() {
+    }
+
+    public static TextSnippet of(String text, String query) {
+        if (text == null || text.isBlank()) {
+            return new TextSnippet("", List.of());
+        }
+        List<String> terms = List.copyOf(InvertedIndex.terms(query));
+        List<int[]> matches = new ArrayList<>();
+        InvertedIndex.tokenize(text, (term, start, end) -> {
+            int index = terms.indexOf(term);
+            if (index >= 0) {
+                matches.add(new int[]{start, end, index});
+            }
+        });
+
+        // Best window of consecutive matches fitting in LENGTH characters
+        int bestFirst = 0;
+        int bestLast = -1;
+        int bestDistinct = 0;
+        for (int first = 0; first < matches.size(); first++) {
+            Set<Integer> distinct = new HashSet<>();
+            int last = first;
+            while (last < matches.size() && matches.get(last)[1] - matches.get(first)[0] <= LENGTH) {
+                distinct.add(matches.get(last)[2]);
+                last++;
+            }
+            last--;
+            if (distinct.size() > bestDistinct
+                    || (distinct.size() == bestDistinct && last - first > bestLast - bestFirst)) {
+                bestFirst = first;
+                bestLast = last;
+                bestDistinct = distinct.size();
+            }
+        }
+
+        // Centre the matched span, then shrink both ends to whole words without cutting a match
+        int spanStart = bestLast >= 0 ? matches.get(bestFirst)[0] : 0;
+        int spanEnd = bestLast >= 0 ? matches.get(bestLast)[1] : 0;
+        int start = Math.max(0, spanStart - (LENGTH - (spanEnd - spanStart)) / 2);
+        int end = Math.min(text.length(), start + LENGTH);
+        while (start > 0 && start < spanStart && !Character.isWhitespace(text.charAt(start - 1))) {
+            start++;
+        }
+        while (end < text.length() && end > spanEnd && !Character.isWhitespace(text.charAt(end))) {
+            end--;
+        }
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+
+        String prefix = start > 0 ? ELLIPSIS : "";
+        String suffix = end < text.length() ? ELLIPSIS : "";
+        List<int[]> highlights = new ArrayList<>();
+        for (int[] match : matches) {
+            if (match[0] >= start && match[1] <= end) {
+                highlights.add(new int[]{
+                        match[0] - start + prefix.length(), match[1] - start + prefix.length()});
+            }
+        }
+        return new TextSnippet(prefix + text.substring(start, end) + suffix, highlights);
+    }
+}
@@ -0,0 +1,111 @@
+package com.tweb.anime.index;
+
+import com.tweb.anime.dto.IdName;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+
+/**
+ * Substring Index
+ *
+ * A {@link TrigramIndex} over one entity type plus a small overlay of
+ * names written since the last build. Searches merge both, so writes are
+ * visible immediately; the overlay is folded into a fresh trigram index
+ * once it grows past {@link #MAX_PENDING} entries.
+ */
+public class SubstringIndex {
+
+    private static final int MAX_PENDING = 1_000;
+
+    private final Supplier<List<IdName>> loader;
+    private final Map<Long, Optional<String>> pending = new ConcurrentHashMap<>();
+    // Serializes builds; a lock, not a monitor, since a virtual thread loading under a monitor pins its carrier
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile TrigramIndex base;
+
+    /**
+     * @param loader returns every (id, name) pair ordered by id
+     */
+    public SubstringIndex(Supplier<List<IdName>> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * @return ids of all names containing {@code query} (case-insensitive), ascending
+     */
+    public long[] search(String query) {
+        long[] hits = current().search(query);
+        if (pending.isEmpty()) {
+            return hits;
+        }
+        String key = TrigramIndex.normalize(query);
+        LongStream fromBase = LongStream.of(hits).filter(id -> !pending.containsKey(id));
+        LongStream fromOverlay = pending.entrySet().stream()
+                .filter(e -> e.getValue().map(name -> name.contains(key)).orElse(false))
+                .mapToLong(Map.Entry::getKey);
+        return LongStream.concat(fromBase, fromOverlay).sorted().toArray();
+    }
+
+    public void put(long id, String name) {
+        pending.put(id, Optional.ofNullable(TrigramIndex.normalize(name)));
+        foldIfLarge();
+    }
+
+    public void remove(long id) {
+        pending.put(id, Optional.empty());
+        foldIfLarge();
+    }
+
+    public void rebuild() {
+        lock.lock();
+        try {
+            Map<Long, Optional<String>> folded = new HashMap<>(pending);
+            List<IdName> rows = loader.get();
+            long[] ids = new long[rows.size()];
+            String[] names = new String[rows.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = rows.get(i).id();
+                names[i] = rows.get(i).name();
+            }
+            base = TrigramIndex.build(ids, names);
+            // Entries rewritten while loading stay in the overlay
+            folded.forEach(pending::remove);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        TrigramIndex current = base;
+        return current == null ? 0 : current.size();
+    }
+
+    private TrigramIndex current() {
+        TrigramIndex current = base;
+        if (current == null) {
+            lock.lock();
+            try {
+                if (base == null) {
+                    rebuild();
+                }
+                current = base;
+            } finally {
+                lock.unlock();
+            }
+        }
+        return current;
+    }
+
+    private void foldIfLarge() {
+        if (pending.size() > MAX_PENDING) {
+            rebuild();
+        }
+    }
+}
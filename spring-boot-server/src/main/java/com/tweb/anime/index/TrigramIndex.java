@@ -0,0 +1,171 @@
+package com.tweb.anime.index;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Trigram Index
+ *
+ * Immutable n-gram posting lists over a set of names. A substring query is
+ * answered by intersecting the posting lists of its trigrams and verifying
+ * the candidates, which gives the same rows as
+ * {@code LOWER(name) LIKE LOWER('%q%')} without scanning every name.
+ * Queries shorter than three characters fall back to a scan of the
+ * lower-cased names, still without touching the database.
+ */
+public final class TrigramIndex {
+
+    private static final int[] NO_DOCS = new int[0];
+
+    private final long[] ids;
+    private final String[] keys;
+    private final Map<Long, int[]> postings;
+
+    private TrigramIndex(long[] ids, String[] keys, Map<Long, int[]> postings) {
+        this.ids = ids;
+        this.keys = keys;
+        this.postings = postings;
+    }
+
+    /**
+     * @param ids   primary keys in ascending order
+     * @param names names aligned with {@code ids}, null entries never match
+     */
+    public static TrigramIndex build(long[] ids, String[] names) {
+        String[] keys = new String[names.length];
+        Map<Long, IntBuffer> builder = new HashMap<>();
+        Set<Long> seen = new HashSet<>();
+        for (int doc = 0; doc < names.length; doc++) {
+            keys[doc] = normalize(names[doc]);
+            String key = keys[doc];
+            if (key == null) {
+                continue;
+            }
+            seen.clear();
+            for (int i = 0; i + 3 <= key.length(); i++) {
+                long gram = gram(key, i);
+                if (seen.add(gram)) {
+                    builder.computeIfAbsent(gram, g -> new IntBuffer()).add(doc);
+                }
+            }
+        }
+        Map<Long, int[]> postings = new HashMap<>(builder.size() * 4 / 3 + 1);
+        builder.forEach((gram, docs) -> postings.put(gram, docs.toArray()));
+        return new TrigramIndex(ids, keys, postings);
+    }
+
+    public static String normalize(String name) {
+        return name == null ? null : name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return ids of all names containing {@code query}, ascending
+     */
+    public long[] search(String query) {
+        String key = normalize(query);
+        int[] docs = key.length() < 3 ? scan(key) : lookup(key);
+        long[] result = new long[docs.length];
+        for (int i = 0; i < docs.length; i++) {
+            result[i] = ids[docs[i]];
+        }
+        return result;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    private int[] lookup(String key) {
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= key.length(); i++) {
+            grams.add(gram(key, i));
+        }
+        int[][] lists = new int[grams.size()][];
+        int n = 0;
+        for (Long gram : grams) {
+            int[] list = postings.get(gram);
+            if (list == null) {
+                return NO_DOCS;
+            }
+            lists[n++] = list;
+        }
+        // Intersect smallest lists first so the candidate set shrinks quickly
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.length, b.length));
+        int[] candidates = lists[0];
+        for (int i = 1; i < lists.length && candidates.length > 0; i++) {
+            candidates = intersect(candidates, lists[i]);
+        }
+        // Trigrams only prove the pieces exist, verify they appear in order
+        int matches = 0;
+        int[] verified = new int[candidates.length];
+        for (int doc : candidates) {
+            if (key.length() == 3 || keys[doc].contains(key)) {
+                verified[matches++] = doc;
+            }
+        }
+        return Arrays.copyOf(verified, matches);
+    }
+
+    private int[] scan(String key) {
+        IntBuffer matches = new IntBuffer();
+        for (int doc = 0; doc < keys.length; doc++) {
+            if (keys[doc] != null && keys[doc].contains(key)) {
+                matches.add(doc);
+            }
+        }
+        return matches.toArray();
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static long gram(String key, int offset) {
+        return ((long) key.charAt(offset) << 32)
+                | ((long) key.charAt(offset + 1) << 16)
+                | key.charAt(offset + 2);
+    }
+
+    /**
+     * Growable int array, avoids boxing while collecting postings
+     */
+    static final class IntBuffer {
+
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
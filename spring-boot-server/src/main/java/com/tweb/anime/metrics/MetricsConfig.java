@@ -0,0 +1,33 @@
+package com.tweb.anime.metrics;
+
+import com.tweb.anime.warmup.WarmupRequests;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationPredicate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+
+/**
+ * Metrics Configuration
+ *
+ * HTTP, repository and Hikari timers come from Spring Boot's Micrometer
+ * auto-configuration, percentile histograms are switched on in
+ * application.properties. This adds the rows-returned distribution and
+ * keeps the startup warm-up's requests out of http.server.requests.
+ * Everything is scraped from /actuator/prometheus.
+ */
+@Configuration(proxyBeanMethods = false)
+public class MetricsConfig {
+
+    @Bean
+    static RepositoryMetricsPostProcessor repositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> registry) {
+        return new RepositoryMetricsPostProcessor(registry);
+    }
+
+    @Bean
+    ObservationPredicate ignoreWarmupRequests(WarmupRequests warmupRequests) {
+        return (name, context) -> !(context instanceof ServerRequestObservationContext request
+                && warmupRequests.matches(request.getCarrier()));
+    }
+}
@@ -0,0 +1,31 @@
+package com.tweb.anime.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Repository Metrics Post Processor
+ *
+ * Adds a {@link RowCountInterceptor} to every Spring Data repository proxy.
+ * Call latency is already timed by Spring Boot (spring.data.repository.invocations).
+ */
+class RepositoryMetricsPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<MeterRegistry> registry;
+
+    RepositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxy, info) -> proxy.addAdvice(
+                            new RowCountInterceptor(registry.getObject(), info.getRepositoryInterface()))));
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,60 @@
+package com.tweb.anime.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Row Count Interceptor
+ *
+ * Records how many rows each repository method returned as the
+ * catalog.repository.rows distribution, tagged like Spring Data's own
+ * spring.data.repository.invocations timer (repository, method).
+ * Streams are not counted, their rows are pulled after the call returns.
+ */
+class RowCountInterceptor implements MethodInterceptor {
+
+    static final String METRIC_NAME = "catalog.repository.rows";
+
+    private final MeterRegistry registry;
+    private final String repository;
+
+    RowCountInterceptor(MeterRegistry registry, Class<?> repositoryInterface) {
+        this.registry = registry;
+        this.repository = repositoryInterface.getSimpleName();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        long rows = rows(result);
+        if (rows >= 0) {
+            DistributionSummary.builder(METRIC_NAME)
+                    .description("Rows returned per repository call")
+                    .baseUnit("rows")
+                    .tag("repository", repository)
+                    .tag("method", invocation.getMethod().getName())
+                    .register(registry)
+                    .record(rows);
+        }
+        return result;
+    }
+
+    private static long rows(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        return -1;
+    }
+}
@@ -1,7 +1,13 @@
 package com.tweb.anime.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.tweb.anime.event.CatalogEntityListener;
+import com.tweb.anime.event.TrackedEntity;
+import com.tweb.anime.event.TrackedState;
 import jakarta.persistence.*;
 import java.io.Serializable;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * Anime Entity - PostgreSQL Static Data
@@ -12,8 +18,9 @@ import java.io.Serializable;
  * @author TWEB Team
  */
 @Entity
+@EntityListeners(CatalogEntityListener.class)
 @Table(name = "details")
-public class Anime implements Serializable {
+public class Anime implements Serializable, TrackedEntity {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -98,6 +105,35 @@ public class Anime implements Serializable {
     @Column(name = "trailer_url", length = 500)
     private String trailerUrl;
 
+    /**
+     * Normalized form of {@link #genres}, kept in sync by AnimeAttributeIndex
+     * The string column stays the display and import format
+     */
+    @JsonIgnore
+    @ManyToMany(fetch = FetchType.LAZY)
+    @JoinTable(name = "anime_genres",
+            joinColumns = @JoinColumn(name = "mal_id"),
+            inverseJoinColumns = @JoinColumn(name = "genre_id"))
+    private Set<Genre> genreSet = new HashSet<>();
+
+    /**
+     * Normalized form of {@link #studios}, kept in sync by AnimeAttributeIndex
+     */
+    @JsonIgnore
+    @ManyToMany(fetch = FetchType.LAZY)
+    @JoinTable(name = "anime_studios",
+            joinColumns = @JoinColumn(name = "mal_id"),
+            inverseJoinColumns = @JoinColumn(name = "studio_id"),
+            indexes = @Index(name = "idx_anime_studios_studio", columnList = "studio_id"))
+    private Set<Studio> studioSet = new HashSet<>();
+
+    /**
+     * Values as loaded or last written, set by CatalogEntityListener
+     */
+    @JsonIgnore
+    @Transient
+    private transient TrackedState trackedState;
+
     // Constructors
     public Anime() {
     }
@@ -325,6 +361,32 @@ public class Anime implements Serializable {
         this.trailerUrl = trailerUrl;
     }
 
+    public Set<Genre> getGenreSet() {
+        return genreSet;
+    }
+
+    public void setGenreSet(Set<Genre> genreSet) {
+        this.genreSet = genreSet;
+    }
+
+    public Set<Studio> getStudioSet() {
+        return studioSet;
+    }
+
+    public void setStudioSet(Set<Studio> studioSet) {
+        this.studioSet = studioSet;
+    }
+
+    @Override
+    public TrackedState getTrackedState() {
+        return trackedState;
+    }
+
+    @Override
+    public void setTrackedState(TrackedState trackedState) {
+        this.trackedState = trackedState;
+    }
+
     @Override
     public String toString() {
         return "Anime{" +
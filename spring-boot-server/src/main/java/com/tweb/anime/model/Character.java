@@ -1,5 +1,9 @@
 package com.tweb.anime.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.tweb.anime.event.CatalogEntityListener;
+import com.tweb.anime.event.TrackedEntity;
+import com.tweb.anime.event.TrackedState;
 import jakarta.persistence.*;
 import java.io.Serializable;
 
@@ -10,8 +14,9 @@ import java.io.Serializable;
  * Includes character images for frontend display
  */
 @Entity
+@EntityListeners(CatalogEntityListener.class)
 @Table(name = "characters")
-public class Character implements Serializable {
+public class Character implements Serializable, TrackedEntity {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -36,6 +41,13 @@ public class Character implements Serializable {
     @Column(name = "favorites")
     private Integer favorites;
 
+    /**
+     * Values as loaded or last written, set by CatalogEntityListener
+     */
+    @JsonIgnore
+    @Transient
+    private transient TrackedState trackedState;
+
     // Constructors
     public Character() {
     }
@@ -102,6 +114,16 @@ public class Character implements Serializable {
         this.favorites = favorites;
     }
 
+    @Override
+    public TrackedState getTrackedState() {
+        return trackedState;
+    }
+
+    @Override
+    public void setTrackedState(TrackedState trackedState) {
+        this.trackedState = trackedState;
+    }
+
     @Override
     public String toString() {
         return "Character{" +
@@ -0,0 +1,56 @@
+package com.tweb.anime.model;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+
+/**
+ * Genre Entity - PostgreSQL lookup table
+ * 
+ * One row per distinct genre name found in {@link Anime#getGenres()}
+ * Linked to anime through the anime_genres join table
+ */
+@Entity
+@Table(name = "genres")
+public class Genre implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "genre_id")
+    private Long genreId;
+
+    @Column(name = "name", length = 100, nullable = false, unique = true)
+    private String name;
+
+    // Constructors
+    public Genre() {
+    }
+
+    public Genre(String name) {
+        this.name = name;
+    }
+
+    // Getters and Setters
+    public Long getGenreId() {
+        return genreId;
+    }
+
+    public void setGenreId(Long genreId) {
+        this.genreId = genreId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String toString() {
+        return "Genre{" +
+                "genreId=" + genreId +
+                ", name='" + name + '\'' +
+                '}';
+    }
+}
@@ -1,5 +1,9 @@
 package com.tweb.anime.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.tweb.anime.event.CatalogEntityListener;
+import com.tweb.anime.event.TrackedEntity;
+import com.tweb.anime.event.TrackedState;
 import jakarta.persistence.*;
 import java.io.Serializable;
 
@@ -10,8 +14,9 @@ import java.io.Serializable;
  * Includes person images for actor/staff display
  */
 @Entity
+@EntityListeners(CatalogEntityListener.class)
 @Table(name = "person_details")
-public class Person implements Serializable {
+public class Person implements Serializable, TrackedEntity {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -45,6 +50,13 @@ public class Person implements Serializable {
     @Column(name = "about", columnDefinition = "TEXT")
     private String about;
 
+    /**
+     * Values as loaded or last written, set by CatalogEntityListener
+     */
+    @JsonIgnore
+    @Transient
+    private transient TrackedState trackedState;
+
     // Constructors
     public Person() {
     }
@@ -135,6 +147,16 @@ public class Person implements Serializable {
         this.about = about;
     }
 
+    @Override
+    public TrackedState getTrackedState() {
+        return trackedState;
+    }
+
+    @Override
+    public void setTrackedState(TrackedState trackedState) {
+        this.trackedState = trackedState;
+    }
+
     @Override
     public String toString() {
         return "Person{" +
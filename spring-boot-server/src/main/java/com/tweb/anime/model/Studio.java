@@ -0,0 +1,56 @@
+package com.tweb.anime.model;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+
+/**
+ * Studio Entity - PostgreSQL lookup table
+ * 
+ * One row per distinct studio name found in {@link Anime#getStudios()}
+ * Linked to anime through the anime_studios join table
+ */
+@Entity
+@Table(name = "studios")
+public class Studio implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "studio_id")
+    private Long studioId;
+
+    @Column(name = "name", length = 200, nullable = false, unique = true)
+    private String name;
+
+    // Constructors
+    public Studio() {
+    }
+
+    public Studio(String name) {
+        this.name = name;
+    }
+
+    // Getters and Setters
+    public Long getStudioId() {
+        return studioId;
+    }
+
+    public void setStudioId(Long studioId) {
+        this.studioId = studioId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String toString() {
+        return "Studio{" +
+                "studioId=" + studioId +
+                ", name='" + name + '\'' +
+                '}';
+    }
+}
@@ -1,48 +1,152 @@
 package com.tweb.anime.repository;
 
+import com.tweb.anime.config.CacheConfig;
+import com.tweb.anime.dto.AnimeCard;
+import com.tweb.anime.dto.AnimeFacetRow;
+import com.tweb.anime.dto.AnimeTitles;
+import com.tweb.anime.dto.IdName;
+import com.tweb.anime.dto.IdText;
+import com.tweb.anime.dto.TypeCount;
 import com.tweb.anime.model.Anime;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Anime Repository
  * 
  * Data access for anime via HTTP/Axios requests
+ * List queries select {@link AnimeCard} projections, only findById loads the full entity
+ * Read-only by default, so queries can be routed to a read replica
  */
 @Repository
+@Transactional(readOnly = true)
 public interface AnimeRepository extends JpaRepository<Anime, Long> {
 
+    /**
+     * Constructor expression selecting the card columns of alias {@code a}
+     */
+    String CARD = "new com.tweb.anime.dto.AnimeCard(a.malId, a.title, a.titleEnglish, a.titleJapanese, a.type, a.score, "
+            + "a.popularity, a.imageUrl)";
+
+    /**
+     * Find by primary key, served from the entity cache when possible
+     * Evicted by CacheInvalidator when the row is written
+     */
+    @Override
+    @Cacheable(CacheConfig.ANIME)
+    Optional<Anime> findById(Long id);
+
+    /**
+     * Find many rows in one round trip
+     * The IDs are bound as a single array parameter, so every batch size shares one statement
+     */
+    @Query(value = "SELECT * FROM details WHERE mal_id = ANY(:ids)", nativeQuery = true)
+    List<Anime> findAllByIdIn(@Param("ids") Long[] ids);
+
+    /**
+     * The most popular of the given IDs, for ranking index hits
+     */
+    @Query(value = "SELECT mal_id FROM details WHERE mal_id = ANY(:ids) "
+            + "ORDER BY popularity ASC NULLS LAST, mal_id ASC LIMIT :limit", nativeQuery = true)
+    List<Long> findMostPopularIn(@Param("ids") Long[] ids, @Param("limit") int limit);
+
     /**
      * Search anime by title (case-insensitive, partial match)
-     * Called via HTTP from main server using Axios
+     * Sequential scan, the search endpoint uses the in-memory NameSearchIndex instead
      */
     @Query("SELECT a FROM Anime a WHERE LOWER(a.title) LIKE LOWER(CONCAT('%', :title, '%'))")
     List<Anime> findByTitleContainingIgnoreCase(@Param("title") String title);
 
+    /**
+     * All MAL IDs and titles, ordered by ID (for the in-memory search index)
+     */
+    @Query("SELECT new com.tweb.anime.dto.IdName(a.malId, a.title) FROM Anime a ORDER BY a.malId")
+    List<IdName> findAllTitles();
+
+    /**
+     * Facet columns of every anime, ordered by ID (for the in-memory attribute index)
+     */
+    @Query("SELECT new com.tweb.anime.dto.AnimeFacetRow(a.malId, a.type, a.status, a.source, a.rating, "
+            + "a.premiered, a.score) FROM Anime a ORDER BY a.malId")
+    List<AnimeFacetRow> findFacetRows();
+
+    /**
+     * All titles and popularity ranks (for the in-memory autocomplete index)
+     */
+    @Query("SELECT new com.tweb.anime.dto.AnimeTitles(a.malId, a.title, a.titleEnglish, a.titleJapanese, a.popularity) "
+            + "FROM Anime a")
+    List<AnimeTitles> findAllTitleVariants();
+
+    /**
+     * All MAL IDs and synopses and backgrounds, ordered by ID (for the in-memory full-text index)
+     */
+    @Query("SELECT new com.tweb.anime.dto.IdText(a.malId, a.synopsis, a.background) FROM Anime a ORDER BY a.malId")
+    List<IdText> findAllTexts();
+
+    /**
+     * Synopses and backgrounds of the given MAL IDs, in no particular order (for full-text snippets)
+     */
+    @Query("SELECT new com.tweb.anime.dto.IdText(a.malId, a.synopsis, a.background) FROM Anime a WHERE a.malId IN :ids")
+    List<IdText> findTextsByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Cards for the given MAL IDs, in no particular order
+     */
+    @Query("SELECT " + CARD + " FROM Anime a WHERE a.malId IN :ids")
+    List<AnimeCard> findCardsByIds(@Param("ids") Collection<Long> ids);
+
     /**
      * Find anime by type
      */
-    List<Anime> findByType(String type);
+    @Query("SELECT " + CARD + " FROM Anime a WHERE a.type = :type ORDER BY a.malId")
+    List<AnimeCard> findCardsByType(@Param("type") String type);
 
     /**
      * Find top rated anime (with images for display)
+     * Ties are broken by MAL ID so the ranking is stable across queries
      */
-    @Query("SELECT a FROM Anime a WHERE a.score IS NOT NULL AND a.imageUrl IS NOT NULL ORDER BY a.score DESC")
-    List<Anime> findTopRated();
+    @Query("SELECT " + CARD + " FROM Anime a WHERE a.score IS NOT NULL AND a.imageUrl IS NOT NULL ORDER BY a.score DESC, a.malId ASC")
+    List<AnimeCard> findTopRated(Pageable pageable);
 
     /**
      * Find most popular anime
      */
-    @Query("SELECT a FROM Anime a WHERE a.popularity IS NOT NULL AND a.imageUrl IS NOT NULL ORDER BY a.popularity ASC")
-    List<Anime> findMostPopular();
+    @Query("SELECT " + CARD + " FROM Anime a WHERE a.popularity IS NOT NULL AND a.imageUrl IS NOT NULL ORDER BY a.popularity ASC, a.malId ASC")
+    List<AnimeCard> findMostPopular(Pageable pageable);
+
+    /**
+     * Find anime with images after the given MAL ID (keyset page for gallery display)
+     */
+    @Query("SELECT " + CARD + " FROM Anime a WHERE a.imageUrl IS NOT NULL AND a.malId > :after ORDER BY a.malId ASC")
+    List<AnimeCard> findWithImagesAfter(@Param("after") long after, Pageable pageable);
+
+    /**
+     * Row counts per type, with and without images, in one scan (seeds CatalogCounters)
+     */
+    @Query("SELECT new com.tweb.anime.dto.TypeCount(a.type, COUNT(a), COUNT(a.imageUrl)) FROM Anime a GROUP BY a.type")
+    List<TypeCount> countByType();
 
     /**
-     * Find anime with images (for gallery display)
+     * Every row ordered by ID, read through a server-side cursor
+     * Must be consumed inside a transaction and closed
      */
-    @Query("SELECT a FROM Anime a WHERE a.imageUrl IS NOT NULL")
-    List<Anime> findAllWithImages();
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM Anime a ORDER BY a.malId")
+    Stream<Anime> streamAll();
 }
\ No newline at end of file
@@ -1,35 +1,132 @@
 package com.tweb.anime.repository;
 
+import com.tweb.anime.config.CacheConfig;
+import com.tweb.anime.dto.CharacterCard;
+import com.tweb.anime.dto.IdName;
+import com.tweb.anime.dto.IdText;
+import com.tweb.anime.dto.WeightedName;
 import com.tweb.anime.model.Character;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Character Repository
  * For displaying character images in frontend
+ * List queries select {@link CharacterCard} projections without the about text
+ * Read-only by default, so queries can be routed to a read replica
  */
 @Repository
+@Transactional(readOnly = true)
 public interface CharacterRepository extends JpaRepository<Character, Long> {
 
+    /**
+     * Constructor expression selecting the card columns of alias {@code c}
+     */
+    String CARD = "new com.tweb.anime.dto.CharacterCard(c.characterId, c.name, c.nameKanji, c.imageUrl, c.favorites)";
+
+    /**
+     * Find by primary key, served from the entity cache when possible
+     * Evicted by CacheInvalidator when the row is written
+     */
+    @Override
+    @Cacheable(CacheConfig.CHARACTERS)
+    Optional<Character> findById(Long id);
+
+    /**
+     * Find many rows in one round trip
+     * The IDs are bound as a single array parameter, so every batch size shares one statement
+     */
+    @Query(value = "SELECT * FROM characters WHERE character_id = ANY(:ids)", nativeQuery = true)
+    List<Character> findAllByIdIn(@Param("ids") Long[] ids);
+
+    /**
+     * The most favorited of the given IDs, for ranking index hits
+     */
+    @Query(value = "SELECT character_id FROM characters WHERE character_id = ANY(:ids) "
+            + "ORDER BY favorites DESC NULLS LAST, character_id ASC LIMIT :limit", nativeQuery = true)
+    List<Long> findMostFavoritedIn(@Param("ids") Long[] ids, @Param("limit") int limit);
+
     /**
      * Search characters by name
+     * Sequential scan, the search endpoint uses the in-memory NameSearchIndex instead
      */
     @Query("SELECT c FROM Character c WHERE LOWER(c.name) LIKE LOWER(CONCAT('%', :name, '%'))")
     List<Character> findByNameContainingIgnoreCase(@Param("name") String name);
 
+    /**
+     * All IDs and names, ordered by ID (for the in-memory search index)
+     */
+    @Query("SELECT new com.tweb.anime.dto.IdName(c.characterId, c.name) FROM Character c ORDER BY c.characterId")
+    List<IdName> findAllNames();
+
+    /**
+     * All names weighted by favorites (for the in-memory autocomplete index)
+     */
+    @Query("SELECT new com.tweb.anime.dto.WeightedName(c.characterId, c.name, CAST(c.favorites AS Long)) FROM Character c")
+    List<WeightedName> findAllWeightedNames();
+
+    /**
+     * All IDs and about texts, ordered by ID (for the in-memory full-text index)
+     */
+    @Query("SELECT new com.tweb.anime.dto.IdText(c.characterId, c.about) FROM Character c ORDER BY c.characterId")
+    List<IdText> findAllTexts();
+
+    /**
+     * About texts of the given IDs, in no particular order (for full-text snippets)
+     */
+    @Query("SELECT new com.tweb.anime.dto.IdText(c.characterId, c.about) FROM Character c WHERE c.characterId IN :ids")
+    List<IdText> findTextsByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Cards for the given IDs, in no particular order
+     */
+    @Query("SELECT " + CARD + " FROM Character c WHERE c.characterId IN :ids")
+    List<CharacterCard> findCardsByIds(@Param("ids") Collection<Long> ids);
+
     /**
      * Find popular characters (with images)
      */
-    @Query("SELECT c FROM Character c WHERE c.favorites IS NOT NULL AND c.imageUrl IS NOT NULL ORDER BY c.favorites DESC")
-    List<Character> findPopularCharacters();
+    @Query("SELECT " + CARD + " FROM Character c WHERE c.favorites IS NOT NULL AND c.imageUrl IS NOT NULL ORDER BY c.favorites DESC, c.characterId ASC")
+    List<CharacterCard> findPopularCharacters(Pageable pageable);
+
+    /**
+     * Find characters with images after the given ID (keyset page)
+     */
+    @Query("SELECT " + CARD + " FROM Character c WHERE c.imageUrl IS NOT NULL AND c.characterId > :after ORDER BY c.characterId ASC")
+    List<CharacterCard> findWithImagesAfter(@Param("after") long after, Pageable pageable);
+
+    /**
+     * Find characters after the given ID (keyset page)
+     */
+    @Query("SELECT " + CARD + " FROM Character c WHERE c.characterId > :after ORDER BY c.characterId ASC")
+    List<CharacterCard> findAfter(@Param("after") long after, Pageable pageable);
+
+    /**
+     * Number of characters with an image (seeds CatalogCounters)
+     */
+    long countByImageUrlIsNotNull();
 
     /**
-     * Find characters with images
+     * Every row ordered by ID, read through a server-side cursor
+     * Must be consumed inside a transaction and closed
      */
-    @Query("SELECT c FROM Character c WHERE c.imageUrl IS NOT NULL")
-    List<Character> findAllWithImages();
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Character c ORDER BY c.characterId")
+    Stream<Character> streamAll();
 }
\ No newline at end of file
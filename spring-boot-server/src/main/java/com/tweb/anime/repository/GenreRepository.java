@@ -0,0 +1,83 @@
+package com.tweb.anime.repository;
+
+import com.tweb.anime.dto.IdName;
+import com.tweb.anime.model.Genre;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Genre Repository
+ * 
+ * Lookup table and anime_genres join table, derived from details.genres
+ * ("['Action', 'Drama']" or "Action, Drama"). The sync statements are
+ * set-based, run for a MAL ID range ([MIN, MAX] for the whole table) and
+ * only write the links that differ from the text column.
+ * Read-only by default, so queries can be routed to a read replica
+ */
+@Repository
+@Transactional(readOnly = true)
+public interface GenreRepository extends JpaRepository<Genre, Long> {
+
+    /**
+     * Split a details.genres value into one trimmed name per row
+     */
+    String SPLIT = "CROSS JOIN LATERAL regexp_split_to_table(trim(both '[] ' from d.genres), ',') AS s(tag) ";
+    String TAG = "trim(both ''' \" ' from s.tag)";
+
+    /**
+     * Links derived from the text column: (mal_id, genre_id) for the range
+     */
+    String LINKS = "SELECT DISTINCT d.mal_id, g.genre_id FROM details d " + SPLIT
+            + "JOIN genres g ON g.name = " + TAG + " WHERE d.mal_id BETWEEN :first AND :last";
+
+    /**
+     * All genres, alphabetically
+     */
+    List<Genre> findAllByOrderByNameAsc();
+
+    /**
+     * (MAL ID, genre name) pairs for the in-memory attribute index
+     */
+    @Query("SELECT new com.tweb.anime.dto.IdName(a.malId, g.name) FROM Anime a JOIN a.genreSet g")
+    List<IdName> findAnimeGenres();
+
+    /**
+     * @return whether anime_genres has any link
+     */
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM anime_genres)", nativeQuery = true)
+    boolean hasLinks();
+
+    /**
+     * Add genre names used in the range that are not in the lookup table yet
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO genres (name) SELECT DISTINCT " + TAG + " FROM details d " + SPLIT
+            + "WHERE d.mal_id BETWEEN :first AND :last AND " + TAG + " <> '' "
+            + "ON CONFLICT (name) DO NOTHING", nativeQuery = true)
+    int insertMissingNames(@Param("first") long first, @Param("last") long last);
+
+    /**
+     * Remove links of the range that the text column no longer has; unchanged links are not touched
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM anime_genres l USING (SELECT mal_id, genre_id FROM anime_genres "
+            + "WHERE mal_id BETWEEN :first AND :last EXCEPT " + LINKS + ") stale "
+            + "WHERE l.mal_id = stale.mal_id AND l.genre_id = stale.genre_id", nativeQuery = true)
+    int unlinkStale(@Param("first") long first, @Param("last") long last);
+
+    /**
+     * Add links of the range that are missing; existing links are skipped, not rewritten
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO anime_genres (mal_id, genre_id) " + LINKS + " ON CONFLICT DO NOTHING", nativeQuery = true)
+    int linkMissing(@Param("first") long first, @Param("last") long last);
+}
@@ -1,35 +1,132 @@
 package com.tweb.anime.repository;
 
+import com.tweb.anime.config.CacheConfig;
+import com.tweb.anime.dto.PersonCard;
+import com.tweb.anime.dto.IdName;
+import com.tweb.anime.dto.IdText;
+import com.tweb.anime.dto.WeightedName;
 import com.tweb.anime.model.Person;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Person Repository
  * For displaying actor/staff images in frontend
+ * List queries select {@link PersonCard} projections without the about text
+ * Read-only by default, so queries can be routed to a read replica
  */
 @Repository
+@Transactional(readOnly = true)
 public interface PersonRepository extends JpaRepository<Person, Long> {
 
+    /**
+     * Constructor expression selecting the card columns of alias {@code p}
+     */
+    String CARD = "new com.tweb.anime.dto.PersonCard(p.personId, p.name, p.imageUrl, p.favorites)";
+
+    /**
+     * Find by primary key, served from the entity cache when possible
+     * Evicted by CacheInvalidator when the row is written
+     */
+    @Override
+    @Cacheable(CacheConfig.PEOPLE)
+    Optional<Person> findById(Long id);
+
+    /**
+     * Find many rows in one round trip
+     * The IDs are bound as a single array parameter, so every batch size shares one statement
+     */
+    @Query(value = "SELECT * FROM person_details WHERE person_id = ANY(:ids)", nativeQuery = true)
+    List<Person> findAllByIdIn(@Param("ids") Long[] ids);
+
+    /**
+     * The most favorited of the given IDs, for ranking index hits
+     */
+    @Query(value = "SELECT person_id FROM person_details WHERE person_id = ANY(:ids) "
+            + "ORDER BY favorites DESC NULLS LAST, person_id ASC LIMIT :limit", nativeQuery = true)
+    List<Long> findMostFavoritedIn(@Param("ids") Long[] ids, @Param("limit") int limit);
+
     /**
      * Search people by name
+     * Sequential scan, the search endpoint uses the in-memory NameSearchIndex instead
      */
     @Query("SELECT p FROM Person p WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))")
     List<Person> findByNameContainingIgnoreCase(@Param("name") String name);
 
+    /**
+     * All IDs and names, ordered by ID (for the in-memory search index)
+     */
+    @Query("SELECT new com.tweb.anime.dto.IdName(p.personId, p.name) FROM Person p ORDER BY p.personId")
+    List<IdName> findAllNames();
+
+    /**
+     * All names weighted by favorites (for the in-memory autocomplete index)
+     */
+    @Query("SELECT new com.tweb.anime.dto.WeightedName(p.personId, p.name, CAST(p.favorites AS Long)) FROM Person p")
+    List<WeightedName> findAllWeightedNames();
+
+    /**
+     * All IDs and about texts, ordered by ID (for the in-memory full-text index)
+     */
+    @Query("SELECT new com.tweb.anime.dto.IdText(p.personId, p.about) FROM Person p ORDER BY p.personId")
+    List<IdText> findAllTexts();
+
+    /**
+     * About texts of the given IDs, in no particular order (for full-text snippets)
+     */
+    @Query("SELECT new com.tweb.anime.dto.IdText(p.personId, p.about) FROM Person p WHERE p.personId IN :ids")
+    List<IdText> findTextsByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Cards for the given IDs, in no particular order
+     */
+    @Query("SELECT " + CARD + " FROM Person p WHERE p.personId IN :ids")
+    List<PersonCard> findCardsByIds(@Param("ids") Collection<Long> ids);
+
     /**
      * Find popular people (voice actors, staff)
      */
-    @Query("SELECT p FROM Person p WHERE p.favorites IS NOT NULL AND p.imageUrl IS NOT NULL ORDER BY p.favorites DESC")
-    List<Person> findPopularPeople();
+    @Query("SELECT " + CARD + " FROM Person p WHERE p.favorites IS NOT NULL AND p.imageUrl IS NOT NULL ORDER BY p.favorites DESC, p.personId ASC")
+    List<PersonCard> findPopularPeople(Pageable pageable);
+
+    /**
+     * Find people with images after the given ID (keyset page)
+     */
+    @Query("SELECT " + CARD + " FROM Person p WHERE p.imageUrl IS NOT NULL AND p.personId > :after ORDER BY p.personId ASC")
+    List<PersonCard> findWithImagesAfter(@Param("after") long after, Pageable pageable);
+
+    /**
+     * Find people after the given ID (keyset page)
+     */
+    @Query("SELECT " + CARD + " FROM Person p WHERE p.personId > :after ORDER BY p.personId ASC")
+    List<PersonCard> findAfter(@Param("after") long after, Pageable pageable);
+
+    /**
+     * Number of people with an image (seeds CatalogCounters)
+     */
+    long countByImageUrlIsNotNull();
 
     /**
-     * Find people with images
+     * Every row ordered by ID, read through a server-side cursor
+     * Must be consumed inside a transaction and closed
      */
-    @Query("SELECT p FROM Person p WHERE p.imageUrl IS NOT NULL")
-    List<Person> findAllWithImages();
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Person p ORDER BY p.personId")
+    Stream<Person> streamAll();
 }
\ No newline at end of file
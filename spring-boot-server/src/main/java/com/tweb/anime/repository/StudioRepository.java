@@ -0,0 +1,83 @@
+package com.tweb.anime.repository;
+
+import com.tweb.anime.dto.IdName;
+import com.tweb.anime.model.Studio;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Studio Repository
+ * 
+ * Lookup table and anime_studios join table, derived from details.studios
+ * ("['Madhouse']" or "Sunrise, Bones"). The sync statements are
+ * set-based, run for a MAL ID range ([MIN, MAX] for the whole table) and
+ * only write the links that differ from the text column.
+ * Read-only by default, so queries can be routed to a read replica
+ */
+@Repository
+@Transactional(readOnly = true)
+public interface StudioRepository extends JpaRepository<Studio, Long> {
+
+    /**
+     * Split a details.studios value into one trimmed name per row
+     */
+    String SPLIT = "CROSS JOIN LATERAL regexp_split_to_table(trim(both '[] ' from d.studios), ',') AS s(tag) ";
+    String TAG = "trim(both ''' \" ' from s.tag)";
+
+    /**
+     * Links derived from the text column: (mal_id, studio_id) for the range
+     */
+    String LINKS = "SELECT DISTINCT d.mal_id, st.studio_id FROM details d " + SPLIT
+            + "JOIN studios st ON st.name = " + TAG + " WHERE d.mal_id BETWEEN :first AND :last";
+
+    /**
+     * All studios, alphabetically
+     */
+    List<Studio> findAllByOrderByNameAsc();
+
+    /**
+     * (MAL ID, studio name) pairs for the in-memory attribute index
+     */
+    @Query("SELECT new com.tweb.anime.dto.IdName(a.malId, s.name) FROM Anime a JOIN a.studioSet s")
+    List<IdName> findAnimeStudios();
+
+    /**
+     * @return whether anime_studios has any link
+     */
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM anime_studios)", nativeQuery = true)
+    boolean hasLinks();
+
+    /**
+     * Add studio names used in the range that are not in the lookup table yet
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO studios (name) SELECT DISTINCT " + TAG + " FROM details d " + SPLIT
+            + "WHERE d.mal_id BETWEEN :first AND :last AND " + TAG + " <> '' "
+            + "ON CONFLICT (name) DO NOTHING", nativeQuery = true)
+    int insertMissingNames(@Param("first") long first, @Param("last") long last);
+
+    /**
+     * Remove links of the range that the text column no longer has; unchanged links are not touched
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM anime_studios l USING (SELECT mal_id, studio_id FROM anime_studios "
+            + "WHERE mal_id BETWEEN :first AND :last EXCEPT " + LINKS + ") stale "
+            + "WHERE l.mal_id = stale.mal_id AND l.studio_id = stale.studio_id", nativeQuery = true)
+    int unlinkStale(@Param("first") long first, @Param("last") long last);
+
+    /**
+     * Add links of the range that are missing; existing links are skipped, not rewritten
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO anime_studios (mal_id, studio_id) " + LINKS + " ON CONFLICT DO NOTHING", nativeQuery = true)
+    int linkMissing(@Param("first") long first, @Param("last") long last);
+}
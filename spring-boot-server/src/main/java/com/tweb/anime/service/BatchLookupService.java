@@ -0,0 +1,98 @@
+package com.tweb.anime.service;
+
+import com.tweb.anime.config.CacheConfig;
+import com.tweb.anime.dto.BatchResult;
+import com.tweb.anime.model.Anime;
+import com.tweb.anime.model.Character;
+import com.tweb.anime.model.Person;
+import com.tweb.anime.repository.AnimeRepository;
+import com.tweb.anime.repository.CharacterRepository;
+import com.tweb.anime.repository.PersonRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Batch Lookup Service
+ *
+ * Resolves many IDs at once: entities already in the by-ID cache are
+ * served from memory, the rest are loaded with a single
+ * {@code WHERE id = ANY(?)} query and added to the cache.
+ */
+@Service
+public class BatchLookupService {
+
+    private final AnimeRepository animeRepository;
+    private final CharacterRepository characterRepository;
+    private final PersonRepository personRepository;
+    private final CacheManager cacheManager;
+
+    public BatchLookupService(AnimeRepository animeRepository,
+                              CharacterRepository characterRepository,
+                              PersonRepository personRepository,
+                              CacheManager cacheManager) {
+        this.animeRepository = animeRepository;
+        this.characterRepository = characterRepository;
+        this.personRepository = personRepository;
+        this.cacheManager = cacheManager;
+    }
+
+    public BatchResult<Anime> findAnime(List<Long> ids) {
+        return lookup(ids, CacheConfig.ANIME, Anime.class, animeRepository::findAllByIdIn, Anime::getMalId);
+    }
+
+    public BatchResult<Character> findCharacters(List<Long> ids) {
+        return lookup(ids, CacheConfig.CHARACTERS, Character.class,
+                characterRepository::findAllByIdIn, Character::getCharacterId);
+    }
+
+    public BatchResult<Person> findPeople(List<Long> ids) {
+        return lookup(ids, CacheConfig.PEOPLE, Person.class, personRepository::findAllByIdIn, Person::getPersonId);
+    }
+
+    private <T> BatchResult<T> lookup(List<Long> ids, String cacheName, Class<T> type,
+                                      Function<Long[], List<T>> loader, ToLongFunction<T> idOf) {
+        LinkedHashSet<Long> requested = new LinkedHashSet<>(ids);
+        Cache cache = cacheManager.getCache(cacheName);
+        Map<Long, T> found = new HashMap<>(requested.size() * 4 / 3 + 1);
+        List<Long> misses = new ArrayList<>();
+
+        for (Long id : requested) {
+            T cached = cache == null ? null : cache.get(id, type);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                misses.add(id);
+            }
+        }
+        if (!misses.isEmpty()) {
+            for (T row : loader.apply(misses.toArray(Long[]::new))) {
+                long id = idOf.applyAsLong(row);
+                found.put(id, row);
+                if (cache != null) {
+                    cache.put(id, row);
+                }
+            }
+        }
+
+        List<T> items = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : requested) {
+            T row = found.get(id);
+            if (row != null) {
+                items.add(row);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new BatchResult<>(items, missing);
+    }
+}
@@ -0,0 +1,228 @@
+package com.tweb.anime.service;
+
+import com.tweb.anime.dto.AnimeCard;
+import com.tweb.anime.dto.CharacterCard;
+import com.tweb.anime.dto.PersonCard;
+import com.tweb.anime.dto.SearchHit;
+import com.tweb.anime.dto.SearchResults;
+import com.tweb.anime.index.FuzzySearchIndex;
+import com.tweb.anime.index.IdLists;
+import com.tweb.anime.index.NameSearchIndex;
+import com.tweb.anime.index.TrigramIndex;
+import com.tweb.anime.repository.AnimeRepository;
+import com.tweb.anime.repository.CharacterRepository;
+import com.tweb.anime.repository.PersonRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiFunction;
+import java.util.stream.LongStream;
+
+/**
+ * Catalog Search Service
+ *
+ * Searches anime, characters and people at once. The three sub-queries
+ * run concurrently on a bounded pool and share one time budget; a source
+ * that is rejected by the pool, fails or misses the budget is left out
+ * and reported as incomplete instead of failing the whole search.
+ *
+ * Every source takes its index hits, keeps the most popular {@code limit}
+ * of them and turns the cards into {@link SearchHit}s. Relevance is the
+ * match quality (exact, prefix, word prefix, substring, fuzzy; 0.2 apart)
+ * plus a popularity boost of at most {@value #POPULARITY_WEIGHT}, so a
+ * better match always outranks a more popular one.
+ */
+@Service
+public class CatalogSearchService implements DisposableBean {
+
+    public static final String ANIME = "anime";
+    public static final String CHARACTER = "character";
+    public static final String PERSON = "person";
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSearchService.class);
+
+    private static final double POPULARITY_WEIGHT = 0.15;
+
+    private final AnimeRepository animeRepository;
+    private final CharacterRepository characterRepository;
+    private final PersonRepository personRepository;
+    private final NameSearchIndex nameSearchIndex;
+    private final FuzzySearchIndex fuzzySearchIndex;
+    private final ExecutorService executor;
+    private final Duration timeout;
+
+    public CatalogSearchService(AnimeRepository animeRepository,
+                                CharacterRepository characterRepository,
+                                PersonRepository personRepository,
+                                NameSearchIndex nameSearchIndex,
+                                FuzzySearchIndex fuzzySearchIndex,
+                                MeterRegistry meterRegistry,
+                                @Value("${catalog.search.threads:6}") int threads,
+                                @Value("${catalog.search.queue-capacity:60}") int queueCapacity,
+                                @Value("${catalog.search.timeout:PT0.5S}") Duration timeout) {
+        this.animeRepository = animeRepository;
+        this.characterRepository = characterRepository;
+        this.personRepository = personRepository;
+        this.nameSearchIndex = nameSearchIndex;
+        this.fuzzySearchIndex = fuzzySearchIndex;
+        this.timeout = timeout;
+        // Sub-queries beyond pool + queue are rejected rather than waiting
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry,
+                new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("search-")),
+                "catalog.search");
+    }
+
+    public SearchResults search(String query, int limit, boolean fuzzy) {
+        String key = TrigramIndex.normalize(query.trim());
+        Map<String, Callable<Partial>> sources = new LinkedHashMap<>();
+        sources.put(ANIME, () -> searchAnime(key, limit, fuzzy));
+        sources.put(CHARACTER, () -> searchCharacters(key, limit, fuzzy));
+        sources.put(PERSON, () -> searchPeople(key, limit, fuzzy));
+
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Map<String, Future<Partial>> running = new LinkedHashMap<>();
+        List<String> incomplete = new ArrayList<>();
+        sources.forEach((type, task) -> {
+            try {
+                running.put(type, executor.submit(task));
+            } catch (RejectedExecutionException e) {
+                incomplete.add(type);
+            }
+        });
+
+        List<SearchHit> hits = new ArrayList<>();
+        Map<String, Integer> totals = new LinkedHashMap<>();
+        for (Map.Entry<String, Future<Partial>> source : running.entrySet()) {
+            Future<Partial> future = source.getValue();
+            try {
+                Partial partial = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                hits.addAll(partial.hits());
+                totals.put(source.getKey(), partial.total());
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                incomplete.add(source.getKey());
+            } catch (ExecutionException e) {
+                log.warn("Search of {} failed for '{}'", source.getKey(), query, e.getCause());
+                incomplete.add(source.getKey());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                incomplete.add(source.getKey());
+            }
+        }
+
+        hits.sort(Comparator.comparingDouble(SearchHit::relevance).reversed());
+        return new SearchResults(hits.subList(0, Math.min(limit, hits.size())), totals, incomplete);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private Partial searchAnime(String key, int limit, boolean fuzzy) {
+        long[] hits = fuzzy ? fuzzySearchIndex.searchAnime(key) : nameSearchIndex.searchAnime(key);
+        List<Long> ids = fuzzy ? IdLists.slice(hits, 0, limit) : mostPopular(hits, limit, animeRepository::findMostPopularIn);
+        List<SearchHit> found = new ArrayList<>(ids.size());
+        for (AnimeCard card : animeRepository.findCardsByIds(ids)) {
+            // Fuzzy hits may have matched on the English or Japanese title
+            double match = Math.max(match(key, card.title()),
+                    Math.max(match(key, card.titleEnglish()), match(key, card.titleJapanese())));
+            found.add(new SearchHit(ANIME, card.malId(), card.title(), card.imageUrl(),
+                    match + POPULARITY_WEIGHT * rankBoost(card.popularity())));
+        }
+        return new Partial(hits.length, found);
+    }
+
+    private Partial searchCharacters(String key, int limit, boolean fuzzy) {
+        long[] hits = fuzzy ? fuzzySearchIndex.searchCharacters(key) : nameSearchIndex.searchCharacters(key);
+        List<Long> ids = fuzzy ? IdLists.slice(hits, 0, limit)
+                : mostPopular(hits, limit, characterRepository::findMostFavoritedIn);
+        List<SearchHit> found = new ArrayList<>(ids.size());
+        for (CharacterCard card : characterRepository.findCardsByIds(ids)) {
+            double match = Math.max(match(key, card.name()), match(key, card.nameKanji()));
+            found.add(new SearchHit(CHARACTER, card.characterId(), card.name(), card.imageUrl(),
+                    match + POPULARITY_WEIGHT * favoritesBoost(card.favorites())));
+        }
+        return new Partial(hits.length, found);
+    }
+
+    private Partial searchPeople(String key, int limit, boolean fuzzy) {
+        long[] hits = fuzzy ? fuzzySearchIndex.searchPeople(key) : nameSearchIndex.searchPeople(key);
+        List<Long> ids = fuzzy ? IdLists.slice(hits, 0, limit)
+                : mostPopular(hits, limit, personRepository::findMostFavoritedIn);
+        List<SearchHit> found = new ArrayList<>(ids.size());
+        for (PersonCard card : personRepository.findCardsByIds(ids)) {
+            found.add(new SearchHit(PERSON, card.personId(), card.name(), card.imageUrl(),
+                    match(key, card.name()) + POPULARITY_WEIGHT * favoritesBoost(card.favorites())));
+        }
+        return new Partial(hits.length, found);
+    }
+
+    private static List<Long> mostPopular(long[] hits, int limit, BiFunction<Long[], Integer, List<Long>> ranking) {
+        if (hits.length == 0) {
+            return List.of();
+        }
+        return ranking.apply(LongStream.of(hits).boxed().toArray(Long[]::new), limit);
+    }
+
+    /**
+     * 1.0 exact, 0.8 prefix, 0.6 word prefix, 0.4 substring, 0.2 otherwise (fuzzy hit)
+     */
+    private static double match(String key, String name) {
+        String normalized = TrigramIndex.normalize(name);
+        if (normalized == null) {
+            return 0;
+        }
+        normalized = normalized.trim();
+        if (normalized.equals(key)) {
+            return 1.0;
+        }
+        if (normalized.startsWith(key)) {
+            return 0.8;
+        }
+        if (normalized.contains(" " + key)) {
+            return 0.6;
+        }
+        return normalized.contains(key) ? 0.4 : 0.2;
+    }
+
+    /**
+     * 1 for popularity rank 1, 0.5 for rank 10, 0.25 for rank 1000
+     */
+    private static double rankBoost(Integer rank) {
+        return rank == null || rank < 1 ? 0 : 1 / (1 + Math.log10(rank));
+    }
+
+    /**
+     * 0 for no favorites, 1 from 100k favorites up
+     */
+    private static double favoritesBoost(Integer favorites) {
+        return favorites == null || favorites <= 0 ? 0 : Math.min(1, Math.log10(1 + favorites) / 5);
+    }
+
+    private record Partial(int total, List<SearchHit> hits) {
+    }
+}
@@ -0,0 +1,109 @@
+package com.tweb.anime.service;
+
+import com.tweb.anime.dto.AnimeCard;
+import com.tweb.anime.dto.CharacterCard;
+import com.tweb.anime.dto.IdText;
+import com.tweb.anime.dto.PersonCard;
+import com.tweb.anime.dto.TextHit;
+import com.tweb.anime.dto.TextSearchResults;
+import com.tweb.anime.index.FullTextIndex;
+import com.tweb.anime.index.IdLists;
+import com.tweb.anime.index.InvertedIndex;
+import com.tweb.anime.index.Snippets;
+import com.tweb.anime.repository.AnimeRepository;
+import com.tweb.anime.repository.CharacterRepository;
+import com.tweb.anime.repository.PersonRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Full-Text Search Service
+ *
+ * Ranks documents with the in-memory {@link FullTextIndex}, then loads the
+ * cards and texts of the requested page only (two {@code IN} queries) to
+ * cut the highlighted snippets.
+ */
+@Service
+public class FullTextSearchService {
+
+    private final AnimeRepository animeRepository;
+    private final CharacterRepository characterRepository;
+    private final PersonRepository personRepository;
+    private final FullTextIndex fullTextIndex;
+
+    public FullTextSearchService(AnimeRepository animeRepository,
+                                 CharacterRepository characterRepository,
+                                 PersonRepository personRepository,
+                                 FullTextIndex fullTextIndex) {
+        this.animeRepository = animeRepository;
+        this.characterRepository = characterRepository;
+        this.personRepository = personRepository;
+        this.fullTextIndex = fullTextIndex;
+    }
+
+    public TextSearchResults searchAnime(String query, int limit, int offset) {
+        InvertedIndex.Hits hits = fullTextIndex.searchAnime(query, offset + limit);
+        List<Long> page = IdLists.slice(hits.ids(), offset, limit);
+        if (page.isEmpty()) {
+            return new TextSearchResults(List.of(), hits.total());
+        }
+        Map<Long, AnimeCard> cards = byId(animeRepository.findCardsByIds(page), AnimeCard::malId);
+        return results(CatalogSearchService.ANIME, query, hits, offset, animeRepository.findTextsByIds(page),
+                id -> cards.get(id) == null ? null : new Card(cards.get(id).title(), cards.get(id).imageUrl()));
+    }
+
+    public TextSearchResults searchCharacters(String query, int limit, int offset) {
+        InvertedIndex.Hits hits = fullTextIndex.searchCharacters(query, offset + limit);
+        List<Long> page = IdLists.slice(hits.ids(), offset, limit);
+        if (page.isEmpty()) {
+            return new TextSearchResults(List.of(), hits.total());
+        }
+        Map<Long, CharacterCard> cards = byId(characterRepository.findCardsByIds(page), CharacterCard::characterId);
+        return results(CatalogSearchService.CHARACTER, query, hits, offset, characterRepository.findTextsByIds(page),
+                id -> cards.get(id) == null ? null : new Card(cards.get(id).name(), cards.get(id).imageUrl()));
+    }
+
+    public TextSearchResults searchPeople(String query, int limit, int offset) {
+        InvertedIndex.Hits hits = fullTextIndex.searchPeople(query, offset + limit);
+        List<Long> page = IdLists.slice(hits.ids(), offset, limit);
+        if (page.isEmpty()) {
+            return new TextSearchResults(List.of(), hits.total());
+        }
+        Map<Long, PersonCard> cards = byId(personRepository.findCardsByIds(page), PersonCard::personId);
+        return results(CatalogSearchService.PERSON, query, hits, offset, personRepository.findTextsByIds(page),
+                id -> cards.get(id) == null ? null : new Card(cards.get(id).name(), cards.get(id).imageUrl()));
+    }
+
+    /**
+     * Hits of the page in ranking order; rows deleted since indexing are skipped
+     */
+    private static TextSearchResults results(String type, String query, InvertedIndex.Hits hits, int offset,
+                                             List<IdText> texts, Function<Long, Card> cards) {
+        Map<Long, String> textById = new HashMap<>();
+        texts.forEach(text -> textById.put(text.id(), text.text()));
+        List<TextHit> page = new ArrayList<>();
+        for (int i = offset; i < hits.ids().length; i++) {
+            long id = hits.ids()[i];
+            Card card = cards.apply(id);
+            if (card != null) {
+                page.add(new TextHit(type, id, card.name(), card.imageUrl(), hits.scores()[i],
+                        Snippets.of(textById.get(id), query)));
+            }
+        }
+        return new TextSearchResults(page, hits.total());
+    }
+
+    private static <T> Map<Long, T> byId(List<T> cards, Function<T, Long> id) {
+        Map<Long, T> byId = new HashMap<>();
+        cards.forEach(card -> byId.put(id.apply(card), card));
+        return byId;
+    }
+
+    private record Card(String name, String imageUrl) {
+    }
+}
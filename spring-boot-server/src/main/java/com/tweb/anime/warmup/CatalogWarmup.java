@@ -0,0 +1,166 @@
+package com.tweb.anime.warmup;
+
+import com.tweb.anime.dto.AnimeCard;
+import com.tweb.anime.dto.CharacterCard;
+import com.tweb.anime.dto.PersonCard;
+import com.tweb.anime.index.CatalogIndexLoader;
+import com.tweb.anime.index.RankingIndex;
+import com.tweb.anime.service.BatchLookupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Catalog Warm-up
+ *
+ * Runs in the background once the application has started, so the first
+ * users after a deploy do not pay for cold indexes, caches and JIT:
+ * <ol>
+ *   <li>builds every in-memory index (ranking lists, search, facets),</li>
+ *   <li>loads the most popular anime, characters and people into the by-ID caches,</li>
+ *   <li>replays the homepage, gallery, lookup and search requests against the
+ *       local server until the hot paths are compiled.</li>
+ * </ol>
+ * Readiness ({@link WarmupHealthIndicator}) is held back until the last
+ * stage finishes or the deadline passes; past the deadline the remaining
+ * requests are skipped.
+ *
+ * Only runs in a web application and can be turned off with
+ * catalog.warmup.enabled=false; indexes then load lazily on first use.
+ * Replayed requests are marked by {@link WarmupRequests}.
+ */
+@Component
+@ConditionalOnWebApplication
+@ConditionalOnProperty(name = "catalog.warmup.enabled", matchIfMissing = true)
+public class CatalogWarmup {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogWarmup.class);
+
+    private static final List<String> HOT_PATHS = List.of(
+            "/api/anime/top-rated", "/api/anime/popular", "/api/characters/popular", "/api/people/popular",
+            "/api/anime/gallery", "/api/characters/gallery", "/api/people/gallery",
+            "/api/anime/count", "/api/anime/count/types", "/api/anime/genres",
+            "/api/anime/search?title=one", "/api/anime/autocomplete?q=na", "/api/search?q=naruto",
+            "/api/search/text/anime?q=hero+friendship");
+
+    private final CatalogIndexLoader indexLoader;
+    private final RankingIndex rankingIndex;
+    private final BatchLookupService batchLookupService;
+    private final WarmupRequests warmupRequests;
+    private final int cacheEntries;
+    private final int iterations;
+    private final Duration deadline;
+
+    private volatile String stage = "pending";
+    private volatile long deadlineNanos = Long.MAX_VALUE;
+    private volatile boolean finished;
+
+    public CatalogWarmup(CatalogIndexLoader indexLoader,
+                         RankingIndex rankingIndex,
+                         BatchLookupService batchLookupService,
+                         WarmupRequests warmupRequests,
+                         @Value("${catalog.warmup.cache-entries:500}") int cacheEntries,
+                         @Value("${catalog.warmup.iterations:100}") int iterations,
+                         @Value("${catalog.warmup.deadline:PT1M}") Duration deadline) {
+        this.indexLoader = indexLoader;
+        this.rankingIndex = rankingIndex;
+        this.batchLookupService = batchLookupService;
+        this.warmupRequests = warmupRequests;
+        this.cacheEntries = cacheEntries;
+        this.iterations = iterations;
+        this.deadline = deadline;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start(ApplicationReadyEvent event) {
+        deadlineNanos = System.nanoTime() + deadline.toNanos();
+        String baseUrl = event.getApplicationContext() instanceof WebServerApplicationContext web
+                ? "http://localhost:" + web.getWebServer().getPort() : null;
+        Thread thread = new Thread(() -> run(baseUrl), "warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public boolean isPastDeadline() {
+        return System.nanoTime() - deadlineNanos > 0;
+    }
+
+    public String getStage() {
+        return stage;
+    }
+
+    private void run(String baseUrl) {
+        long start = System.nanoTime();
+        try {
+            stage = "indexes";
+            indexLoader.loadAll();
+            if (!isPastDeadline()) {
+                stage = "caches";
+                preloadCaches();
+            }
+            if (!isPastDeadline() && baseUrl != null) {
+                stage = "requests";
+                replay(baseUrl);
+            }
+            stage = isPastDeadline() ? "deadline passed" : "done";
+        } catch (RuntimeException e) {
+            stage = "failed";
+            log.warn("Warm-up stopped: {}", e.getMessage());
+        } finally {
+            finished = true;
+            log.info("Warm-up {} after {} ms", stage, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    private void preloadCaches() {
+        batchLookupService.findAnime(rankingIndex.mostPopularAnime(cacheEntries).stream()
+                .map(AnimeCard::malId).toList());
+        batchLookupService.findCharacters(rankingIndex.popularCharacters(cacheEntries).stream()
+                .map(CharacterCard::characterId).toList());
+        batchLookupService.findPeople(rankingIndex.popularPeople(cacheEntries).stream()
+                .map(PersonCard::personId).toList());
+    }
+
+    private void replay(String baseUrl) {
+        List<String> paths = new ArrayList<>(HOT_PATHS);
+        // By-ID lookups of popular entities, served from the caches filled above
+        rankingIndex.mostPopularAnime(10).forEach(card -> {
+            paths.add("/api/anime/" + card.malId());
+            paths.add("/api/anime/" + card.malId() + "/similar");
+        });
+        rankingIndex.popularCharacters(5).forEach(card -> paths.add("/api/characters/" + card.characterId()));
+        rankingIndex.popularPeople(5).forEach(card -> paths.add("/api/people/" + card.personId()));
+
+        RestClient client = RestClient.create(baseUrl);
+        int failed = 0;
+        for (int i = 0; i < iterations && !isPastDeadline(); i++) {
+            for (String path : paths) {
+                try {
+                    client.get().uri(path).header(WarmupRequests.HEADER, warmupRequests.token())
+                            .retrieve().toBodilessEntity();
+                } catch (RestClientException e) {
+                    failed++;
+                }
+            }
+        }
+        if (failed > 0) {
+            log.debug("{} warm-up requests failed", failed);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.tweb.anime.warmup;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports OUT_OF_SERVICE while {@link CatalogWarmup} is running and UP once
+ * it has finished or its deadline has passed, or when there is no warm-up
+ * (disabled, or not a web application). Part of the readiness group
+ * (/actuator/health/readiness), not of liveness.
+ */
+@Component("warmup")
+public class WarmupHealthIndicator extends AbstractHealthIndicator {
+
+    private final ObjectProvider<CatalogWarmup> warmup;
+
+    public WarmupHealthIndicator(ObjectProvider<CatalogWarmup> warmup) {
+        this.warmup = warmup;
+    }
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        CatalogWarmup current = warmup.getIfAvailable();
+        if (current == null) {
+            builder.up().withDetail("stage", "disabled");
+            return;
+        }
+        if (current.isFinished() || current.isPastDeadline()) {
+            builder.up();
+        } else {
+            builder.outOfService();
+        }
+        builder.withDetail("stage", current.getStage());
+    }
+}
@@ -0,0 +1,35 @@
+package com.tweb.anime.warmup;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.HexFormat;
+
+/**
+ * Marks the requests {@link CatalogWarmup} replays against the local server,
+ * so admission control and the http.server.requests metrics can leave them
+ * out. The header carries a random token chosen at startup: a client cannot
+ * use it to skip a bulkhead.
+ */
+@Component
+public class WarmupRequests {
+
+    static final String HEADER = "X-Catalog-Warmup";
+
+    private final String token;
+
+    public WarmupRequests() {
+        byte[] bytes = new byte[16];
+        new SecureRandom().nextBytes(bytes);
+        this.token = HexFormat.of().formatHex(bytes);
+    }
+
+    public boolean matches(HttpServletRequest request) {
+        return token.equals(request.getHeader(HEADER));
+    }
+
+    String token() {
+        return token;
+    }
+}
@@ -0,0 +1,155 @@
+package com.tweb.anime.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+/**
+ * Admission Control Filter
+ *
+ * Admits every /api request through the {@link Bulkhead} of its
+ * {@link EndpointGroup}, so a burst of heavy list or export calls cannot
+ * take all request threads and pool connections from cheap lookups. A
+ * saturated group answers 503 with Retry-After without touching the
+ * database. Async requests (streamed exports) keep their permit until the
+ * response is complete. Requests matching the exempt predicate (the
+ * startup warm-up's own requests) bypass the bulkheads and their metrics.
+ *
+ * Metrics per group: catalog.admission.queue (time waiting for a permit),
+ * catalog.admission.rejected, catalog.admission.active and .waiting.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final Map<EndpointGroup, Bulkhead> bulkheads;
+    private final Map<EndpointGroup, String> retryAfter = new EnumMap<>(EndpointGroup.class);
+    private final Map<EndpointGroup, Timer> queueTimers = new EnumMap<>(EndpointGroup.class);
+    private final Map<EndpointGroup, Counter> rejections = new EnumMap<>(EndpointGroup.class);
+    private final Predicate<HttpServletRequest> exempt;
+
+    public AdmissionControlFilter(Map<EndpointGroup, Bulkhead> bulkheads,
+                                  Map<EndpointGroup, Duration> retryAfter,
+                                  MeterRegistry meterRegistry,
+                                  Predicate<HttpServletRequest> exempt) {
+        this.bulkheads = new EnumMap<>(bulkheads);
+        this.exempt = exempt;
+        bulkheads.forEach((group, bulkhead) -> {
+            this.retryAfter.put(group, Long.toString(Math.max(1, retryAfter.get(group).toSeconds())));
+            queueTimers.put(group, Timer.builder("catalog.admission.queue")
+                    .description("Time requests waited for a permit of their endpoint group")
+                    .tag("group", group.key())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+            rejections.put(group, Counter.builder("catalog.admission.rejected")
+                    .description("Requests answered 503 because their endpoint group was saturated")
+                    .tag("group", group.key())
+                    .register(meterRegistry));
+            Gauge.builder("catalog.admission.active", bulkhead, Bulkhead::getActive)
+                    .description("Requests of the endpoint group being processed")
+                    .tag("group", group.key())
+                    .register(meterRegistry);
+            Gauge.builder("catalog.admission.waiting", bulkhead, Bulkhead::getWaiting)
+                    .description("Requests of the endpoint group waiting for a permit")
+                    .tag("group", group.key())
+                    .register(meterRegistry);
+        });
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        // Classified on the path handler mapping matches (decoded, ;params removed, // collapsed),
+        // not the raw URI, so /api/characters/all;x=1 or /api/characters/%61ll stay in LIST
+        Optional<EndpointGroup> group = "OPTIONS".equals(request.getMethod()) ? Optional.empty()
+                : EndpointGroup.of(UrlPathHelper.defaultInstance.getPathWithinApplication(request));
+        Bulkhead bulkhead = group.map(bulkheads::get).orElse(null);
+        if (bulkhead == null || exempt.test(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean admitted;
+        try {
+            admitted = bulkhead.tryEnter();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        queueTimers.get(group.get()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (!admitted) {
+            rejections.get(group.get()).increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter.get(group.get()));
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            async = request.isAsyncStarted();
+            if (async) {
+                request.getAsyncContext().addListener(new ReleaseOnCompletion(bulkhead));
+            }
+        } finally {
+            if (!async) {
+                bulkhead.release();
+            }
+        }
+    }
+
+    private static final class ReleaseOnCompletion implements AsyncListener {
+
+        private final Bulkhead bulkhead;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReleaseOnCompletion(Bulkhead bulkhead) {
+            this.bulkhead = bulkhead;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                bulkhead.release();
+            }
+        }
+    }
+}
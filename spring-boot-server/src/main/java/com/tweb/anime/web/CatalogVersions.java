@@ -0,0 +1,65 @@
+package com.tweb.anime.web;
+
+import com.tweb.anime.event.CatalogChangeEvent;
+import com.tweb.anime.model.Anime;
+import com.tweb.anime.model.Character;
+import com.tweb.anime.model.Person;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Catalog Versions
+ *
+ * A version counter and last-modified time per entity type, bumped after
+ * every committed write. ETags are derived from these counters, so they
+ * can be checked before running any query. The boot id makes ETags from a
+ * previous run (when data may have been reloaded out of band) stale.
+ */
+@Component
+public class CatalogVersions {
+
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Class<?>, AtomicLong> versions = Map.of(
+            Anime.class, new AtomicLong(),
+            Character.class, new AtomicLong(),
+            Person.class, new AtomicLong());
+    private final Map<Class<?>, AtomicLong> lastModified = Map.of(
+            Anime.class, new AtomicLong(System.currentTimeMillis()),
+            Character.class, new AtomicLong(System.currentTimeMillis()),
+            Person.class, new AtomicLong(System.currentTimeMillis()));
+
+    /**
+     * Weak ETag covering the given entity types
+     */
+    public String etag(Class<?>... types) {
+        StringBuilder tag = new StringBuilder("W/\"").append(bootId);
+        for (Class<?> type : types) {
+            tag.append('-').append(versions.get(type).get());
+        }
+        return tag.append('"').toString();
+    }
+
+    /**
+     * Latest write time among the given entity types, in epoch millis
+     */
+    public long lastModified(Class<?>... types) {
+        long latest = 0;
+        for (Class<?> type : types) {
+            latest = Math.max(latest, lastModified.get(type).get());
+        }
+        return latest;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        versions.forEach((type, version) -> {
+            if (event.concerns(type)) {
+                version.incrementAndGet();
+                lastModified.get(type).set(System.currentTimeMillis());
+            }
+        });
+    }
+}
@@ -0,0 +1,31 @@
+package com.tweb.anime.web;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a GET endpoint whose response only depends on catalog data
+ *
+ * {@link ConditionalGetInterceptor} answers it with 304 Not Modified when
+ * the client's ETag / Last-Modified still matches the catalog version of
+ * the listed entities. Otherwise successful responses get the ETag,
+ * Last-Modified and Cache-Control headers; error responses get none.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConditionalGet {
+
+    /**
+     * Entity types the response is built from
+     */
+    Class<?>[] value();
+
+    /**
+     * Cache-Control max-age in seconds
+     */
+    long maxAge() default 60;
+}
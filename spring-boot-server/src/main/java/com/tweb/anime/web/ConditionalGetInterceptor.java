@@ -0,0 +1,92 @@
+package com.tweb.anime.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conditional GET Interceptor
+ *
+ * For handlers annotated with {@link ConditionalGet}, compares
+ * If-None-Match / If-Modified-Since against {@link CatalogVersions} and
+ * short-circuits with 304 before the controller runs any query. ETags
+ * carry the negotiated {@link ResponseFormat}.
+ *
+ * Otherwise the validators and Cache-Control are kept on the request and
+ * only written for a 2xx response (by {@link ConditionalGetResponseAdvice},
+ * or here once a streamed body started), so 4xx/5xx answers are never
+ * publicly cacheable.
+ */
+public class ConditionalGetInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String VALIDATORS = ConditionalGetInterceptor.class.getName() + ".validators";
+
+    private final CatalogVersions catalogVersions;
+
+    public ConditionalGetInterceptor(CatalogVersions catalogVersions) {
+        this.catalogVersions = catalogVersions;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        ConditionalGet spec = handlerMethod.getMethodAnnotation(ConditionalGet.class);
+        if (spec == null || !("GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod()))) {
+            return true;
+        }
+
+        // One cached copy per encoding, 304s must not hand a JSON client a CBOR body
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        Validators validators = new Validators(
+                CacheControl.maxAge(spec.maxAge(), TimeUnit.SECONDS).cachePublic().getHeaderValue(),
+                ResponseFormat.of(request).tag(catalogVersions.etag(spec.value())),
+                catalogVersions.lastModified(spec.value()));
+        // Without a response the check only compares, it sets no header or status
+        if (new ServletWebRequest(request).checkNotModified(validators.etag(), validators.lastModified())) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            validators.writeTo(response);
+            return false;
+        }
+        request.setAttribute(VALIDATORS, validators);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        // Streamed bodies (exports): status and headers are set, nothing is written yet
+        writeValidators(request, response);
+    }
+
+    /**
+     * Adds the pending validators and Cache-Control of a {@link ConditionalGet} handler
+     * when the response is a 2xx that is not committed yet
+     */
+    static void writeValidators(HttpServletRequest request, HttpServletResponse response) {
+        if (request.getAttribute(VALIDATORS) instanceof Validators validators
+                && HttpStatus.valueOf(response.getStatus()).is2xxSuccessful() && !response.isCommitted()) {
+            request.removeAttribute(VALIDATORS);
+            validators.writeTo(response);
+        }
+    }
+
+    private record Validators(String cacheControl, String etag, long lastModified) {
+
+        void writeTo(HttpServletResponse response) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+            response.setHeader(HttpHeaders.ETAG, etag);
+            if (lastModified > 0) {
+                response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.tweb.anime.web;
+
+import java.util.Optional;
+
+/**
+ * Endpoint Group
+ *
+ * Families of /api endpoints with similar cost, each admitted through its
+ * own {@link Bulkhead} by {@link AdmissionControlFilter}.
+ */
+public enum EndpointGroup {
+
+    /** By-ID and batch lookups, counts, lookup tables */
+    LOOKUP,
+    /** Title/name search, autocomplete, attribute filters and facets */
+    SEARCH,
+    /** Keyset-paged lists, galleries and ranked lists */
+    LIST,
+    /** Full-table NDJSON/CSV exports */
+    EXPORT;
+
+    /**
+     * Group of a request path, empty for paths outside admission control (health check, non-API)
+     *
+     * @param path decoded path within the application, without ;path parameters
+     */
+    public static Optional<EndpointGroup> of(String path) {
+        if (!path.startsWith("/api/") || path.equals("/api/health")) {
+            return Optional.empty();
+        }
+        String[] segments = path.substring("/api/".length()).split("/");
+        if (segments.length == 1) {
+            // /api/search, and /api/anime (attribute filter)
+            return Optional.of(segments[0].equals("anime") || segments[0].equals("search") ? SEARCH : LOOKUP);
+        }
+        if (segments[0].equals("search")) {
+            // /api/search/text/{type}
+            return Optional.of(SEARCH);
+        }
+        if (segments.length > 2 && segments[1].equals("type")) {
+            return Optional.of(LIST);
+        }
+        return Optional.of(switch (segments[segments.length - 1]) {
+            case "search", "autocomplete", "facets" -> SEARCH;
+            case "all", "gallery", "popular", "top-rated" -> LIST;
+            case "export" -> EXPORT;
+            default -> LOOKUP;
+        });
+    }
+
+    /**
+     * Property key segment, catalog.admission.&lt;key&gt;.*
+     */
+    public String key() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,67 @@
+package com.tweb.anime.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.List;
+
+/**
+ * Response Format
+ *
+ * Body encodings the catalog endpoints negotiate through the Accept
+ * header. Used to keep ETags of different encodings apart, the encoding
+ * itself is chosen by the message converters.
+ */
+public enum ResponseFormat {
+
+    JSON(MediaType.APPLICATION_JSON),
+    CBOR(MediaType.APPLICATION_CBOR),
+    SMILE(new MediaType("application", "x-jackson-smile"));
+
+    private final MediaType mediaType;
+
+    ResponseFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    /**
+     * Binary format explicitly accepted with the highest preference, JSON otherwise
+     */
+    public static ResponseFormat of(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || accept.isBlank()) {
+            return JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return JSON;
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType type : accepted) {
+            if (type.isWildcardType() || type.isWildcardSubtype()) {
+                return JSON;
+            }
+            for (ResponseFormat format : values()) {
+                if (format.mediaType.isCompatibleWith(type)) {
+                    return format;
+                }
+            }
+        }
+        return JSON;
+    }
+
+    /**
+     * Strong or weak ETag {@code etag} made specific to this format, JSON ETags are unchanged
+     */
+    public String tag(String etag) {
+        if (this == JSON) {
+            return etag;
+        }
+        return etag.substring(0, etag.length() - 1) + "-" + name().toLowerCase() + "\"";
+    }
+}
@@ -0,0 +1,55 @@
+-- Catalog schema as originally imported (details, characters, person_details)
+-- Existing databases already hold these tables: they are baselined at this version, not re-created
+
+CREATE TABLE details (
+    mal_id         BIGSERIAL PRIMARY KEY,
+    title          VARCHAR(500),
+    title_english  VARCHAR(500),
+    title_japanese VARCHAR(500),
+    type           VARCHAR(50),
+    episodes       INTEGER,
+    status         VARCHAR(100),
+    aired_from     VARCHAR(255),
+    aired_to       VARCHAR(255),
+    premiered      VARCHAR(100),
+    broadcast      VARCHAR(100),
+    source         VARCHAR(100),
+    duration       VARCHAR(100),
+    rating         VARCHAR(100),
+    score          FLOAT(53),
+    scored_by      INTEGER,
+    rank           INTEGER,
+    popularity     INTEGER,
+    members        INTEGER,
+    favorites      INTEGER,
+    synopsis       TEXT,
+    background     TEXT,
+    genres         VARCHAR(500),
+    studios        VARCHAR(500),
+    image_url      VARCHAR(500),
+    trailer_url    VARCHAR(500),
+    url            VARCHAR(500)
+);
+
+CREATE TABLE characters (
+    character_id BIGSERIAL PRIMARY KEY,
+    name         VARCHAR(500),
+    name_kanji   VARCHAR(500),
+    favorites    INTEGER,
+    about        TEXT,
+    image_url    VARCHAR(500),
+    url          VARCHAR(500)
+);
+
+CREATE TABLE person_details (
+    person_id   BIGSERIAL PRIMARY KEY,
+    name        VARCHAR(500),
+    given_name  VARCHAR(500),
+    family_name VARCHAR(500),
+    birthday    VARCHAR(255),
+    favorites   INTEGER,
+    about       TEXT,
+    image_url   VARCHAR(500),
+    website_url VARCHAR(500),
+    url         VARCHAR(500)
+);
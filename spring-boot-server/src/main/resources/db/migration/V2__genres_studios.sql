@@ -0,0 +1,28 @@
+-- Genre/studio lookup tables and their join tables with details
+-- Runs after the V1 baseline on existing databases; IF NOT EXISTS keeps it safe on
+-- development databases where ddl-auto=update already created them
+
+CREATE TABLE IF NOT EXISTS genres (
+    genre_id BIGSERIAL PRIMARY KEY,
+    name     VARCHAR(100) NOT NULL UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS studios (
+    studio_id BIGSERIAL PRIMARY KEY,
+    name      VARCHAR(200) NOT NULL UNIQUE
+);
+
+-- (genre_id, mal_id) key: serves genre filters, no separate genre_id index needed
+CREATE TABLE IF NOT EXISTS anime_genres (
+    mal_id   BIGINT NOT NULL REFERENCES details (mal_id),
+    genre_id BIGINT NOT NULL REFERENCES genres (genre_id),
+    PRIMARY KEY (genre_id, mal_id)
+);
+
+CREATE TABLE IF NOT EXISTS anime_studios (
+    mal_id    BIGINT NOT NULL REFERENCES details (mal_id),
+    studio_id BIGINT NOT NULL REFERENCES studios (studio_id),
+    PRIMARY KEY (mal_id, studio_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_anime_studios_studio ON anime_studios (studio_id);
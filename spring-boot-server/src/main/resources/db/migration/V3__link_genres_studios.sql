@@ -0,0 +1,32 @@
+-- Backfill the genre/studio lookup and join tables from the details.genres and
+-- details.studios text ("['Action', 'Drama']" or "Action, Drama"), with the same
+-- split as GenreRepository/StudioRepository. After this the application only
+-- syncs the anime whose text changes; ON CONFLICT keeps it safe to re-run
+
+INSERT INTO genres (name)
+SELECT DISTINCT trim(both ''' " ' from s.tag)
+FROM details d
+CROSS JOIN LATERAL regexp_split_to_table(trim(both '[] ' from d.genres), ',') AS s(tag)
+WHERE trim(both ''' " ' from s.tag) <> ''
+ON CONFLICT (name) DO NOTHING;
+
+INSERT INTO anime_genres (mal_id, genre_id)
+SELECT DISTINCT d.mal_id, g.genre_id
+FROM details d
+CROSS JOIN LATERAL regexp_split_to_table(trim(both '[] ' from d.genres), ',') AS s(tag)
+JOIN genres g ON g.name = trim(both ''' " ' from s.tag)
+ON CONFLICT DO NOTHING;
+
+INSERT INTO studios (name)
+SELECT DISTINCT trim(both ''' " ' from s.tag)
+FROM details d
+CROSS JOIN LATERAL regexp_split_to_table(trim(both '[] ' from d.studios), ',') AS s(tag)
+WHERE trim(both ''' " ' from s.tag) <> ''
+ON CONFLICT (name) DO NOTHING;
+
+INSERT INTO anime_studios (mal_id, studio_id)
+SELECT DISTINCT d.mal_id, st.studio_id
+FROM details d
+CROSS JOIN LATERAL regexp_split_to_table(trim(both '[] ' from d.studios), ',') AS s(tag)
+JOIN studios st ON st.name = trim(both ''' " ' from s.tag)
+ON CONFLICT DO NOTHING;
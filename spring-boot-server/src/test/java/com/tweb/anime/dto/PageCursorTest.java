@@ -0,0 +1,41 @@
+package com.tweb.anime.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PageCursorTest {
+
+    @Test
+    void roundTripsAnyIdAsUrlSafeText() {
+        for (long id : new long[]{1, 62_999, Long.MAX_VALUE}) {
+            String cursor = PageCursor.encode(id);
+
+            assertThat(cursor).matches("[A-Za-z0-9_-]+");
+            assertThat(PageCursor.decode(cursor)).hasValue(id);
+        }
+    }
+
+    @Test
+    void missingCursorStartsAtTheFirstPage() {
+        assertThat(PageCursor.decode(null)).hasValue(0);
+        assertThat(PageCursor.decode("")).hasValue(0);
+        assertThat(PageCursor.decode("  ")).hasValue(0);
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        assertThat(PageCursor.decode("not a cursor!")).isEmpty();
+        assertThat(PageCursor.decode("12345")).isEmpty();
+        assertThat(PageCursor.decode(base64("k2:10"))).isEmpty();
+        assertThat(PageCursor.decode(base64("k1:ten"))).isEmpty();
+        assertThat(PageCursor.decode(base64("k1:"))).isEmpty();
+    }
+
+    private static String base64(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,81 @@
+package com.tweb.anime.index;
+
+import com.tweb.anime.dto.AnimeFacetRow;
+import com.tweb.anime.dto.FacetCount;
+import com.tweb.anime.dto.IdName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FacetSnapshotTest {
+
+    private static final double NONE = Double.NaN;
+
+    // 99 has a genre but no details row, 4 is unscored
+    private final FacetSnapshot snapshot = FacetSnapshot.build(
+            List.of(anime(3, "TV", 8.5), anime(1, "TV", 7.2), anime(2, "Movie", 9.1), anime(4, "OVA", null),
+                    anime(5, "Movie", 6.0)),
+            List.of(new IdName(1L, "Action"), new IdName(1L, "Drama"), new IdName(2L, "Action"),
+                    new IdName(3L, "Drama"), new IdName(5L, "Comedy"), new IdName(99L, "Action")),
+            List.of(new IdName(1L, "Sunrise"), new IdName(3L, "Bones")));
+
+    @Test
+    void facetKeepsCountsOfItsOwnUnselectedValues() {
+        FacetSnapshot.Result result = snapshot.search(Map.of(FacetSnapshot.TYPE, List.of("tv")), false, NONE, NONE, null, 10);
+
+        assertThat(result.ids()).containsExactly(1, 3);
+        // Counted over every filter but its own, so the other types stay selectable
+        assertThat(result.facets().get(FacetSnapshot.TYPE))
+                .containsExactly(new FacetCount("Movie", 2), new FacetCount("TV", 2), new FacetCount("OVA", 1));
+        assertThat(result.facets().get(FacetSnapshot.GENRE))
+                .containsExactly(new FacetCount("Drama", 2), new FacetCount("Action", 1));
+    }
+
+    @Test
+    void facetLimitCutsTiesByValueAndAppliesToScoreBuckets() {
+        FacetSnapshot.Result result = snapshot.search(Map.of(), false, NONE, NONE, null, 1);
+
+        assertThat(result.ids()).containsExactly(1, 2, 3, 4, 5);
+        assertThat(result.facets().get(FacetSnapshot.GENRE)).containsExactly(new FacetCount("Action", 2));
+        assertThat(result.facets().get(FacetSnapshot.TYPE)).containsExactly(new FacetCount("Movie", 2));
+        assertThat(result.facets().get(FacetSnapshot.SCORE)).containsExactly(new FacetCount("9", 1));
+        assertThat(snapshot.search(Map.of(), false, NONE, NONE, null, 0).facets().values())
+                .allSatisfy(values -> assertThat(values).isEmpty());
+    }
+
+    @Test
+    void genreModesAndUnknownGenres() {
+        Map<String, List<String>> both = Map.of(FacetSnapshot.GENRE, List.of("Action", "Drama"));
+        Map<String, List<String>> withUnknown = Map.of(FacetSnapshot.GENRE, List.of("Action", "Isekai"));
+
+        assertThat(snapshot.search(both, true, NONE, NONE, null, 10).ids()).containsExactly(1);
+        assertThat(snapshot.search(both, false, NONE, NONE, null, 10).ids()).containsExactly(1, 2, 3);
+        assertThat(snapshot.search(withUnknown, true, NONE, NONE, null, 10).ids()).isEmpty();
+        assertThat(snapshot.search(withUnknown, false, NONE, NONE, null, 10).ids()).containsExactly(1, 2);
+    }
+
+    @Test
+    void scoreRangeSkipsUnscoredAnime() {
+        FacetSnapshot.Result result = snapshot.search(Map.of(), false, 7, NONE, null, 10);
+
+        assertThat(result.ids()).containsExactly(1, 2, 3);
+        // Highest bucket first, and the range does not narrow its own facet
+        assertThat(result.facets().get(FacetSnapshot.SCORE)).containsExactly(
+                new FacetCount("9", 1), new FacetCount("8", 1), new FacetCount("7", 1), new FacetCount("6", 1));
+    }
+
+    @Test
+    void restrictToIgnoresIdsOutsideTheSnapshot() {
+        FacetSnapshot.Result result = snapshot.search(Map.of(), false, NONE, NONE, new long[]{5, 42, 2}, 10);
+
+        assertThat(result.ids()).containsExactly(2, 5);
+        assertThat(result.facets().get(FacetSnapshot.TYPE)).containsExactly(new FacetCount("Movie", 2));
+    }
+
+    private static AnimeFacetRow anime(long malId, String type, Double score) {
+        return new AnimeFacetRow(malId, type, null, null, null, null, score);
+    }
+}
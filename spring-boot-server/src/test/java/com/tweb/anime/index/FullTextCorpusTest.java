@@ -0,0 +1,98 @@
+package com.tweb.anime.index;
+
+import com.tweb.anime.dto.IdText;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FullTextCorpusTest {
+
+    private final List<IdText> rows = new ArrayList<>(List.of(
+            new IdText(1L, "A pirate crew sails the grand line"),
+            new IdText(2L, "A ninja village under attack"),
+            new IdText(3L, "Pirate hunters chase the crew")));
+    private final FullTextCorpus corpus = new FullTextCorpus(() -> List.copyOf(rows));
+
+    @Test
+    void writesAreSearchableBeforeTheNextBuild() {
+        corpus.rebuild();
+        corpus.put(4L, "Pirate ghosts haunt a pirate ship");
+        corpus.put(2L, "A ninja joins the pirate crew");
+        corpus.remove(1L);
+
+        InvertedIndex.Hits hits = corpus.search("pirate", 10);
+
+        assertThat(hits.ids()).containsExactlyInAnyOrder(2, 3, 4);
+        assertThat(hits.total()).isEqualTo(3);
+        assertThat(corpus.search("pirate", 0).total()).isEqualTo(3);
+        assertThat(corpus.search("village", 10).ids()).isEmpty();
+    }
+
+    @Test
+    void pendingDocumentsAreScoredWithTheBaseStatistics() {
+        rows.clear();
+        rows.add(new IdText(5L, "mecha"));
+        rows.add(new IdText(9L, "mecha"));
+        corpus.rebuild();
+        corpus.put(7L, "mecha");
+
+        InvertedIndex.Hits hits = corpus.search("mecha", 10);
+
+        assertThat(hits.ids()).containsExactly(5, 9, 7);
+        // Scored as one more document of the base, so it ranks below an identical base one
+        assertThat(hits.scores()[2]).isLessThan(hits.scores()[1]);
+        assertThat(corpus.search("mecha", 2).ids()).containsExactly(5, 9);
+    }
+
+    @Test
+    void rebuildFoldsPendingWrites() {
+        corpus.rebuild();
+        corpus.put(4L, "space pirate");
+        rows.add(new IdText(4L, "space pirate"));
+
+        corpus.rebuild();
+
+        assertThat(corpus.size()).isEqualTo(4);
+        assertThat(corpus.search("space", 10).ids()).containsExactly(4);
+    }
+
+    @Test
+    void writeDuringRebuildStaysPending() {
+        FullTextCorpus[] self = new FullTextCorpus[1];
+        FullTextCorpus rewriting = new FullTextCorpus(() -> {
+            // Rewritten after the loader read the old text
+            self[0].put(2L, "samurai");
+            return List.copyOf(rows);
+        });
+        self[0] = rewriting;
+        rewriting.put(2L, "ninja");
+
+        rewriting.rebuild();
+
+        assertThat(rewriting.search("samurai", 10).ids()).containsExactly(2);
+        assertThat(rewriting.search("ninja", 10).ids()).isEmpty();
+    }
+
+    @Test
+    void writersNeverFoldLargeOverlays() {
+        AtomicInteger loads = new AtomicInteger();
+        FullTextCorpus counted = new FullTextCorpus(() -> {
+            loads.incrementAndGet();
+            return List.copyOf(rows);
+        });
+        counted.rebuild();
+        for (long id = 100; id < 1_200; id++) {
+            counted.put(id, "kaiju " + id);
+        }
+
+        assertThat(loads).hasValue(1);
+        assertThat(counted.search("kaiju", 0).total()).isEqualTo(1_100);
+        assertThat(counted.foldIfLarge()).isTrue();
+        assertThat(loads).hasValue(2);
+        assertThat(counted.foldIfLarge()).isFalse();
+    }
+}
@@ -0,0 +1,67 @@
+package com.tweb.anime.index;
+
+import com.tweb.anime.dto.WeightedName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FuzzyMatcherTest {
+
+    @Test
+    void budgetGrowsWithTokenLength() {
+        assertThat(FuzzyMatcher.budget("ab")).isZero();
+        assertThat(FuzzyMatcher.budget("abc")).isEqualTo(1);
+        assertThat(FuzzyMatcher.budget("abcde")).isEqualTo(1);
+        assertThat(FuzzyMatcher.budget("abcdef")).isEqualTo(2);
+        // Code points, not UTF-16 units
+        assertThat(FuzzyMatcher.budget("𝔸𝔹")).isZero();
+    }
+
+    @Test
+    void toleratesTyposWithinBudget() {
+        FuzzyMatcher matcher = FuzzyMatcher.build(List.of(
+                new WeightedName(1L, "Naruto", 10L), new WeightedName(2L, "Bleach", 10L), new WeightedName(3L, "No Game No Life", 5L)));
+
+        assertThat(matcher.search("nartuo")).containsExactly(1);
+        assertThat(matcher.search("BLEACH")).containsExactly(2);
+        assertThat(matcher.search("blaech")).containsExactly(2);
+        assertThat(matcher.search("nrt")).isEmpty();
+        // Two-letter tokens must match exactly
+        assertThat(matcher.search("game na")).isEmpty();
+        assertThat(matcher.search("gane no")).containsExactly(3);
+        // A transposition is two edits, over the budget of a four-letter token
+        assertThat(matcher.search("gmae no")).isEmpty();
+        assertThat(matcher.search(" ?! ")).isEmpty();
+    }
+
+    @Test
+    void everyQueryTokenMustMatchTheSameName() {
+        FuzzyMatcher matcher = FuzzyMatcher.build(List.of(
+                new WeightedName(1L, "Fullmetal Alchemist", 1L), new WeightedName(1L, "Hagane no Renkinjutsushi", 1L),
+                new WeightedName(2L, "Fullmetal Panic", 1L)));
+
+        assertThat(matcher.search("fullmetal alchemist")).containsExactly(1);
+        assertThat(matcher.search("fullmetal renkinjutsushi")).isEmpty();
+    }
+
+    @Test
+    void ranksByEditsThenWeightThenId() {
+        FuzzyMatcher matcher = FuzzyMatcher.build(List.of(
+                new WeightedName(7L, "Monster", 1L), new WeightedName(3L, "Monster", 1L),
+                new WeightedName(5L, "Monster", 9L), new WeightedName(4L, "Monster", null),
+                new WeightedName(1L, "Mobster", 99L)));
+
+        assertThat(matcher.search("monster")).containsExactly(5, 3, 7, 4, 1);
+    }
+
+    @Test
+    void entityRanksByItsClosestName() {
+        FuzzyMatcher matcher = FuzzyMatcher.build(List.of(
+                new WeightedName(1L, "Kimetsu no Yaiba", 1L), new WeightedName(1L, "Demon Slayer", 1L),
+                new WeightedName(2L, "Demon Slayers", 50L)));
+
+        assertThat(matcher.search("demon slayer")).containsExactly(1, 2);
+    }
+}
@@ -0,0 +1,99 @@
+package com.tweb.anime.index;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class InvertedIndexTest {
+
+    @Test
+    void ranksByBm25() {
+        InvertedIndex index = InvertedIndex.build(new long[]{1, 2, 3},
+                new String[]{"dragon", "dragon dragon hunter village", "hunter guild"});
+
+        InvertedIndex.Hits hits = index.search("Dragon", 10, id -> false);
+
+        double average = 7 / 3.0;
+        double idf = InvertedIndex.idf(2, 3);
+        assertThat(hits.ids()).containsExactly(1, 2);
+        assertThat(hits.scores()[0]).isCloseTo(idf * InvertedIndex.termScore(1, 1, average), within(1e-6));
+        assertThat(hits.scores()[1]).isCloseTo(idf * InvertedIndex.termScore(2, 4, average), within(1e-6));
+        assertThat(index.averageLength()).isCloseTo(average, within(1e-9));
+    }
+
+    @Test
+    void scoresTheUnionOfQueryTerms() {
+        InvertedIndex index = InvertedIndex.build(new long[]{1, 2, 3},
+                new String[]{"dragon", "dragon hunter", "hunter"});
+
+        InvertedIndex.Hits hits = index.search("dragon hunter dragon", 10, id -> false);
+
+        assertThat(hits.ids()).startsWith(2);
+        assertThat(hits.total()).isEqualTo(3);
+    }
+
+    @Test
+    void dropsStopWordsSingleCharactersAndCase() {
+        InvertedIndex index = InvertedIndex.build(new long[]{1}, new String[]{"The Hero of a Town (Source: ANN) x"});
+
+        assertThat(InvertedIndex.terms("The Hero of a Town (Source: ANN) x")).containsExactly("hero", "town");
+        assertThat(index.terms()).isEqualTo(2);
+        assertThat(index.search("the", 10, id -> false).total()).isZero();
+        assertThat(index.search("HERO", 10, id -> false).ids()).containsExactly(1);
+    }
+
+    @Test
+    void excludedIdsAreNeitherReturnedNorCounted() {
+        InvertedIndex index = InvertedIndex.build(new long[]{1, 2}, new String[]{"mecha pilot", "mecha"});
+
+        InvertedIndex.Hits hits = index.search("mecha", 10, id -> id == 2);
+
+        assertThat(hits.ids()).containsExactly(1);
+        assertThat(hits.total()).isEqualTo(1);
+    }
+
+    @Test
+    void decodesMultiByteGapsAndFrequencies() {
+        // Posting gaps of 1, 200 (two varint bytes) and 19,799 (three bytes), and a term frequency of 300
+        int documents = 20_000;
+        long[] ids = new long[documents];
+        String[] texts = new String[documents];
+        for (int doc = 0; doc < documents; doc++) {
+            ids[doc] = 1_000_000L + doc;
+        }
+        texts[0] = "needle";
+        texts[200] = "needle " + "echo ".repeat(300);
+        texts[19_999] = "needle haystack";
+        texts[5_000] = "echo";
+
+        InvertedIndex index = InvertedIndex.build(ids, texts);
+
+        assertThat(index.documentFrequency("needle")).isEqualTo(3);
+        assertThat(index.search("needle", 10, id -> false).ids()).containsExactlyInAnyOrder(1_000_000L, 1_000_200L, 1_019_999L);
+        InvertedIndex.Hits echo = index.search("echo", 10, id -> false);
+        assertThat(echo.ids()).containsExactlyInAnyOrder(1_005_000L, 1_000_200L);
+        int repeated = echo.ids()[0] == 1_000_200L ? 0 : 1;
+        double average = (1 + 301 + 2 + 1) / (double) documents;
+        assertThat(echo.scores()[repeated]).isCloseTo(
+                InvertedIndex.idf(2, documents) * InvertedIndex.termScore(300, 301, average), within(1e-6));
+    }
+
+    @Test
+    void topKKeepsTheBestDocumentsAndCountsTheRest() {
+        long[] ids = new long[500];
+        String[] texts = new String[ids.length];
+        for (int doc = 0; doc < ids.length; doc++) {
+            ids[doc] = doc;
+            // Longer documents rank lower; every length repeats ten times, tied scores go to the smaller id
+            texts[doc] = "saga " + "filler ".repeat(doc % 50);
+        }
+        InvertedIndex index = InvertedIndex.build(ids, texts);
+
+        InvertedIndex.Hits hits = index.search("saga", 5, id -> false);
+
+        assertThat(hits.ids()).containsExactly(0, 50, 100, 150, 200);
+        assertThat(hits.total()).isEqualTo(500);
+        assertThat(index.search("saga", 0, id -> false).total()).isEqualTo(500);
+    }
+}
@@ -0,0 +1,69 @@
+package com.tweb.anime.index;
+
+import com.tweb.anime.dto.Suggestion;
+import com.tweb.anime.dto.WeightedName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrefixSuggesterTest {
+
+    @Test
+    void bestWeightFirstThenAlphabeticalWithUnweightedLast() {
+        PrefixSuggester suggester = PrefixSuggester.build(List.of(
+                new WeightedName(1L, "Naruto", 10L), new WeightedName(2L, "Naruto Shippuden", 30L),
+                new WeightedName(3L, "Nana", 10L), new WeightedName(4L, "One Piece", 99L),
+                new WeightedName(5L, "  nausicaä  ", null), new WeightedName(6L, " ", 50L)));
+
+        assertThat(suggester.size()).isEqualTo(5);
+        assertThat(suggester.suggest("NA", 10)).containsExactly(
+                new Suggestion(2L, "Naruto Shippuden"), new Suggestion(3L, "Nana"),
+                new Suggestion(1L, "Naruto"), new Suggestion(5L, "nausicaä"));
+        assertThat(suggester.suggest("nar", 1)).containsExactly(new Suggestion(2L, "Naruto Shippuden"));
+        assertThat(suggester.suggest("nx", 10)).isEmpty();
+        assertThat(suggester.suggest("  ", 10)).isEmpty();
+    }
+
+    @Test
+    void entityWithSeveralMatchingNamesIsSuggestedOnce() {
+        PrefixSuggester suggester = PrefixSuggester.build(List.of(
+                new WeightedName(1L, "Shingeki no Kyojin", 50L), new WeightedName(1L, "Shingeki: Attack on Titan", 50L),
+                new WeightedName(2L, "Shirobako", 10L)));
+
+        assertThat(suggester.suggest("shi", 10)).containsExactly(
+                new Suggestion(1L, "Shingeki no Kyojin"), new Suggestion(2L, "Shirobako"));
+    }
+
+    @Test
+    void prefixRangesCrossBlockBoundaries() {
+        // 16 entries per block: k010-k019 starts in the first block and ends in the second
+        List<WeightedName> names = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            names.add(new WeightedName((long) i, String.format("k%03d", i), (long) (i % 7)));
+        }
+        PrefixSuggester suggester = PrefixSuggester.build(names);
+
+        assertThat(suggester.suggest("k01", 10)).extracting(Suggestion::name).containsExactly(
+                "k013", "k012", "k019", "k011", "k018", "k010", "k017", "k016", "k015", "k014");
+        assertThat(suggester.suggest("k099", 10)).extracting(Suggestion::name).containsExactly("k099");
+        assertThat(suggester.suggest("k1", 10)).isEmpty();
+        assertThat(suggester.suggest("a", 10)).isEmpty();
+    }
+
+    @Test
+    void longSharedPrefixesAndMultiByteNamesRoundTrip() {
+        // Shared and suffix lengths of 128+ bytes need two-byte varints
+        String longPrefix = "A".repeat(150);
+        PrefixSuggester suggester = PrefixSuggester.build(List.of(
+                new WeightedName(1L, longPrefix + "x", 3L), new WeightedName(2L, longPrefix + "y".repeat(200), 2L),
+                new WeightedName(3L, "進撃の巨人", 2L), new WeightedName(4L, "進撃の巨人 Season 2", 1L)));
+
+        assertThat(suggester.suggest(longPrefix, 10)).extracting(Suggestion::name)
+                .containsExactly(longPrefix + "x", longPrefix + "y".repeat(200));
+        assertThat(suggester.suggest("進撃", 10)).extracting(Suggestion::name)
+                .containsExactly("進撃の巨人", "進撃の巨人 Season 2");
+    }
+}
@@ -0,0 +1,56 @@
+package com.tweb.anime.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RankedListTest {
+
+    private final List<Integer> requested = new ArrayList<>();
+    private final RankedList<Integer> ranked = new RankedList<>(5, limit -> {
+        requested.add(limit);
+        // Eight rows in the table
+        return IntStream.range(0, Math.min(limit, 8)).boxed().toList();
+    });
+
+    @Test
+    void limitsWithinCapacityShareOneLoad() {
+        assertThat(ranked.top(3)).containsExactly(0, 1, 2);
+        assertThat(ranked.top(5)).containsExactly(0, 1, 2, 3, 4);
+        assertThat(ranked.top(0)).isEmpty();
+
+        assertThat(requested).containsExactly(5);
+        assertThat(ranked.size()).isEqualTo(5);
+    }
+
+    @Test
+    void limitsPastCapacityRunTheQueryWithoutTouchingTheSnapshot() {
+        assertThat(ranked.top(7)).containsExactly(0, 1, 2, 3, 4, 5, 6);
+
+        assertThat(requested).containsExactly(7);
+        assertThat(ranked.size()).isZero();
+    }
+
+    @Test
+    void invalidateReloadsOnTheNextReadOnly() {
+        ranked.top(2);
+        ranked.invalidate();
+        ranked.invalidate();
+
+        assertThat(requested).containsExactly(5);
+        ranked.top(2);
+        ranked.top(4);
+        assertThat(requested).containsExactly(5, 5);
+    }
+
+    @Test
+    void shortRankingsAreNotPadded() {
+        RankedList<String> few = new RankedList<>(10, limit -> List.of("a", "b"));
+
+        assertThat(few.top(10)).containsExactly("a", "b");
+    }
+}
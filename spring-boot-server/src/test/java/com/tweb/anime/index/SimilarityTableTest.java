@@ -0,0 +1,127 @@
+package com.tweb.anime.index;
+
+import com.tweb.anime.dto.AnimeFacetRow;
+import com.tweb.anime.dto.IdName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SimilarityTableTest {
+
+    private static final ForkJoinPool POOL = ForkJoinPool.commonPool();
+
+    @Test
+    void idsOutsideTheTableHaveNoNeighbours() {
+        SimilarityTable empty = SimilarityTable.build(List.of(), List.of(), List.of(), 5, POOL);
+        SimilarityTable table = SimilarityTable.build(List.of(anime(1, "TV", 7.0), anime(2, "TV", 7.0)), List.of(), List.of(), 5, POOL);
+
+        assertThat(empty.neighbours(1L, 10)).isNull();
+        assertThat(table.neighbours(3L, 10)).isNull();
+        assertThat(table.neighbours(1L, 10).ids()).containsExactly(2);
+    }
+
+    @Test
+    void limitIsCappedByKAndCatalogSize() {
+        List<AnimeFacetRow> rows = List.of(anime(1, "TV", 7.0), anime(2, "TV", 7.0), anime(3, "TV", 7.0), anime(4, "TV", 7.0));
+
+        assertThat(SimilarityTable.build(rows, List.of(), List.of(), 2, POOL).neighbours(1L, 10).ids()).hasSize(2);
+        assertThat(SimilarityTable.build(rows, List.of(), List.of(), 8, POOL).neighbours(1L, 10).ids()).containsExactly(2, 3, 4);
+    }
+
+    @Test
+    void weighsEveryFeature() {
+        List<AnimeFacetRow> rows = List.of(
+                new AnimeFacetRow(1L, "TV", null, "Manga", "PG-13", null, 8.0),
+                new AnimeFacetRow(2L, "tv", null, "Manga", "R", null, 7.0),
+                new AnimeFacetRow(3L, "Movie", null, null, null, null, null));
+        List<IdName> genres = List.of(new IdName(1L, "Action"), new IdName(1L, "Drama"),
+                new IdName(2L, "Action"), new IdName(2L, "Comedy"), new IdName(3L, "Drama"));
+        List<IdName> studios = List.of(new IdName(1L, "Sunrise"), new IdName(2L, "Sunrise"), new IdName(2L, "Bones"));
+
+        SimilarityTable.Neighbours neighbours = SimilarityTable.build(rows, genres, studios, 5, POOL).neighbours(1L, 5);
+
+        assertThat(neighbours.ids()).containsExactly(2, 3);
+        // One of three genres, the only studio of 1, same type and source, one point apart
+        float expected = SimilarityTable.GENRES / 3 + SimilarityTable.STUDIOS + SimilarityTable.TYPE
+                + SimilarityTable.SOURCE + SimilarityTable.SCORE * 2 / 3;
+        assertThat(neighbours.similarities()[0]).isCloseTo(expected, within(1e-6f));
+        // One of two genres; unscored anime get no score weight
+        assertThat(neighbours.similarities()[1]).isCloseTo(SimilarityTable.GENRES / 2, within(1e-6f));
+    }
+
+    @Test
+    void tiedNeighboursAreOrderedBySmallerId() {
+        List<AnimeFacetRow> rows = List.of(anime(50, "TV", 8.0), anime(40, "TV", 8.0), anime(10, "TV", 8.0),
+                anime(30, "TV", 8.0), anime(20, "Movie", 8.0));
+
+        SimilarityTable table = SimilarityTable.build(rows, List.of(), List.of(), 2, POOL);
+
+        assertThat(table.neighbours(50L, 10).ids()).containsExactly(10, 30);
+        assertThat(table.neighbours(10L, 10).ids()).containsExactly(30, 40);
+        assertThat(table.neighbours(20L, 10).ids()).containsExactly(10, 30);
+    }
+
+    @Test
+    void heapKeepsTheWeakestAtTheRoot() {
+        int[] heap = new int[6];
+        float[] scores = new float[6];
+        float[] inserted = {0.5f, 0.2f, 0.9f, 0.2f, 0.7f, 0.1f};
+        for (int i = 0; i < inserted.length; i++) {
+            heap[i] = i;
+            scores[i] = inserted[i];
+            SimilarityTable.RowTask.siftUp(heap, scores, i);
+        }
+
+        // Lowest score first, the later ordinal of a tie is the weaker
+        List<Integer> drained = new ArrayList<>();
+        for (int size = heap.length; size > 0; size--) {
+            drained.add(heap[0]);
+            heap[0] = heap[size - 1];
+            scores[0] = scores[size - 1];
+            SimilarityTable.RowTask.siftDown(heap, scores, size - 1);
+        }
+        assertThat(drained).containsExactly(5, 3, 1, 0, 4, 2);
+    }
+
+    @Test
+    void studioOverlapCanOvertakeTheCurrentKthNeighbour() {
+        // Without the studio term 3 scores below 2, so the studio merge must not be skipped for it
+        List<AnimeFacetRow> rows = List.of(anime(1, "TV", null), anime(2, "TV", null), anime(3, "Movie", null),
+                anime(4, "Movie", null), anime(5, "TV", null));
+        List<IdName> studios = List.of(new IdName(1L, "Madhouse"), new IdName(3L, "Madhouse"), new IdName(4L, "Bones"));
+
+        SimilarityTable.Neighbours neighbours = SimilarityTable.build(rows, List.of(), studios, 1, POOL).neighbours(1L, 1);
+
+        assertThat(neighbours.ids()).containsExactly(3);
+        assertThat(neighbours.similarities()[0]).isEqualTo(SimilarityTable.STUDIOS);
+    }
+
+    @Test
+    void largeCatalogsSplitAcrossTasksAndBitsetWords() {
+        // 200 rows (several fork/join leaves), 100 genres (two bitset words); i and i + 100 share the only genre
+        List<AnimeFacetRow> rows = new ArrayList<>();
+        List<IdName> genres = new ArrayList<>();
+        for (long id = 1; id <= 200; id++) {
+            rows.add(anime(id, null, null));
+            genres.add(new IdName(id, "genre-" + id % 100));
+        }
+
+        SimilarityTable table = SimilarityTable.build(rows, genres, List.of(), 1, POOL);
+
+        assertThat(table.size()).isEqualTo(200);
+        for (long id = 1; id <= 200; id++) {
+            SimilarityTable.Neighbours neighbours = table.neighbours(id, 1);
+            assertThat(neighbours.ids()).as("%d", id).containsExactly(id > 100 ? id - 100 : id + 100);
+            assertThat(neighbours.similarities()[0]).isEqualTo(SimilarityTable.GENRES);
+        }
+    }
+
+    private static AnimeFacetRow anime(long malId, String type, Double score) {
+        return new AnimeFacetRow(malId, type, null, null, null, null, score);
+    }
+}
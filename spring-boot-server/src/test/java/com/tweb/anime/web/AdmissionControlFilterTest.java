@@ -0,0 +1,93 @@
+package com.tweb.anime.web;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionControlFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AdmissionControlFilter filter = saturated(request -> "warmup".equals(request.getHeader("X-Client")));
+
+    @Test
+    void classifiesTheNormalizedPath() throws Exception {
+        assertThat(groupOf(get("/api/characters/all;jsessionid=42"))).isEqualTo(EndpointGroup.LIST);
+        assertThat(groupOf(get("/api/characters/%61ll"))).isEqualTo(EndpointGroup.LIST);
+        assertThat(groupOf(get("/api//anime/top-rated"))).isEqualTo(EndpointGroup.LIST);
+        assertThat(groupOf(get("/api/anime/type/TV;v=2"))).isEqualTo(EndpointGroup.LIST);
+        assertThat(groupOf(get("/api/search/text/%61nime"))).isEqualTo(EndpointGroup.SEARCH);
+        assertThat(groupOf(get("/api/anime/%65xport"))).isEqualTo(EndpointGroup.EXPORT);
+    }
+
+    @Test
+    void contextPathIsNotPartOfThePath() throws Exception {
+        MockHttpServletRequest request = get("/catalog/api/anime/export");
+        request.setContextPath("/catalog");
+
+        assertThat(groupOf(request)).isEqualTo(EndpointGroup.EXPORT);
+    }
+
+    @Test
+    void rejectionCarriesRetryAfterAndIsCounted() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(get("/api/anime/gallery"), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("3");
+        assertThat(chain.getRequest()).isNull();
+        assertThat(registry.get("catalog.admission.rejected").tag("group", "list").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void preflightsHealthChecksAndExemptRequestsBypassTheBulkheads() throws Exception {
+        MockHttpServletRequest preflight = new MockHttpServletRequest("OPTIONS", "/api/anime/export");
+        MockHttpServletRequest warmup = get("/api/anime/export");
+        warmup.addHeader("X-Client", "warmup");
+
+        for (MockHttpServletRequest request : new MockHttpServletRequest[]{preflight, get("/api/health"), warmup}) {
+            MockFilterChain chain = new MockFilterChain();
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+            assertThat(chain.getRequest()).as(request.getRequestURI()).isSameAs(request);
+        }
+    }
+
+    /**
+     * Group whose bulkhead rejected the request, read back from its Retry-After
+     */
+    private EndpointGroup groupOf(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        assertThat(response.getStatus()).as(request.getRequestURI()).isEqualTo(503);
+        return EndpointGroup.values()[Integer.parseInt(response.getHeader("Retry-After")) - 1];
+    }
+
+    /**
+     * Every group rejects at once, each with its own Retry-After (ordinal + 1 seconds)
+     */
+    private AdmissionControlFilter saturated(Predicate<HttpServletRequest> exempt) {
+        Map<EndpointGroup, Bulkhead> bulkheads = new EnumMap<>(EndpointGroup.class);
+        Map<EndpointGroup, Duration> retryAfter = new EnumMap<>(EndpointGroup.class);
+        for (EndpointGroup group : EndpointGroup.values()) {
+            bulkheads.put(group, new Bulkhead(0, 0, Duration.ZERO));
+            retryAfter.put(group, Duration.ofSeconds(group.ordinal() + 1));
+        }
+        return new AdmissionControlFilter(bulkheads, retryAfter, registry, exempt);
+    }
+
+    private static MockHttpServletRequest get(String uri) {
+        return new MockHttpServletRequest("GET", uri);
+    }
+}
@@ -0,0 +1,71 @@
+package com.tweb.anime.web;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BulkheadTest {
+
+    private final ExecutorService waiters = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void stopWaiters() {
+        waiters.shutdownNow();
+    }
+
+    @Test
+    void fullQueueRejectsWithoutWaiting() throws Exception {
+        Bulkhead bulkhead = new Bulkhead(1, 0, Duration.ofSeconds(10));
+        assertThat(bulkhead.tryEnter()).isTrue();
+
+        long start = System.nanoTime();
+        assertThat(bulkhead.tryEnter()).isFalse();
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        assertThat(bulkhead.getActive()).isEqualTo(1);
+        assertThat(bulkhead.getWaiting()).isZero();
+    }
+
+    @Test
+    void waitRunsOutWhenNoPermitIsReleased() throws Exception {
+        Bulkhead bulkhead = new Bulkhead(1, 1, Duration.ofMillis(100));
+        assertThat(bulkhead.tryEnter()).isTrue();
+
+        long start = System.nanoTime();
+        assertThat(bulkhead.tryEnter()).isFalse();
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(100));
+        assertThat(bulkhead.getWaiting()).isZero();
+    }
+
+    @Test
+    void queuedRequestTakesTheReleasedPermit() throws Exception {
+        Bulkhead bulkhead = new Bulkhead(1, 1, Duration.ofSeconds(10));
+        assertThat(bulkhead.tryEnter()).isTrue();
+        Future<Boolean> queued = waiters.submit(bulkhead::tryEnter);
+        awaitWaiting(bulkhead, 1);
+
+        // The queue holds one request, the next is turned away
+        assertThat(bulkhead.tryEnter()).isFalse();
+        bulkhead.release();
+
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(bulkhead.getActive()).isEqualTo(1);
+        assertThat(bulkhead.getWaiting()).isZero();
+    }
+
+    private static void awaitWaiting(Bulkhead bulkhead, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (bulkhead.getWaiting() != expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(bulkhead.getWaiting()).isEqualTo(expected);
+    }
+}
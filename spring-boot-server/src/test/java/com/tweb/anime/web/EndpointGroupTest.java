@@ -0,0 +1,55 @@
+package com.tweb.anime.web;
+
+import org.junit.jupiter.api.Test;
+
+import static com.tweb.anime.web.EndpointGroup.EXPORT;
+import static com.tweb.anime.web.EndpointGroup.LIST;
+import static com.tweb.anime.web.EndpointGroup.LOOKUP;
+import static com.tweb.anime.web.EndpointGroup.SEARCH;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EndpointGroupTest {
+
+    @Test
+    void pathsOutsideTheApiAreNotAdmitted() {
+        assertThat(EndpointGroup.of("/api/health")).isEmpty();
+        assertThat(EndpointGroup.of("/actuator/prometheus")).isEmpty();
+        assertThat(EndpointGroup.of("/swagger-ui.html")).isEmpty();
+        assertThat(EndpointGroup.of("/api")).isEmpty();
+    }
+
+    @Test
+    void singleSegmentPaths() {
+        // /api/anime is the attribute filter, /api/search the cross-entity search
+        assertThat(EndpointGroup.of("/api/anime")).contains(SEARCH);
+        assertThat(EndpointGroup.of("/api/search")).contains(SEARCH);
+        assertThat(EndpointGroup.of("/api/characters")).contains(LOOKUP);
+    }
+
+    @Test
+    void groupedByTheLastSegment() {
+        assertThat(EndpointGroup.of("/api/anime/search")).contains(SEARCH);
+        assertThat(EndpointGroup.of("/api/people/autocomplete")).contains(SEARCH);
+        assertThat(EndpointGroup.of("/api/anime/facets")).contains(SEARCH);
+        assertThat(EndpointGroup.of("/api/characters/gallery")).contains(LIST);
+        assertThat(EndpointGroup.of("/api/anime/top-rated")).contains(LIST);
+        assertThat(EndpointGroup.of("/api/people/all")).contains(LIST);
+        assertThat(EndpointGroup.of("/api/anime/export")).contains(EXPORT);
+        assertThat(EndpointGroup.of("/api/anime/count")).contains(LOOKUP);
+        assertThat(EndpointGroup.of("/api/anime/count/types")).contains(LOOKUP);
+        assertThat(EndpointGroup.of("/api/anime/genres")).contains(LOOKUP);
+        assertThat(EndpointGroup.of("/api/anime/batch")).contains(LOOKUP);
+        assertThat(EndpointGroup.of("/api/search/autocomplete")).contains(SEARCH);
+    }
+
+    @Test
+    void variableSegmentsDoNotDecideTheGroup() {
+        // An id or type named like an endpoint must not move the request
+        assertThat(EndpointGroup.of("/api/anime/5114")).contains(LOOKUP);
+        assertThat(EndpointGroup.of("/api/anime/5114/similar")).contains(LOOKUP);
+        assertThat(EndpointGroup.of("/api/anime/type/TV")).contains(LIST);
+        assertThat(EndpointGroup.of("/api/anime/type/export")).contains(LIST);
+        assertThat(EndpointGroup.of("/api/search/text/anime")).contains(SEARCH);
+        assertThat(EndpointGroup.of("/api/search/text/export")).contains(SEARCH);
+    }
+}
@@ -0,0 +1,47 @@
+package com.tweb.anime.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseFormatTest {
+
+    @Test
+    void binaryFormatsOnlyWhenExplicitlyPreferred() {
+        assertThat(format(null)).isEqualTo(ResponseFormat.JSON);
+        assertThat(format("application/cbor")).isEqualTo(ResponseFormat.CBOR);
+        assertThat(format("application/x-jackson-smile")).isEqualTo(ResponseFormat.SMILE);
+        assertThat(format("text/html, application/cbor")).isEqualTo(ResponseFormat.CBOR);
+        // Browsers and axios send wildcards, they keep getting JSON
+        assertThat(format("*/*")).isEqualTo(ResponseFormat.JSON);
+        assertThat(format("application/*, application/cbor;q=0.5")).isEqualTo(ResponseFormat.JSON);
+    }
+
+    @Test
+    void qualityDecidesBetweenFormats() {
+        assertThat(format("application/cbor;q=0.5, application/json")).isEqualTo(ResponseFormat.JSON);
+        assertThat(format("application/json;q=0.5, application/cbor")).isEqualTo(ResponseFormat.CBOR);
+    }
+
+    @Test
+    void malformedAcceptFallsBackToJson() {
+        assertThat(format("application/cbor;q=")).isEqualTo(ResponseFormat.JSON);
+        assertThat(format("nonsense")).isEqualTo(ResponseFormat.JSON);
+    }
+
+    @Test
+    void tagKeepsEtagsOfEncodingsApart() {
+        assertThat(ResponseFormat.JSON.tag("W/\"abc-3\"")).isEqualTo("W/\"abc-3\"");
+        assertThat(ResponseFormat.CBOR.tag("W/\"abc-3\"")).isEqualTo("W/\"abc-3-cbor\"");
+        assertThat(ResponseFormat.SMILE.tag("\"abc\"")).isEqualTo("\"abc-smile\"");
+    }
+
+    private static ResponseFormat format(String accept) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/anime/1");
+        if (accept != null) {
+            request.addHeader("Accept", accept);
+        }
+        return ResponseFormat.of(request);
+    }
+}